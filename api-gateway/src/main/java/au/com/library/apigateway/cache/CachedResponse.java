@@ -0,0 +1,18 @@
+package au.com.library.apigateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.Duration;
+
+/**
+ * A response held in the {@link ResponseCache}.
+ *
+ * @param status  The response status.
+ * @param headers The response headers, including the entity tag.
+ * @param body    The response body.
+ * @param etag    The entity tag of the response body.
+ * @param ttl     How long the response may be served from the cache.
+ */
+public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, String etag, Duration ttl) {
+}
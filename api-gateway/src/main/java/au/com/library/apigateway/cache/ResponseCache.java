@@ -0,0 +1,122 @@
+package au.com.library.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, in-process cache of catalogue responses, keyed by request path and query, so that repeated reads of
+ * nearly static catalogue data are served by the gateway without calling the book service.
+ * <p>
+ * The cache is bounded by the total size of the cached response bodies rather than by the number of entries, and
+ * each entry expires after the time to live of the route that produced it. The whole cache is purged when the
+ * catalogue changes. Hit, miss and eviction counts are published as metrics.
+ * <p>
+ * A response is only stored if no purge has happened since its request was forwarded, so a response read before a
+ * change can never be cached after the change has been purged.
+ */
+@Component
+public class ResponseCache {
+
+    private final Cache<String, CachedResponse> responses;
+    private final AtomicLong generation = new AtomicLong();
+    private final long maximumEntryBytes;
+
+    @Autowired
+    public ResponseCache(MeterRegistry meterRegistry,
+                         @Value("${gateway.response-cache.maximum-bytes}") long maximumBytes,
+                         @Value("${gateway.response-cache.maximum-entry-bytes}") long maximumEntryBytes) {
+        this(meterRegistry, maximumBytes, maximumEntryBytes, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a cache that reads the time from the specified ticker and runs its maintenance, such as evicting
+     * the entries over its size, on the specified executor, so that tests can control both.
+     */
+    ResponseCache(MeterRegistry meterRegistry, long maximumBytes, long maximumEntryBytes, Ticker ticker,
+                  Executor executor) {
+        this.maximumEntryBytes = maximumEntryBytes;
+        this.responses = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .ticker(ticker)
+                .executor(executor)
+                .maximumWeight(maximumBytes)
+                .weigher((String key, CachedResponse response) -> key.length() + response.body().length)
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return response.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime,
+                                                  long currentDuration) {
+                        return response.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build(), "gateway-responses");
+    }
+
+    /**
+     * Finds a cached response.
+     *
+     * @param key The cache key of the request.
+     * @return The cached response, or null if there is no unexpired response for the key.
+     */
+    public CachedResponse find(String key) {
+        return responses.getIfPresent(key);
+    }
+
+    /**
+     * Returns the current generation of the cache, which must be read before a request is forwarded and passed to
+     * {@link #put(String, CachedResponse, long)} with its response.
+     *
+     * @return The current generation.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Caches a response, unless it is larger than the maximum entry size or the cache has been purged since the
+     * given generation.
+     *
+     * @param key        The cache key of the request.
+     * @param response   The response to cache.
+     * @param generation The generation read before the request was forwarded.
+     */
+    public void put(String key, CachedResponse response, long generation) {
+        if (response.body().length > maximumEntryBytes || this.generation.get() != generation) {
+            return;
+        }
+        responses.put(key, response);
+        // A purge may have run between the check and the put, so remove the entry again if it did.
+        if (this.generation.get() != generation) {
+            responses.invalidate(key);
+        }
+    }
+
+    /**
+     * Removes every cached response.
+     */
+    public void purge() {
+        generation.incrementAndGet();
+        responses.invalidateAll();
+    }
+}
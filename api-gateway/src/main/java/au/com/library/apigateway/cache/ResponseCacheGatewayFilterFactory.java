@@ -0,0 +1,186 @@
+package au.com.library.apigateway.cache;
+
+import au.com.library.apigateway.coalescing.CoalesceRequestsGatewayFilterFactory;
+import lombok.Getter;
+import lombok.Setter;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * A route filter that serves repeated GET requests from the {@link ResponseCache} and purges the cache when a
+ * request that may change the catalogue completes.
+ * <p>
+ * Successful GET responses are cached for the time to live of the route and returned with an entity tag, and a
+ * request whose {@code If-None-Match} header matches the entity tag receives a {@code 304 Not Modified} response
+ * without a body. Every other request except HEAD and OPTIONS purges the cache once it completes, unless it was
+ * rejected with a client error. The {@code X-Cache} response header reports whether a response was a cache hit.
+ * <p>
+ * Configured per route, for example {@code ResponseCache=60s}. A time to live of zero leaves the responses of the
+ * route uncached but still purges the cache on writes.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    /**
+     * Runs before the response body is written, so that the body can be captured, and before requests are
+     * coalesced, so that cache hits are never held back waiting for another request.
+     */
+    public static final int ORDER = CoalesceRequestsGatewayFilterFactory.ORDER - 1;
+
+    private static final String CACHE_HEADER = "X-Cache";
+
+    private final ResponseCache responseCache;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCache responseCache) {
+        super(Config.class);
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            HttpMethod method = exchange.getRequest().getMethod();
+            if (HttpMethod.GET.equals(method)) {
+                return config.getTtl().isPositive() ? read(exchange, chain, config.getTtl()) : chain.filter(exchange);
+            }
+            if (HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method)) {
+                return chain.filter(exchange);
+            }
+            return chain.filter(exchange).doFinally(_ -> {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                if (status == null || !status.is4xxClientError()) {
+                    responseCache.purge();
+                }
+            });
+        }, ORDER);
+    }
+
+    /**
+     * Serves a GET request from the cache, or forwards it and caches the response.
+     */
+    private Mono<Void> read(ServerWebExchange exchange, GatewayFilterChain chain, Duration ttl) {
+        ServerHttpRequest request = exchange.getRequest();
+        String query = request.getURI().getRawQuery();
+        String key = query == null ? request.getURI().getRawPath() : request.getURI().getRawPath() + "?" + query;
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+
+        CachedResponse cached = responseCache.find(key);
+        if (cached != null) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(cached.status());
+            response.getHeaders().putAll(cached.headers());
+            return write(response, cached, ifNoneMatch, "HIT");
+        }
+
+        long generation = responseCache.generation();
+        ServerHttpResponseDecorator response = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                HttpStatusCode status = getStatusCode();
+                if (status == null || status.value() != HttpStatus.OK.value() || !isCacheable(getHeaders())) {
+                    return super.writeWith(body);
+                }
+                return DataBufferUtils.join(body).flatMap(joined -> {
+                    byte[] bytes = new byte[joined.readableByteCount()];
+                    joined.read(bytes);
+                    DataBufferUtils.release(joined);
+                    CachedResponse fetched = toCachedResponse(status, getHeaders(), bytes, ttl);
+                    responseCache.put(key, fetched, generation);
+                    return write(getDelegate(), fetched, ifNoneMatch, "MISS");
+                });
+            }
+        };
+        return chain.filter(exchange.mutate().response(response).build());
+    }
+
+    /**
+     * Writes a cached response, or a {@code 304 Not Modified} response if the client already holds it. The status
+     * and headers of the cached response must already have been applied.
+     */
+    private Mono<Void> write(ServerHttpResponse response, CachedResponse cached, List<String> ifNoneMatch,
+                             String cacheStatus) {
+        response.getHeaders().set(CACHE_HEADER, cacheStatus);
+        if (matches(ifNoneMatch, cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+            response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * Adds an entity tag, and a {@code Cache-Control} header asking clients to revalidate if the book service did
+     * not set one, to the response and returns a copy of it to cache.
+     */
+    private static CachedResponse toCachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body,
+                                                   Duration ttl) {
+        String etag = "\"0" + DigestUtils.md5DigestAsHex(body) + "\"";
+        headers.setETag(etag);
+        if (headers.getCacheControl() == null) {
+            headers.setCacheControl("no-cache");
+        }
+        HttpHeaders cachedHeaders = new HttpHeaders();
+        cachedHeaders.putAll(headers);
+        cachedHeaders.remove(HttpHeaders.TRANSFER_ENCODING);
+        cachedHeaders.remove(HttpHeaders.CONNECTION);
+        cachedHeaders.setContentLength(body.length);
+        return new CachedResponse(status, cachedHeaders, body, etag, ttl);
+    }
+
+    private static boolean isCacheable(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        return headers.getFirst(HttpHeaders.SET_COOKIE) == null
+                && (cacheControl == null || !(cacheControl.contains("no-store") || cacheControl.contains("private")));
+    }
+
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch) {
+            if (candidate.equals("*") || stripWeakPrefix(candidate).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeakPrefix(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * The configuration of the filter for a route.
+     */
+    @Getter
+    @Setter
+    public static class Config {
+        /**
+         * How long GET responses of the route are cached, or zero to leave them uncached.
+         */
+        private Duration ttl = Duration.ZERO;
+    }
+}
@@ -0,0 +1,177 @@
+package au.com.library.apigateway.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A route filter that collapses concurrent identical GET requests into a single upstream request and shares its
+ * response with every request that arrived while it was in flight.
+ * <p>
+ * Requests are identical if they have the same path, query and {@code Accept} header. The first request forwards
+ * and the others wait for its response; a request arriving after the response has been received starts a new
+ * upstream request. If the forwarded request fails or is cancelled before its response body is received, the
+ * waiting requests are forwarded individually.
+ * <p>
+ * The shared response body is held in memory, so responses larger than the maximum body size are streamed through
+ * rather than shared, and the requests waiting on them are forwarded individually. At most the maximum body size is
+ * buffered before a response without a {@code Content-Length} header is found to be too large.
+ * <p>
+ * The number of forwarded and coalesced requests, and the number of upstream requests in flight, are published as
+ * metrics. Configured per route as {@code CoalesceRequests}.
+ */
+@Component
+public class CoalesceRequestsGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
+
+    /**
+     * Runs just before the response body is written, so that the body can be captured.
+     */
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    private final ConcurrentMap<String, Sinks.One<Optional<SharedResponse>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter forwarded;
+    private final Counter coalesced;
+    private final long maximumBodyBytes;
+
+    public CoalesceRequestsGatewayFilterFactory(MeterRegistry meterRegistry,
+                                                @Value("${gateway.coalescing.maximum-body-bytes}") long maximumBodyBytes) {
+        this.maximumBodyBytes = maximumBodyBytes;
+        this.forwarded = Counter.builder("gateway.coalescing.requests")
+                .description("GET requests forwarded upstream or answered with the response of an identical request")
+                .tag("outcome", "forwarded")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("gateway.coalescing.requests")
+                .description("GET requests forwarded upstream or answered with the response of an identical request")
+                .tag("outcome", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("gateway.coalescing.in-flight", inFlight, ConcurrentMap::size)
+                .description("Upstream GET requests that identical requests can currently join")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public GatewayFilter apply(Object config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            if (!HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+                return chain.filter(exchange);
+            }
+            String key = key(exchange.getRequest());
+            Sinks.One<Optional<SharedResponse>> flight = Sinks.one();
+            Sinks.One<Optional<SharedResponse>> existing = inFlight.putIfAbsent(key, flight);
+            if (existing == null) {
+                return forward(exchange, chain, key, flight);
+            }
+            return existing.asMono().flatMap(shared -> {
+                if (shared.isEmpty()) {
+                    forwarded.increment();
+                    return chain.filter(exchange);
+                }
+                coalesced.increment();
+                return write(exchange.getResponse(), shared.get());
+            });
+        }, ORDER);
+    }
+
+    /**
+     * Forwards a request and shares its response with the identical requests waiting on the flight.
+     */
+    private Mono<Void> forward(ServerWebExchange exchange, GatewayFilterChain chain, String key,
+                               Sinks.One<Optional<SharedResponse>> flight) {
+        forwarded.increment();
+        ServerHttpResponseDecorator response = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                HttpStatusCode status = getStatusCode();
+                if (status == null || getHeaders().getContentLength() > maximumBodyBytes) {
+                    complete(key, flight, Optional.empty());
+                    return super.writeWith(body);
+                }
+                // Buffers the body until it ends, when it is shared, or until it grows too large to share, when the
+                // buffered part and the rest of the body are streamed through.
+                AtomicLong size = new AtomicLong();
+                return getDelegate().writeWith(Flux.<DataBuffer>from(body)
+                        .bufferUntil(buffer -> size.addAndGet(buffer.readableByteCount()) > maximumBodyBytes)
+                        .concatMap(buffers -> {
+                            if (size.get() > maximumBodyBytes) {
+                                complete(key, flight, Optional.empty());
+                                return Flux.fromIterable(buffers);
+                            }
+                            DataBuffer joined = bufferFactory().join(buffers);
+                            byte[] bytes = new byte[joined.readableByteCount()];
+                            joined.read(bytes);
+                            DataBufferUtils.release(joined);
+                            complete(key, flight, Optional.of(new SharedResponse(status, copyOf(getHeaders(), bytes), bytes)));
+                            return Mono.just(bufferFactory().wrap(bytes));
+                        })
+                        .doOnDiscard(DataBuffer.class, DataBufferUtils::release));
+            }
+        };
+        return chain.filter(exchange.mutate().response(response).build())
+                .doFinally(_ -> complete(key, flight, Optional.empty()));
+    }
+
+    /**
+     * Ends a flight so that later requests are forwarded again, and releases the requests waiting on it. Only the
+     * first call for a flight takes effect.
+     */
+    private void complete(String key, Sinks.One<Optional<SharedResponse>> flight, Optional<SharedResponse> shared) {
+        inFlight.remove(key, flight);
+        flight.tryEmitValue(shared);
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.status());
+        response.getHeaders().putAll(shared.headers());
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    private static HttpHeaders copyOf(HttpHeaders headers, byte[] body) {
+        HttpHeaders copy = new HttpHeaders();
+        copy.putAll(headers);
+        copy.remove(HttpHeaders.TRANSFER_ENCODING);
+        copy.remove(HttpHeaders.CONNECTION);
+        copy.setContentLength(body.length);
+        return copy;
+    }
+
+    private static String key(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String accept = request.getHeaders().getFirst(HttpHeaders.ACCEPT);
+        return request.getURI().getRawPath() + (query == null ? "" : "?" + query) + " " + accept;
+    }
+
+    /**
+     * A response shared by coalesced requests.
+     *
+     * @param status  The response status.
+     * @param headers The response headers.
+     * @param body    The response body.
+     */
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+}
@@ -0,0 +1,13 @@
+package au.com.library.apigateway.kafka;
+
+/**
+ * The gateway's view of a change to a book, edition or member published to Kafka by the services.
+ * <p>
+ * The gateway is built separately from the services, so it reads the event type by name rather than depending on
+ * the shared contracts module.
+ *
+ * @param eventType The name of the type of the change event, for example {@code BOOK_UPDATED}.
+ * @param id        The unique identifier of the changed book, edition or member.
+ */
+public record ChangeEvent(String eventType, Long id) {
+}
@@ -0,0 +1,43 @@
+package au.com.library.apigateway.kafka;
+
+import au.com.library.apigateway.cache.ResponseCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Subscribes to change events from Kafka and purges the {@link ResponseCache} when a book or edition, or the
+ * availability of an edition's copies, changes, including changes made by requests that did not pass through this
+ * gateway, such as loans, returns, holds and their expiry.
+ * <p>
+ * Every instance of the gateway holds its own cache, so each instance subscribes with its own consumer group and
+ * therefore receives every change event.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeEventSubscriber {
+
+    private final ResponseCache responseCache;
+
+    /**
+     * Subscribes to change events and purges the cached catalogue responses if a book, edition or availability
+     * changed, as book and edition responses embed their copies and availability.
+     *
+     * @param eventPayload The payload of the change event.
+     * @throws IllegalArgumentException if the payload is null.
+     */
+    @KafkaListener(
+            topics = "${spring.kafka.topic.change-event}",
+            groupId = "${spring.application.name}-${random.uuid}"
+    )
+    public void subscribe(@Payload ChangeEvent eventPayload) {
+        if(eventPayload == null){
+            throw new IllegalArgumentException("The event payload cannot be null");
+        }
+        if ("BOOK_UPDATED".equals(eventPayload.eventType()) || "EDITION_UPDATED".equals(eventPayload.eventType())
+                || "AVAILABILITY_UPDATED".equals(eventPayload.eventType())) {
+            responseCache.purge();
+        }
+    }
+}
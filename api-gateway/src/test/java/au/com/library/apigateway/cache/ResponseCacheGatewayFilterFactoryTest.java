@@ -0,0 +1,221 @@
+package au.com.library.apigateway.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.DigestUtils;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests the caching of GET responses by the {@link ResponseCacheGatewayFilterFactory} filter, and the purging of
+ * the cache by other requests, against an upstream that counts the requests forwarded to it and answers with a
+ * fixed JSON body.
+ */
+public class ResponseCacheGatewayFilterFactoryTest {
+
+    private static final String BODY = "{\"id\":1,\"title\":\"The Dispossessed\"}";
+    private static final String ETAG = "\"0" + DigestUtils.md5DigestAsHex(BODY.getBytes(StandardCharsets.UTF_8)) + "\"";
+    private static final Duration TTL = Duration.ofSeconds(15);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private ResponseCache responseCache;
+    private GatewayFilter filter;
+
+    /**
+     * Sets up each test with an empty cache and a filter caching responses for 15 seconds.
+     */
+    @BeforeEach
+    void setup(){
+        responseCache = new ResponseCache(new SimpleMeterRegistry(), 1024, 1024, nanos::get, Runnable::run);
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setTtl(TTL);
+        filter = new ResponseCacheGatewayFilterFactory(responseCache).apply(config);
+    }
+
+    /**
+     * Tests that a response is forwarded and returned with an entity tag derived from its body on a miss, and
+     * served from the cache with the same entity tag on the next request.
+     */
+    @Test
+    @DisplayName("testMissThenHit")
+    public void givenEmptyCache_whenGetRepeated_thenSecondServedFromCache(){
+        MockServerHttpResponse miss = get(MockServerHttpRequest.get("/api/books/1"));
+        Assertions.assertThat(miss.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(miss.getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        Assertions.assertThat(miss.getHeaders().getETag()).isEqualTo(ETAG);
+        Assertions.assertThat(miss.getHeaders().getCacheControl()).isEqualTo("no-cache");
+        Assertions.assertThat(miss.getBodyAsString().block()).isEqualTo(BODY);
+
+        MockServerHttpResponse hit = get(MockServerHttpRequest.get("/api/books/1"));
+        Assertions.assertThat(hit.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(hit.getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        Assertions.assertThat(hit.getHeaders().getETag()).isEqualTo(ETAG);
+        Assertions.assertThat(hit.getBodyAsString().block()).isEqualTo(BODY);
+        Assertions.assertThat(upstreamCalls).hasValue(1);
+    }
+
+    /**
+     * Tests that a request whose {@code If-None-Match} header matches the entity tag of the cached response, weakly
+     * or strongly, receives a {@code 304 Not Modified} response without a body.
+     */
+    @Test
+    @DisplayName("testIfNoneMatchNotModified")
+    public void givenMatchingIfNoneMatch_whenGet_thenNotModified(){
+        get(MockServerHttpRequest.get("/api/books/1"));
+
+        for (String ifNoneMatch : new String[]{ETAG, "W/" + ETAG, "\"other\", " + ETAG}) {
+            MockServerHttpResponse response = get(MockServerHttpRequest.get("/api/books/1").header("If-None-Match", ifNoneMatch));
+            Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+            Assertions.assertThat(response.getHeaders().getETag()).isEqualTo(ETAG);
+            Assertions.assertThat(response.getBodyAsString().block()).isEmpty();
+        }
+
+        MockServerHttpResponse changed = get(MockServerHttpRequest.get("/api/books/1").ifNoneMatch("\"other\""));
+        Assertions.assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(changed.getBodyAsString().block()).isEqualTo(BODY);
+        Assertions.assertThat(upstreamCalls).hasValue(1);
+    }
+
+    /**
+     * Tests that a request is forwarded again once the cached response has outlived the time to live of the route.
+     */
+    @Test
+    @DisplayName("testExpiredResponseForwarded")
+    public void givenTtlPassed_whenGet_thenForwarded(){
+        get(MockServerHttpRequest.get("/api/books/1"));
+
+        nanos.addAndGet(TTL.toNanos());
+        MockServerHttpResponse response = get(MockServerHttpRequest.get("/api/books/1"));
+
+        Assertions.assertThat(response.getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        Assertions.assertThat(upstreamCalls).hasValue(2);
+    }
+
+    /**
+     * Tests that the query is part of the cache key, so requests for different pages are cached separately.
+     */
+    @Test
+    @DisplayName("testQueryInCacheKey")
+    public void givenDifferentQuery_whenGet_thenForwarded(){
+        get(MockServerHttpRequest.get("/api/books?page=0"));
+        MockServerHttpResponse response = get(MockServerHttpRequest.get("/api/books?page=1"));
+
+        Assertions.assertThat(response.getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        Assertions.assertThat(upstreamCalls).hasValue(2);
+    }
+
+    /**
+     * Tests that a successful write through the route purges the cache, so the next GET is forwarded.
+     */
+    @Test
+    @DisplayName("testWritePurgesCache")
+    public void givenCachedResponse_whenPostSucceeds_thenCachePurged(){
+        get(MockServerHttpRequest.get("/api/books/1"));
+
+        exchange(MockServerHttpRequest.post("/api/books"), respondWith(HttpStatus.CREATED));
+        MockServerHttpResponse response = get(MockServerHttpRequest.get("/api/books/1"));
+
+        Assertions.assertThat(response.getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        Assertions.assertThat(upstreamCalls).hasValue(2);
+    }
+
+    /**
+     * Tests that a write rejected with a client error leaves the cache in place, as nothing was changed.
+     */
+    @Test
+    @DisplayName("testRejectedWriteKeepsCache")
+    public void givenCachedResponse_whenPostRejected_thenCacheKept(){
+        get(MockServerHttpRequest.get("/api/books/1"));
+
+        exchange(MockServerHttpRequest.post("/api/books"), respondWith(HttpStatus.BAD_REQUEST));
+        MockServerHttpResponse response = get(MockServerHttpRequest.get("/api/books/1"));
+
+        Assertions.assertThat(response.getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        Assertions.assertThat(upstreamCalls).hasValue(1);
+    }
+
+    /**
+     * Tests that a response read while the cache was purged, as it is when a change event arrives during the
+     * request, is returned but not cached, as it may predate the change.
+     */
+    @Test
+    @DisplayName("testResponseReadDuringPurgeNotCached")
+    public void givenPurgeWhileForwarded_whenResponseReceived_thenNotCached(){
+        GatewayFilterChain purgingUpstream = exchange -> {
+            responseCache.purge();
+            return upstream().filter(exchange);
+        };
+        MockServerHttpResponse first = exchange(MockServerHttpRequest.get("/api/books/1"), purgingUpstream);
+        Assertions.assertThat(first.getBodyAsString().block()).isEqualTo(BODY);
+
+        MockServerHttpResponse second = get(MockServerHttpRequest.get("/api/books/1"));
+
+        Assertions.assertThat(second.getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        Assertions.assertThat(upstreamCalls).hasValue(2);
+    }
+
+    /**
+     * Tests that a response asking not to be stored is not cached.
+     */
+    @Test
+    @DisplayName("testNoStoreResponseNotCached")
+    public void givenNoStoreResponse_whenGetRepeated_thenForwarded(){
+        GatewayFilterChain noStoreUpstream = exchange -> {
+            exchange.getResponse().getHeaders().setCacheControl("no-store");
+            return upstream().filter(exchange);
+        };
+        exchange(MockServerHttpRequest.get("/api/books/1"), noStoreUpstream);
+        exchange(MockServerHttpRequest.get("/api/books/1"), noStoreUpstream);
+
+        Assertions.assertThat(upstreamCalls).hasValue(2);
+    }
+
+    private MockServerHttpResponse get(MockServerHttpRequest.BaseBuilder<?> request){
+        return exchange(request, upstream());
+    }
+
+    private MockServerHttpResponse exchange(MockServerHttpRequest.BaseBuilder<?> request, GatewayFilterChain chain){
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, chain).block();
+        return exchange.getResponse();
+    }
+
+    /**
+     * Returns an upstream that answers with the JSON body.
+     */
+    private GatewayFilterChain upstream(){
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    /**
+     * Returns an upstream that answers with a status and no body.
+     */
+    private static GatewayFilterChain respondWith(HttpStatus status){
+        return exchange -> {
+            exchange.getResponse().setStatusCode(status);
+            return exchange.getResponse().setComplete();
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package au.com.library.apigateway.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests the expiry, size bound and purging of the {@link ResponseCache}, against a cache that reads the time from a
+ * ticker moved by the tests and evicts on the calling thread. Each entry weighs the length of its key plus its body,
+ * so the cache holds at most two of the 40 byte entries used by the tests.
+ */
+public class ResponseCacheTest {
+
+    private static final long MAXIMUM_BYTES = 100;
+    private static final long MAXIMUM_ENTRY_BYTES = 50;
+    private static final Duration TTL = Duration.ofSeconds(15);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private ResponseCache responseCache;
+
+    @BeforeEach
+    void setup(){
+        responseCache = new ResponseCache(new SimpleMeterRegistry(), MAXIMUM_BYTES, MAXIMUM_ENTRY_BYTES, nanos::get, Runnable::run);
+    }
+
+    /**
+     * Tests that a response is served until its time to live has passed, and not after.
+     */
+    @Test
+    @DisplayName("testResponseExpires")
+    public void givenCachedResponse_whenTtlPasses_thenResponseExpired(){
+        responseCache.put("/a", buildTestResponse(38), responseCache.generation());
+
+        advance(TTL.minusSeconds(1));
+        Assertions.assertThat(responseCache.find("/a")).isNotNull();
+        advance(Duration.ofSeconds(1));
+        Assertions.assertThat(responseCache.find("/a")).isNull();
+    }
+
+    /**
+     * Tests that a response larger than the maximum entry size is not cached.
+     */
+    @Test
+    @DisplayName("testLargeResponseNotCached")
+    public void givenResponseOverMaximumEntrySize_whenPut_thenNotCached(){
+        responseCache.put("/a", buildTestResponse((int) MAXIMUM_ENTRY_BYTES + 1), responseCache.generation());
+
+        Assertions.assertThat(responseCache.find("/a")).isNull();
+    }
+
+    /**
+     * Tests that responses are evicted once the total size of the cache exceeds its maximum.
+     */
+    @Test
+    @DisplayName("testCacheBoundedBySize")
+    public void givenCacheFull_whenResponsePut_thenResponseEvicted(){
+        for (String key : List.of("/a", "/b", "/c")) {
+            responseCache.put(key, buildTestResponse(38), responseCache.generation());
+        }
+
+        Assertions.assertThat(List.of("/a", "/b", "/c")).
+                filteredOn(key -> responseCache.find(key) != null).
+                hasSize(2);
+    }
+
+    /**
+     * Tests that a purge removes every response.
+     */
+    @Test
+    @DisplayName("testPurgeRemovesResponses")
+    public void givenCachedResponses_whenPurged_thenNoneFound(){
+        responseCache.put("/a", buildTestResponse(38), responseCache.generation());
+        responseCache.put("/b", buildTestResponse(38), responseCache.generation());
+
+        responseCache.purge();
+
+        Assertions.assertThat(responseCache.find("/a")).isNull();
+        Assertions.assertThat(responseCache.find("/b")).isNull();
+    }
+
+    /**
+     * Tests that a response read before a purge is not cached after it, as it may predate the change that caused
+     * the purge, but that a response read after the purge is.
+     */
+    @Test
+    @DisplayName("testPutAfterPurgeIgnored")
+    public void givenPurgeSinceGenerationRead_whenPut_thenNotCached(){
+        long generation = responseCache.generation();
+        responseCache.purge();
+
+        responseCache.put("/a", buildTestResponse(38), generation);
+        Assertions.assertThat(responseCache.find("/a")).isNull();
+
+        responseCache.put("/a", buildTestResponse(38), responseCache.generation());
+        Assertions.assertThat(responseCache.find("/a")).isNotNull();
+    }
+
+    private void advance(Duration duration){
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private static CachedResponse buildTestResponse(int bodyLength){
+        return new CachedResponse(HttpStatus.OK, new HttpHeaders(), new byte[bodyLength], "\"0\"", TTL);
+    }
+}
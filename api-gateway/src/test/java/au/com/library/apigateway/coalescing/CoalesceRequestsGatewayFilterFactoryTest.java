@@ -0,0 +1,237 @@
+package au.com.library.apigateway.coalescing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests the coalescing of concurrent identical GET requests by the {@link CoalesceRequestsGatewayFilterFactory}
+ * filter, against an upstream that counts the requests forwarded to it and holds the first of them until the test
+ * releases it, so that the other requests arrive while it is in flight.
+ */
+public class CoalesceRequestsGatewayFilterFactoryTest {
+
+    private static final String BODY = "{\"id\":1,\"title\":\"The Dispossessed\"}";
+    private static final long MAXIMUM_BODY_BYTES = 64;
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final Sinks.Empty<Void> release = Sinks.empty();
+    private SimpleMeterRegistry meterRegistry;
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setup(){
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new CoalesceRequestsGatewayFilterFactory(meterRegistry, MAXIMUM_BODY_BYTES).apply(new Object());
+    }
+
+    /**
+     * Tests that identical requests arriving while the first is in flight are answered with its response, without
+     * being forwarded.
+     */
+    @Test
+    @DisplayName("testConcurrentRequestsCoalesced")
+    public void givenRequestInFlight_whenIdenticalRequestArrives_thenResponseShared(){
+        GatewayFilterChain chain = exchange -> {
+            upstreamCalls.incrementAndGet();
+            return release.asMono().then(Mono.defer(() -> respond(exchange, BODY)));
+        };
+        MockServerWebExchange first = exchange("/api/books/1");
+        MockServerWebExchange second = exchange("/api/books/1");
+        MockServerWebExchange third = exchange("/api/books/1");
+
+        StepVerifier.create(Mono.when(filter.filter(first, chain), filter.filter(second, chain), filter.filter(third, chain))).
+                then(release::tryEmitEmpty).
+                verifyComplete();
+
+        Assertions.assertThat(upstreamCalls).hasValue(1);
+        for (MockServerWebExchange exchange : new MockServerWebExchange[]{first, second, third}) {
+            Assertions.assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+            Assertions.assertThat(exchange.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+            Assertions.assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        }
+        Assertions.assertThat(count("forwarded")).isEqualTo(1);
+        Assertions.assertThat(count("coalesced")).isEqualTo(2);
+        Assertions.assertThat(meterRegistry.get("gateway.coalescing.in-flight").gauge().value()).isZero();
+    }
+
+    /**
+     * Tests that requests accepting different media types are not coalesced, as their responses may differ.
+     */
+    @Test
+    @DisplayName("testDifferentAcceptNotCoalesced")
+    public void givenDifferentAccept_whenRequestsConcurrent_thenEachForwarded(){
+        GatewayFilterChain chain = exchange -> {
+            upstreamCalls.incrementAndGet();
+            return release.asMono().then(Mono.defer(() -> respond(exchange, BODY)));
+        };
+        MockServerWebExchange json = MockServerWebExchange.from(MockServerHttpRequest.get("/api/books/1").accept(MediaType.APPLICATION_JSON));
+        MockServerWebExchange any = MockServerWebExchange.from(MockServerHttpRequest.get("/api/books/1").accept(MediaType.ALL));
+
+        StepVerifier.create(Mono.when(filter.filter(json, chain), filter.filter(any, chain))).
+                then(release::tryEmitEmpty).
+                verifyComplete();
+
+        Assertions.assertThat(upstreamCalls).hasValue(2);
+        Assertions.assertThat(count("forwarded")).isEqualTo(2);
+        Assertions.assertThat(count("coalesced")).isZero();
+    }
+
+    /**
+     * Tests that a request arriving after the response of an identical request has been received is forwarded,
+     * rather than answered with the earlier response.
+     */
+    @Test
+    @DisplayName("testCompletedRequestNotShared")
+    public void givenResponseReceived_whenIdenticalRequestArrives_thenForwarded(){
+        GatewayFilterChain chain = exchange -> {
+            upstreamCalls.incrementAndGet();
+            return respond(exchange, BODY);
+        };
+
+        filter.filter(exchange("/api/books/1"), chain).block();
+        filter.filter(exchange("/api/books/1"), chain).block();
+
+        Assertions.assertThat(upstreamCalls).hasValue(2);
+        Assertions.assertThat(count("forwarded")).isEqualTo(2);
+    }
+
+    /**
+     * Tests that the requests waiting on a forwarded request that fails are forwarded individually, and that the
+     * failure is returned only to the request that was forwarded.
+     */
+    @Test
+    @DisplayName("testFailedRequestWaitersForwarded")
+    public void givenForwardedRequestFails_whenWaiting_thenWaitersForwarded(){
+        GatewayFilterChain chain = exchange -> upstreamCalls.incrementAndGet() == 1
+                ? release.asMono().then(Mono.error(new IllegalStateException("Connection reset")))
+                : respond(exchange, BODY);
+        MockServerWebExchange first = exchange("/api/books/1");
+        MockServerWebExchange second = exchange("/api/books/1");
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        StepVerifier.create(Mono.when(filter.filter(first, chain).doOnError(failure::set).onErrorComplete(), filter.filter(second, chain))).
+                then(release::tryEmitEmpty).
+                verifyComplete();
+
+        Assertions.assertThat(failure.get()).isInstanceOf(IllegalStateException.class);
+        Assertions.assertThat(upstreamCalls).hasValue(2);
+        Assertions.assertThat(second.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        Assertions.assertThat(count("forwarded")).isEqualTo(2);
+        Assertions.assertThat(count("coalesced")).isZero();
+    }
+
+    /**
+     * Tests that the requests waiting on a forwarded request that is cancelled, as it is when its client
+     * disconnects, are forwarded individually.
+     */
+    @Test
+    @DisplayName("testCancelledRequestWaitersForwarded")
+    public void givenForwardedRequestCancelled_whenWaiting_thenWaitersForwarded(){
+        GatewayFilterChain chain = exchange -> upstreamCalls.incrementAndGet() == 1
+                ? Mono.never()
+                : respond(exchange, BODY);
+        Disposable first = filter.filter(exchange("/api/books/1"), chain).subscribe();
+        MockServerWebExchange second = exchange("/api/books/1");
+
+        StepVerifier.create(filter.filter(second, chain)).
+                then(first::dispose).
+                verifyComplete();
+
+        Assertions.assertThat(upstreamCalls).hasValue(2);
+        Assertions.assertThat(second.getResponse().getBodyAsString().block()).isEqualTo(BODY);
+        Assertions.assertThat(count("forwarded")).isEqualTo(2);
+        Assertions.assertThat(count("coalesced")).isZero();
+    }
+
+    /**
+     * Tests that a response without a {@code Content-Length} header that grows larger than the maximum body size is
+     * streamed through whole, and the requests waiting on it are forwarded individually.
+     */
+    @Test
+    @DisplayName("testLargeStreamedResponseNotShared")
+    public void givenStreamedResponseOverMaximumSize_whenWaiting_thenWaitersForwarded(){
+        String chunk = "x".repeat((int) MAXIMUM_BODY_BYTES - 10);
+        GatewayFilterChain chain = exchange -> {
+            upstreamCalls.incrementAndGet();
+            return release.asMono().then(Mono.defer(() -> respond(exchange, chunk, chunk, chunk)));
+        };
+        MockServerWebExchange first = exchange("/api/books");
+        MockServerWebExchange second = exchange("/api/books");
+
+        StepVerifier.create(Mono.when(filter.filter(first, chain), filter.filter(second, chain))).
+                then(release::tryEmitEmpty).
+                verifyComplete();
+
+        Assertions.assertThat(upstreamCalls).hasValue(2);
+        Assertions.assertThat(first.getResponse().getBodyAsString().block()).isEqualTo(chunk.repeat(3));
+        Assertions.assertThat(second.getResponse().getBodyAsString().block()).isEqualTo(chunk.repeat(3));
+        Assertions.assertThat(count("coalesced")).isZero();
+    }
+
+    /**
+     * Tests that a response whose {@code Content-Length} header is larger than the maximum body size is streamed
+     * through without being buffered, and the requests waiting on it are forwarded individually.
+     */
+    @Test
+    @DisplayName("testLargeResponseNotShared")
+    public void givenContentLengthOverMaximumSize_whenWaiting_thenWaitersForwarded(){
+        String large = "x".repeat((int) MAXIMUM_BODY_BYTES + 1);
+        GatewayFilterChain chain = exchange -> {
+            upstreamCalls.incrementAndGet();
+            return release.asMono().then(Mono.defer(() -> {
+                exchange.getResponse().getHeaders().setContentLength(large.length());
+                return respond(exchange, large);
+            }));
+        };
+        MockServerWebExchange first = exchange("/api/books");
+        MockServerWebExchange second = exchange("/api/books");
+
+        StepVerifier.create(Mono.when(filter.filter(first, chain), filter.filter(second, chain))).
+                then(release::tryEmitEmpty).
+                verifyComplete();
+
+        Assertions.assertThat(upstreamCalls).hasValue(2);
+        Assertions.assertThat(first.getResponse().getBodyAsString().block()).isEqualTo(large);
+        Assertions.assertThat(second.getResponse().getBodyAsString().block()).isEqualTo(large);
+        Assertions.assertThat(count("coalesced")).isZero();
+    }
+
+    private double count(String outcome){
+        return meterRegistry.get("gateway.coalescing.requests").tag("outcome", outcome).counter().count();
+    }
+
+    private static MockServerWebExchange exchange(String path){
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+
+    /**
+     * Answers a request with a JSON body written in the given chunks.
+     */
+    private static Mono<Void> respond(ServerWebExchange exchange, String... chunks){
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Flux.fromArray(chunks).
+                map(chunk -> response.bufferFactory().wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+    }
+}
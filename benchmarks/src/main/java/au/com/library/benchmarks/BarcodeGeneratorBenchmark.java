@@ -0,0 +1,54 @@
+package au.com.library.benchmarks;
+
+import au.com.library.shared.util.BarcodeGenerator;
+import au.com.library.shared.util.MonotonicBarcodeStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the random {@link BarcodeGenerator#generate()} with the {@link MonotonicBarcodeStrategy},
+ * single threaded and contended, as called for each copy added, and the bulk generation used when
+ * many copies are taken in at once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BarcodeGeneratorBenchmark {
+
+    private static final int BULK_COUNT = 100;
+
+    private final MonotonicBarcodeStrategy monotonic = new MonotonicBarcodeStrategy(1);
+
+    @Benchmark
+    public String random() {
+        return BarcodeGenerator.generate();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String randomContended() {
+        return BarcodeGenerator.generate();
+    }
+
+    @Benchmark
+    public String monotonic() {
+        return monotonic.generate();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String monotonicContended() {
+        return monotonic.generate();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BULK_COUNT)
+    public List<String> monotonicBulk() {
+        return monotonic.generate(BULK_COUNT);
+    }
+}
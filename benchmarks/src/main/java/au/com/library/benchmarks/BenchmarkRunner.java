@@ -0,0 +1,26 @@
+package au.com.library.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the {@link GCProfiler GC profiler} always enabled, so that allocation rates
+ * are reported alongside the timings. Any other JMH command line options, such as a benchmark name
+ * pattern, are passed through.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner(){
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,67 @@
+package au.com.library.benchmarks;
+
+import au.com.library.loan.client.config.ObjectMapperConfig;
+import au.com.library.loan.exception.ClientErrorDecoder;
+import au.com.library.shared.exception.ErrorDetails;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Request;
+import feign.Response;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ClientErrorDecoder#decode(String, Response)} for the not found and bad request
+ * responses returned by the book and member services.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientErrorDecoderBenchmark {
+
+    private static final String METHOD_KEY = "BookClient#findCopyDetails(Long)";
+    private static final String PATH = "/api/copies/1/details";
+
+    private ClientErrorDecoder decoder;
+    private Response notFound;
+    private Response badRequest;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper mapper = new ObjectMapperConfig().objectMapper();
+        decoder = new ClientErrorDecoder(mapper);
+        notFound = response(mapper, 404, "The edition copy with the id 1 could not be found");
+        badRequest = response(mapper, 400, "The edition copy with the id 1 is not available");
+    }
+
+    @Benchmark
+    public Exception decodeNotFound() {
+        return decoder.decode(METHOD_KEY, notFound);
+    }
+
+    @Benchmark
+    public Exception decodeBadRequest() {
+        return decoder.decode(METHOD_KEY, badRequest);
+    }
+
+    // Byte array bodies can be read repeatedly, so the same response is decoded on every invocation
+    private static Response response(ObjectMapper mapper, int status, String message) throws JsonProcessingException {
+        byte[] body = mapper.writeValueAsBytes(new ErrorDetails(LocalDateTime.now(), message, PATH, String.valueOf(status)));
+        Request request = Request.create(Request.HttpMethod.GET, "http://book-services" + PATH,
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        return Response.builder()
+                .status(status)
+                .reason(status == 404 ? "Not Found" : "Bad Request")
+                .request(request)
+                .headers(Map.of())
+                .body(body)
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+package au.com.library.benchmarks;
+
+import au.com.library.contracts.event.loan.LoanEvent;
+import au.com.library.contracts.event.loan.LoanEventContext;
+import au.com.library.contracts.event.loan.LoanEventType;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the serialisation of {@link LoanEvent loan events} by the loan services producer and their
+ * deserialisation by the book services consumer, using the serializers and properties those services
+ * are configured with.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanEventSerdeBenchmark {
+
+    private static final String TOPIC = "loan-event";
+
+    private Serializer<Object> serializer;
+    private Deserializer<Object> deserializer;
+    private LoanEvent event;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        serializer = new JsonSerializer<>();
+        serializer.configure(Map.of(), false);
+
+        // As per the book services spring.kafka.consumer properties
+        deserializer = new ErrorHandlingDeserializer<>();
+        deserializer.configure(Map.of(
+                ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class,
+                JsonDeserializer.VALUE_DEFAULT_TYPE, LoanEvent.class,
+                JsonDeserializer.USE_TYPE_INFO_HEADERS, false,
+                JsonDeserializer.TRUSTED_PACKAGES, "au.com.library.contracts.event.loan"), false);
+
+        event = new LoanEvent(42L, LoanEventType.LOAN_CREATED, new LoanEventContext(1L, 2L, 3L));
+        payload = serializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return deserializer.deserialize(TOPIC, new RecordHeaders(), payload);
+    }
+}
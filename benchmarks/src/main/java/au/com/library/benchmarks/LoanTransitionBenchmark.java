@@ -0,0 +1,67 @@
+package au.com.library.benchmarks;
+
+import au.com.library.loan.entity.Loan;
+import au.com.library.loan.entity.LoanStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link Loan} state transitions. Returning and marking a loan as lost can only be done once,
+ * so those benchmarks create a loan per invocation; {@link #create()} gives the cost of that creation as
+ * a baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanTransitionBenchmark {
+
+    private static final int LOAN_PERIOD_DAYS = 21;
+
+    private Loan borrowed;
+    private Loan overdue;
+
+    @Setup
+    public void setUp() {
+        borrowed = Loans.loan(LoanStatus.BORROWED, LOAN_PERIOD_DAYS);
+        overdue = Loans.loan(LoanStatus.RENEWED, -1);
+    }
+
+    @Benchmark
+    public Loan create() {
+        return Loans.loan(LoanStatus.BORROWED, LOAN_PERIOD_DAYS);
+    }
+
+    @Benchmark
+    public Loan renewLoan() {
+        borrowed.renewLoan(LOAN_PERIOD_DAYS);
+        return borrowed;
+    }
+
+    @Benchmark
+    public Loan returnLoan() {
+        Loan loan = Loans.loan(LoanStatus.BORROWED, LOAN_PERIOD_DAYS);
+        loan.returnLoan();
+        return loan;
+    }
+
+    @Benchmark
+    public Loan markLost() {
+        Loan loan = Loans.loan(LoanStatus.BORROWED, -1);
+        loan.markLost();
+        return loan;
+    }
+
+    @Benchmark
+    public boolean isOverdue() {
+        return overdue.isOverdue();
+    }
+
+    @Benchmark
+    public boolean isNotOverdue() {
+        return borrowed.isOverdue();
+    }
+}
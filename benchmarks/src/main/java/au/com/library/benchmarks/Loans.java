@@ -0,0 +1,26 @@
+package au.com.library.benchmarks;
+
+import au.com.library.loan.entity.Loan;
+import au.com.library.loan.entity.LoanStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Creates {@link Loan loans} in a given state for the benchmarks.
+ */
+final class Loans {
+
+    private Loans(){
+    }
+
+    /**
+     * Creates a loan with the specified status that is due the specified number of days from today.
+     * A negative number of days creates an overdue loan.
+     */
+    static Loan loan(LoanStatus status, int dueInDays) {
+        LocalDate dueDate = LocalDate.now().plusDays(dueInDays);
+        return new Loan(1L, 2L, "Jane", "Citizen", 3L, "The Left Hand of Darkness", "Ursula K. Le Guin",
+                "First Edition", "LIB-8F2C1A7E-4B3D-4E55-9A10-77C1", dueDate.minusDays(21), dueDate,
+                0, null, status, false, false, 0L);
+    }
+}
@@ -0,0 +1,40 @@
+package au.com.library.benchmarks;
+
+import au.com.library.loan.dto.LoanResponseDTO;
+import au.com.library.loan.entity.Loan;
+import au.com.library.loan.entity.LoanStatus;
+import au.com.library.loan.mapper.LoanMapper;
+import au.com.library.shared.util.Mapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective {@link Mapper#map(Object, Class)} with the generated {@link LoanMapper} for
+ * the loan response mapping performed on every loan request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private Loan loan;
+
+    @Setup
+    public void setUp() {
+        loan = Loans.loan(LoanStatus.BORROWED, 21);
+    }
+
+    @Benchmark
+    public LoanResponseDTO reflective() {
+        return Mapper.map(loan, LoanResponseDTO.class);
+    }
+
+    @Benchmark
+    public LoanResponseDTO generated() {
+        return LoanMapper.INSTANCE.toDTO(loan);
+    }
+}
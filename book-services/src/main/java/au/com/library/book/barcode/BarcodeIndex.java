@@ -0,0 +1,150 @@
+package au.com.library.book.barcode;
+
+import au.com.library.shared.util.MonotonicBarcodeStrategy;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory index of the ids of edition copies by their barcodes, so that a scanned barcode is resolved to its
+ * copy without querying the database.
+ * <p>
+ * Barcodes generated by the {@link MonotonicBarcodeStrategy} are held by their 64 bit
+ * {@link MonotonicBarcodeStrategy#decode(String) value}, in an open addressing hash table of primitive longs, which
+ * takes between 22 and 43 bytes per copy, depending on how full the table is, rather than the 150 or so of a map of
+ * strings to boxed ids. Any other barcodes, such
+ * as those generated randomly, are held in a map of strings. Either way, a barcode is only found if it was added
+ * with the same copy id, so the id found can be used without checking the copy's barcode.
+ * <p>
+ * As barcodes are never changed and copies never removed, entries are only ever added. A barcode that is not
+ * found may still belong to a copy added by another instance of the service, so callers fall back to the database.
+ */
+@Component
+public class BarcodeIndex {
+
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final long EMPTY = 0;
+    // The golden ratio in 64 bits, which spreads the closely spaced values of monotonic barcodes across the table
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Long> otherBarcodes = new ConcurrentHashMap<>();
+
+    // The copy id in each slot of the table, or EMPTY, and the value of the barcode it was added with
+    private long[] values = new long[INITIAL_CAPACITY];
+    private long[] copyIds = new long[INITIAL_CAPACITY];
+    private int size;
+
+    public BarcodeIndex(MeterRegistry meterRegistry) {
+        Gauge.builder("copies.barcode-index.size", this, BarcodeIndex::size).
+                description("The number of edition copy barcodes held in memory").
+                register(meterRegistry);
+    }
+
+    /**
+     * Finds the id of the copy with a barcode.
+     *
+     * @param barcode The barcode of the copy.
+     * @return An {@link OptionalLong} containing the id of the copy, or an empty OptionalLong if the barcode has
+     * not been added.
+     */
+    public OptionalLong find(String barcode) {
+        OptionalLong value = MonotonicBarcodeStrategy.decode(barcode);
+        if (value.isEmpty()) {
+            Long copyId = barcode == null ? null : otherBarcodes.get(barcode);
+            return copyId == null ? OptionalLong.empty() : OptionalLong.of(copyId);
+        }
+        lock.readLock().lock();
+        try {
+            long copyId = copyIds[slot(values, copyIds, value.getAsLong())];
+            return copyId == EMPTY ? OptionalLong.empty() : OptionalLong.of(copyId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the id of the copy with a barcode. Adding a barcode again replaces its copy id.
+     *
+     * @param barcode The barcode of the copy.
+     * @param copyId The id of the copy.
+     */
+    public void put(String barcode, long copyId) {
+        OptionalLong value = MonotonicBarcodeStrategy.decode(barcode);
+        if (value.isEmpty()) {
+            otherBarcodes.put(barcode, copyId);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // Kept at most three quarters full, so that the probe sequences stay short
+            if ((size + 1) * 4L > copyIds.length * 3L) {
+                resize();
+            }
+            int slot = slot(values, copyIds, value.getAsLong());
+            if (copyIds[slot] == EMPTY) {
+                size++;
+            }
+            values[slot] = value.getAsLong();
+            copyIds[slot] = copyId;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the ids of several copies by their barcodes.
+     *
+     * @param copyIds The ids of the copies by their barcodes.
+     */
+    public void putAll(Map<String, Long> copyIds) {
+        copyIds.forEach(this::put);
+    }
+
+    /**
+     * Counts the barcodes added.
+     *
+     * @return The number of barcodes added.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size + otherBarcodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void resize() {
+        long[] oldValues = values;
+        long[] oldCopyIds = copyIds;
+        values = new long[oldValues.length * 2];
+        copyIds = new long[oldCopyIds.length * 2];
+        for (int i = 0; i < oldCopyIds.length; i++) {
+            if (oldCopyIds[i] != EMPTY) {
+                int slot = slot(values, copyIds, oldValues[i]);
+                values[slot] = oldValues[i];
+                copyIds[slot] = oldCopyIds[i];
+            }
+        }
+    }
+
+    /**
+     * Finds the slot holding a barcode value, or the empty slot where it would be added, by linear probing from the
+     * slot its hash falls in. The table is never full, so an empty slot is always found.
+     */
+    private static int slot(long[] values, long[] copyIds, long value) {
+        int mask = copyIds.length - 1;
+        int slot = (int) ((value * MULTIPLIER) >>> (Long.SIZE - Integer.numberOfTrailingZeros(copyIds.length)));
+        while (copyIds[slot] != EMPTY && values[slot] != value) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
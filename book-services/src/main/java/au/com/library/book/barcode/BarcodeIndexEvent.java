@@ -0,0 +1,12 @@
+package au.com.library.book.barcode;
+
+import java.util.Map;
+
+/**
+ * Raised when edition copies are added, so that their barcodes are added to the {@link BarcodeIndex} once the copies
+ * have been committed.
+ *
+ * @param copyIds The ids of the copies added, by their barcodes.
+ */
+public record BarcodeIndexEvent(Map<String, Long> copyIds) {
+}
@@ -0,0 +1,84 @@
+package au.com.library.book.barcode;
+
+import au.com.library.book.repository.EditionCopyRepository;
+import au.com.library.book.repository.EditionCopyRepository.CopyBarcode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Keeps the {@link BarcodeIndex} up to date with the edition copies in the database.
+ * <p>
+ * The index is warmed in the background once the application has started, reading the barcodes of the copies a page
+ * at a time, while barcodes not yet indexed are looked up in the database. The copies named by each
+ * {@link BarcodeIndexEvent} are added once they have been committed, whether or not the index has been warmed, as
+ * adding a barcode twice does no harm.
+ */
+@Component
+public class BarcodeIndexer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BarcodeIndexer.class);
+
+    private final BarcodeIndex index;
+    private final EditionCopyRepository editionCopyRepository;
+
+    @Value("${copies.barcode-index.warm-on-startup}")
+    private boolean warmOnStartup;
+
+    @Value("${copies.barcode-index.warm-page-size}")
+    private int warmPageSize;
+
+    public BarcodeIndexer(BarcodeIndex index, EditionCopyRepository editionCopyRepository) {
+        this.index = index;
+        this.editionCopyRepository = editionCopyRepository;
+    }
+
+    /**
+     * Starts warming the index in the background, if configured to.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmOnStartup() {
+        if (warmOnStartup) {
+            Thread.ofPlatform().name("barcode-index-warm").daemon().start(this::warm);
+        }
+    }
+
+    /**
+     * Adds the barcodes of the copies named by the event, once the copies have been committed.
+     *
+     * @param event The event naming the copies added.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCopiesAdded(BarcodeIndexEvent event) {
+        index.putAll(event.copyIds());
+    }
+
+    private void warm() {
+        long start = System.nanoTime();
+        long copies = 0;
+        try {
+            long afterId = 0;
+            List<CopyBarcode> page;
+            do {
+                page = editionCopyRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(warmPageSize));
+                page.forEach(copy -> index.put(copy.getBarcode(), copy.getId()));
+                if (!page.isEmpty()) {
+                    afterId = page.getLast().getId();
+                    copies += page.size();
+                }
+            } while (page.size() == warmPageSize);
+            LOGGER.info("Warmed the barcode index with {} copies in {} ms", copies, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            // The barcodes not indexed continue to be looked up in the database
+            LOGGER.error("Failed to warm the barcode index after {} copies: {}", copies, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package au.com.library.book.cache;
+
+import au.com.library.book.repository.EditionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * A bounded, in-process cache of the ids of editions by their normalised ISBN, in front of the
+ * {@link EditionRepository} lookup, so that repeatedly scanning the same ISBNs at a desk does not query the
+ * ISBN index each time.
+ * <p>
+ * Only ISBNs that are found are cached, so an edition added after an ISBN was looked up is found straight away.
+ * An ISBN's entry is evicted when the cache exceeds its maximum size, when it has been held for longer than the
+ * configured time to live, or when the edition's ISBN is changed. As the ISBN of an edition may be changed by
+ * another instance, callers check the ISBN of the edition they load, and evict the entry if it no longer matches.
+ * Hit, miss and eviction counts are published as metrics.
+ */
+@Component
+public class IsbnCache {
+
+    private final EditionRepository editionRepository;
+    private final Cache<String, Long> editionIds;
+
+    public IsbnCache(EditionRepository editionRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${editions.isbn-cache.maximum-size}") long maximumSize,
+                     @Value("${editions.isbn-cache.ttl-minutes}") long ttlMinutes) {
+        this.editionRepository = editionRepository;
+        this.editionIds = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder().
+                maximumSize(maximumSize).
+                expireAfterWrite(Duration.ofMinutes(ttlMinutes)).
+                recordStats().
+                <String, Long>build(), "edition-isbns");
+    }
+
+    /**
+     * Finds the id of the edition with a normalised ISBN, querying the database only if it is not already cached.
+     *
+     * @param isbnKey The ISBN, normalised by {@link au.com.library.shared.util.IsbnNormaliser}.
+     * @return An {@link Optional} containing the id of the edition, or an empty Optional if it could not be found.
+     */
+    public Optional<Long> findEditionId(String isbnKey) {
+        return Optional.ofNullable(editionIds.get(isbnKey, key -> editionRepository.findIdByIsbnKey(key).orElse(null)));
+    }
+
+    /**
+     * Caches the id of the edition with a normalised ISBN, as found by another query.
+     *
+     * @param isbnKey The ISBN, normalised by {@link au.com.library.shared.util.IsbnNormaliser}.
+     * @param editionId The id of the edition.
+     */
+    public void put(String isbnKey, Long editionId) {
+        editionIds.put(isbnKey, editionId);
+    }
+
+    /**
+     * Removes a normalised ISBN from the cache.
+     *
+     * @param isbnKey The ISBN, normalised by {@link au.com.library.shared.util.IsbnNormaliser}.
+     */
+    public void evict(String isbnKey) {
+        editionIds.invalidate(isbnKey);
+    }
+}
@@ -0,0 +1,28 @@
+package au.com.library.book.config;
+
+import au.com.library.shared.util.BarcodeGenerator;
+import au.com.library.shared.util.BarcodeStrategy;
+import au.com.library.shared.util.MonotonicBarcodeStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configures the {@link BarcodeStrategy} used to generate the barcodes of new edition copies.
+ * <p>
+ * The {@code monotonic} strategy requires each book services instance to be given a distinct
+ * {@code barcode.node-id}; the {@code random} strategy is kept for instances that cannot be.
+ */
+@Configuration
+public class BarcodeConfig {
+
+    @Bean
+    public BarcodeStrategy barcodeStrategy(@Value("${barcode.strategy}") String strategy,
+                                           @Value("${barcode.node-id}") int nodeId) {
+        return switch (strategy) {
+            case "monotonic" -> new MonotonicBarcodeStrategy(nodeId);
+            case "random" -> BarcodeGenerator::generate;
+            default -> throw new IllegalArgumentException(String.format("Unknown barcode strategy %s", strategy));
+        };
+    }
+}
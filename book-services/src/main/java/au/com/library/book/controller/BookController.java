@@ -1,8 +1,11 @@
 package au.com.library.book.controller;
 
 import au.com.library.book.dto.BookDTO;
+import au.com.library.book.dto.BookSearchResultDTO;
 import au.com.library.book.dto.EditionDTO;
+import au.com.library.book.entity.BookFormat;
 import au.com.library.book.service.BookService;
+import au.com.library.book.service.CatalogueSearchService;
 import au.com.library.book.service.EditionService;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -25,6 +28,7 @@ public class BookController {
 
     private BookService service;
     private EditionService editionService;
+    private CatalogueSearchService searchService;
 
     /**
      * Handles a REST API POST request to create a library book.
@@ -48,6 +52,26 @@ public class BookController {
     }
 
 
+    /**
+     * Handles a REST API GET request to search the catalogue by title, author, or edition publisher or ISBN,
+     * matching partly typed and misspelt words.
+     * @param q The text to search for.
+     * @param format The format an edition of each book must have, if any.
+     * @param yearFrom The earliest year an edition of each book may have been published in, if any.
+     * @param yearTo The latest year an edition of each book may have been published in, if any.
+     * @param limit The maximum number of books to return.
+     * @return A {@link ResponseEntity} object containing the best matching books, and the number of all those
+     * matching by format and year of publication.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<BookSearchResultDTO> search(@RequestParam String q,
+                                                      @RequestParam(required = false) BookFormat format,
+                                                      @RequestParam(required = false) Integer yearFrom,
+                                                      @RequestParam(required = false) Integer yearTo,
+                                                      @RequestParam(defaultValue = "20") int limit){
+        return ResponseEntity.ok(searchService.search(q, format, yearFrom, yearTo, limit));
+    }
+
     /**
      * Handles a REST API GET request to retrieve the details of the library book with the specified id.
      * @param id The id of the book to retrieve.
@@ -0,0 +1,45 @@
+package au.com.library.book.controller;
+
+import au.com.library.book.dto.CatalogueImportSummaryDTO;
+import au.com.library.book.service.CatalogueFormat;
+import au.com.library.book.service.CatalogueImportService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+
+/**
+ * A REST API controller class handling the bulk import of the library catalogue.
+ *
+ * @see CatalogueImportService
+ */
+@AllArgsConstructor
+@RestController
+@RequestMapping("/api/catalogue")
+public class CatalogueController {
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private CatalogueImportService catalogueImportService;
+
+    /**
+     * Handles a REST API POST to import a catalogue of books, editions and copy counts, uploaded as NDJSON
+     * ({@code application/x-ndjson}) or CSV ({@code text/csv}). The upload is streamed rather than read in full.
+     *
+     * @param contentType The content type of the upload.
+     * @param catalogue The upload.
+     * @return A {@link ResponseEntity} object that references a {@link CatalogueImportSummaryDTO} object
+     * summarising the import, including the records rejected.
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    public ResponseEntity<CatalogueImportSummaryDTO> importCatalogue(@RequestHeader("Content-Type") MediaType contentType,
+                                                                     InputStream catalogue){
+        CatalogueFormat format = MediaType.APPLICATION_NDJSON.includes(contentType) ? CatalogueFormat.NDJSON : CatalogueFormat.CSV;
+        return ResponseEntity.ok(catalogueImportService.importCatalogue(catalogue, format));
+    }
+}
@@ -1,5 +1,7 @@
 package au.com.library.book.controller;
 
+import au.com.library.book.dto.EditionAvailabilityDTO;
+import au.com.library.book.dto.EditionCopyBatchDTO;
 import au.com.library.book.dto.EditionCopyDTO;
 import au.com.library.book.dto.EditionDTO;
 import au.com.library.book.service.EditionCopyService;
@@ -10,6 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * A REST API controller class handling REST APIs to library book edition operations.
@@ -36,6 +39,42 @@ public class EditionController {
         return ResponseEntity.ok(editionService.findEdition(id));
     }
 
+    /**
+     * Handles a REST API GET to retrieve book edition details by ISBN, e.g. when a book is scanned at a desk.
+     * The ISBN may be an ISBN-10 or an ISBN-13, with or without hyphens.
+     * @param isbn The ISBN of the edition.
+     * @return A {@link ResponseEntity} object that references an {@link EditionDTO} object
+     * containing the edition details.
+     */
+    @GetMapping("/by-isbn/{isbn}")
+    public ResponseEntity<EditionDTO> findEditionByIsbn(@PathVariable String isbn){
+        return ResponseEntity.ok(editionService.findEditionByIsbn(isbn));
+    }
+
+    /**
+     * Handles a REST API POST to retrieve the details of the editions with several ISBNs at once, e.g. to match a
+     * supplier's list against the catalogue. A POST is used as the ISBNs may be too many for a URL.
+     * @param isbns The ISBNs of the editions.
+     * @return A {@link ResponseEntity} object that references a {@link Map} of {@link EditionDTO} objects
+     * by the ISBN requested, containing only the ISBNs whose edition was found.
+     */
+    @PostMapping("/by-isbn")
+    public ResponseEntity<Map<String, EditionDTO>> findEditionsByIsbn(@RequestBody List<String> isbns){
+        return ResponseEntity.ok(editionService.findEditionsByIsbn(isbns));
+    }
+
+    /**
+     * Handles a REST API GET to retrieve the number of copies of each of several editions with each status, without
+     * retrieving the copies themselves, e.g. to show the availability of the editions in a search result.
+     * @param ids The ids of the editions.
+     * @return A {@link ResponseEntity} object that references a {@link List} of {@link EditionAvailabilityDTO} objects,
+     * one for each of the editions found.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<List<EditionAvailabilityDTO>> findAvailability(@RequestParam List<Long> ids){
+        return ResponseEntity.ok(editionService.findAvailability(ids));
+    }
+
     /**
      * Handles a REST API PUT to update book edition details.
      * @param id The id of the edition to update.
@@ -61,6 +100,31 @@ public class EditionController {
         return new ResponseEntity<EditionCopyDTO>( editionCopyService.addCopy(editionId), HttpStatus.CREATED);
     }
 
+    /**
+     * Handles a REST API POST to create a number of copies of an edition at once, such as when a shipment is received.
+     *
+     * @param editionId The id of the edition for which the copies will be created.
+     * @param count The number of copies to create.
+     * @return A {@link ResponseEntity} object that references a {@link List} of {@link EditionCopyDTO} objects
+     * containing the new copy details.
+     */
+    @PostMapping("/{editionId}/copies:batch")
+    public ResponseEntity<List<EditionCopyDTO>> addCopies(@PathVariable Long editionId, @RequestParam int count){
+        return new ResponseEntity<>(editionCopyService.addCopies(editionId, count), HttpStatus.CREATED);
+    }
+
+    /**
+     * Handles a REST API POST to create copies of several editions at once.
+     *
+     * @param batches The editions and the number of copies to create for each.
+     * @return A {@link ResponseEntity} object that references a {@link List} of {@link EditionCopyDTO} objects
+     * containing the new copy details, in the order requested.
+     */
+    @PostMapping("/copies:batch")
+    public ResponseEntity<List<EditionCopyDTO>> addCopies(@RequestBody List<EditionCopyBatchDTO> batches){
+        return new ResponseEntity<>(editionCopyService.addCopies(batches), HttpStatus.CREATED);
+    }
+
     /**
      * Handles a REST API GET to retrieve all existing edition copy details.
      * @param editionId The id of the edition linked to each copy.
@@ -71,4 +135,16 @@ public class EditionController {
     public ResponseEntity<List<EditionCopyDTO>> findCopies(@PathVariable Long editionId){
         return ResponseEntity.ok(editionCopyService.findCopies(editionId));
     }
+
+    /**
+     * Handles a REST API GET to retrieve the first available copy of an edition, e.g. to choose a copy to lend,
+     * without retrieving the edition's other copies.
+     * @param editionId The id of the edition.
+     * @return A {@link ResponseEntity} object that references an {@link EditionCopyDTO} object
+     * containing the copy details.
+     */
+    @GetMapping("/{editionId}/copies/available")
+    public ResponseEntity<EditionCopyDTO> findFirstAvailableCopy(@PathVariable Long editionId){
+        return ResponseEntity.ok(editionCopyService.findFirstAvailableCopy(editionId));
+    }
 }
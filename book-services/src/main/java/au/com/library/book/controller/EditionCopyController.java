@@ -1,8 +1,11 @@
 package au.com.library.book.controller;
 
 import au.com.library.book.dto.EditionCopyDTO;
+import au.com.library.book.dto.EditionCopyDetailsDTO;
+import au.com.library.book.dto.EditionCopyReservationDTO;
 import au.com.library.book.service.EditionCopyService;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,4 +29,62 @@ public class EditionCopyController {
     public ResponseEntity<EditionCopyDTO> findCopy(@PathVariable Long id){
         return ResponseEntity.ok(editionCopyService.findCopy(id));
     }
+
+    /**
+     * Handles a REST API GET to find an edition copy by its barcode, e.g. when it is scanned at a desk.
+     * @param barcode The barcode of the edition copy.
+     * @return A {@link ResponseEntity} containing a {@link EditionCopyDTO}
+     * object containing details of the found edition copy.
+     */
+    @GetMapping("/by-barcode/{barcode}")
+    public ResponseEntity<EditionCopyDTO> findCopyByBarcode(@PathVariable String barcode){
+        return ResponseEntity.ok(editionCopyService.findCopyByBarcode(barcode));
+    }
+
+    /**
+     * Handles a REST API GET to find an edition copy by its unique id, along with the details
+     * of its edition and book.
+     * @param id The edition copy id.
+     * @return A {@link ResponseEntity} containing a {@link EditionCopyDetailsDTO}
+     * object containing the combined copy, edition and book details.
+     */
+    @GetMapping("/{id}/details")
+    public ResponseEntity<EditionCopyDetailsDTO> findCopyDetails(@PathVariable Long id){
+        return ResponseEntity.ok(editionCopyService.findCopyDetails(id));
+    }
+
+    /**
+     * Handles a REST API POST to reserve an available edition copy for a loan being created.
+     * @param id The edition copy id.
+     * @return A {@link ResponseEntity} containing a {@link EditionCopyReservationDTO}
+     * object containing the hold and the details of the reserved copy.
+     */
+    @PostMapping("/{id}/reservations")
+    public ResponseEntity<EditionCopyReservationDTO> reserveCopy(@PathVariable Long id){
+        return new ResponseEntity<>(editionCopyService.reserveCopy(id), HttpStatus.CREATED);
+    }
+
+    /**
+     * Handles a REST API POST to reserve an available edition copy, identified by its barcode, for a loan being
+     * created, so that a scanned copy is resolved and reserved in a single request.
+     * @param barcode The barcode of the edition copy.
+     * @return A {@link ResponseEntity} containing a {@link EditionCopyReservationDTO}
+     * object containing the hold and the details of the reserved copy.
+     */
+    @PostMapping("/by-barcode/{barcode}/reservations")
+    public ResponseEntity<EditionCopyReservationDTO> reserveCopyByBarcode(@PathVariable String barcode){
+        return new ResponseEntity<>(editionCopyService.reserveCopyByBarcode(barcode), HttpStatus.CREATED);
+    }
+
+    /**
+     * Handles a REST API DELETE to release a hold on an edition copy.
+     * @param id The edition copy id.
+     * @param token The token identifying the hold.
+     * @return An empty {@link ResponseEntity}.
+     */
+    @DeleteMapping("/{id}/reservations/{token}")
+    public ResponseEntity<Void> releaseCopy(@PathVariable Long id, @PathVariable String token){
+        editionCopyService.releaseCopy(id, token);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,26 @@
+package au.com.library.book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A data transfer object containing a {@link au.com.library.book.entity.Book book} matching a catalogue search,
+ * with the details held by the search index.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class BookSearchHitDTO {
+
+    private Long bookId;
+    private String title;
+    private String author;
+
+    /**
+     * How well the book matches the search, relative to the other books matching it.
+     */
+    private float score;
+}
@@ -0,0 +1,26 @@
+package au.com.library.book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A data transfer object containing the result of a catalogue search: the best matching books, the total number
+ * of books matching, and the number of those with each {@link au.com.library.book.entity.BookFormat format} and
+ * year of publication among their editions.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class BookSearchResultDTO {
+
+    private long total;
+    private List<BookSearchHitDTO> hits = new ArrayList<>();
+    private List<FacetCountDTO> formats = new ArrayList<>();
+    private List<FacetCountDTO> years = new ArrayList<>();
+}
@@ -0,0 +1,25 @@
+package au.com.library.book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A book record of a catalogue import, with its editions and the number of copies of each held by the library.
+ *
+ * @see CatalogueEditionDTO
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class CatalogueBookDTO {
+
+    private String title;
+    private String author;
+    private List<CatalogueEditionDTO> editions = new ArrayList<>();
+}
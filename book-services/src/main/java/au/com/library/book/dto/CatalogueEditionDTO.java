@@ -0,0 +1,30 @@
+package au.com.library.book.dto;
+
+import au.com.library.book.entity.BookFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * An edition within a {@link CatalogueBookDTO catalogue book record}. Editions are matched to existing
+ * editions by their {@link #getIsbn() ISBN}.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class CatalogueEditionDTO {
+
+    private String isbn;
+    private String publisher;
+    private Integer publicationYear;
+    private String edition;
+    private BookFormat format;
+
+    /**
+     * The number of copies the library holds. Copies are added until the edition has this many;
+     * existing copies are never removed.
+     */
+    private Integer copies;
+}
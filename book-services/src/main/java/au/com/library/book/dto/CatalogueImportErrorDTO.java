@@ -0,0 +1,22 @@
+package au.com.library.book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A catalogue record that was rejected by a catalogue import.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class CatalogueImportErrorDTO {
+
+    /**
+     * The line of the upload on which the record starts.
+     */
+    private long line;
+    private String message;
+}
@@ -0,0 +1,28 @@
+package au.com.library.book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The outcome of a catalogue import. Only the first of the {@link #getRejected() rejected} records are
+ * detailed in the {@link #getErrors() errors}.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class CatalogueImportSummaryDTO {
+
+    private long records;
+    private long rejected;
+    private long booksCreated;
+    private long editionsCreated;
+    private long editionsUpdated;
+    private long copiesAdded;
+    private List<CatalogueImportErrorDTO> errors = new ArrayList<>();
+}
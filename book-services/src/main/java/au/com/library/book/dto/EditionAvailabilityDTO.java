@@ -0,0 +1,35 @@
+package au.com.library.book.dto;
+
+import au.com.library.book.entity.EditionAvailability;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A data transfer object containing the number of copies of an {@link au.com.library.book.entity.Edition edition}
+ * with each {@link au.com.library.book.entity.EditionCopyStatus status}.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class EditionAvailabilityDTO {
+
+    private Long editionId;
+    private long available;
+    private long reserved;
+    private long loaned;
+    private long lost;
+
+    /**
+     * Maps an {@link EditionAvailability} entity to an {@link EditionAvailabilityDTO}.
+     *
+     * @param availability The availability entity to be mapped.
+     * @return An {@link EditionAvailabilityDTO} object containing the mapped data.
+     */
+    public static EditionAvailabilityDTO toDTO(EditionAvailability availability){
+        return new EditionAvailabilityDTO(availability.getEditionId(), availability.getAvailable(),
+                availability.getReserved(), availability.getLoaned(), availability.getLost());
+    }
+}
@@ -0,0 +1,20 @@
+package au.com.library.book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A request to take in a number of new {@link au.com.library.book.entity.EditionCopy copies} of an
+ * {@link au.com.library.book.entity.Edition edition}, as part of a bulk copy intake.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class EditionCopyBatchDTO {
+
+    private Long editionId;
+    private int count;
+}
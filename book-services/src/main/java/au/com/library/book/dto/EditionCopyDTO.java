@@ -2,7 +2,7 @@ package au.com.library.book.dto;
 
 import au.com.library.book.entity.EditionCopy;
 import au.com.library.book.entity.EditionCopyStatus;
-import au.com.library.shared.util.Mapper;
+import au.com.library.book.mapper.EditionCopyMapper;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -32,8 +32,6 @@ public class EditionCopyDTO {
      * @return An {@link EditionCopyDTO} object containing the mapped data.
      */
     public static EditionCopyDTO toDTO(EditionCopy editionCopy){
-        EditionCopyDTO dto = Mapper.map(editionCopy, EditionCopyDTO.class);
-        dto.setEditionId(editionCopy.getEdition().getId());
-        return dto;
+        return EditionCopyMapper.INSTANCE.toDTO(editionCopy);
     }
 }
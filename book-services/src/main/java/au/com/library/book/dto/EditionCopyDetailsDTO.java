@@ -0,0 +1,54 @@
+package au.com.library.book.dto;
+
+import au.com.library.book.entity.Book;
+import au.com.library.book.entity.Edition;
+import au.com.library.book.entity.EditionCopy;
+import au.com.library.book.entity.EditionCopyStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A data transfer object combining the details of an {@link EditionCopy edition copy} with those of its
+ * {@link Edition edition} and {@link Book book}, allowing a client such as the loan service to retrieve
+ * all three in a single request.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class EditionCopyDetailsDTO {
+
+    private Long id;
+    private String barcode;
+    private EditionCopyStatus status;
+    private Long editionId;
+    private String edition;
+    private String isbn;
+    private Long bookId;
+    private String title;
+    private String author;
+
+    /**
+     * Maps an {@link EditionCopy edition copy}, along with its edition and book, to an {@link EditionCopyDetailsDTO}.
+     * The edition and book are expected to have been fetched with the copy.
+     *
+     * @param editionCopy The edition copy entity to be mapped.
+     * @return An {@link EditionCopyDetailsDTO} object containing the mapped data.
+     */
+    public static EditionCopyDetailsDTO toDTO(EditionCopy editionCopy){
+        Edition edition = editionCopy.getEdition();
+        Book book = edition.getBook();
+        return new EditionCopyDetailsDTO(
+                editionCopy.getId(),
+                editionCopy.getBarcode(),
+                editionCopy.getStatus(),
+                edition.getId(),
+                edition.getEdition(),
+                edition.getIsbn(),
+                book.getId(),
+                book.getTitle(),
+                book.getAuthor());
+    }
+}
@@ -0,0 +1,31 @@
+package au.com.library.book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A hold on an {@link au.com.library.book.entity.EditionCopy edition copy} for a loan being created, together with
+ * the details of the copy, its edition and its book.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class EditionCopyReservationDTO {
+
+    /**
+     * The token identifying the hold, required to release it.
+     */
+    private String token;
+    private LocalDateTime expiresAt;
+
+    /**
+     * The duration of the hold, so that the holder can tell when it expires without relying on this service's clock.
+     */
+    private long holdSeconds;
+    private EditionCopyDetailsDTO copy;
+}
@@ -2,7 +2,7 @@ package au.com.library.book.dto;
 
 import au.com.library.book.entity.BookFormat;
 import au.com.library.book.entity.Edition;
-import au.com.library.shared.util.Mapper;
+import au.com.library.book.mapper.EditionMapper;
 import jakarta.persistence.Column;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -37,6 +37,26 @@ public class EditionDTO {
     private Set<EditionCopyDTO> copies = new HashSet<>();
     private Long bookId;
 
+    /**
+     * The number of copies of the edition with each status. Ignored in requests.
+     */
+    private EditionAvailabilityDTO availability;
+
+    /**
+     * Creates an {@link EditionDTO} object from the columns of an edition, without its copies or availability,
+     * as selected by {@link au.com.library.book.repository.EditionRepository#findByBookId(Long)}.
+     */
+    public EditionDTO(Long id, String isbn, String publisher, Integer publicationYear, String edition,
+                      BookFormat format, Long bookId){
+        this.id = id;
+        this.isbn = isbn;
+        this.publisher = publisher;
+        this.publicationYear = publicationYear;
+        this.edition = edition;
+        this.format = format;
+        this.bookId = bookId;
+    }
+
     /**
      * Maps an {@link Edition} object to an {@link EditionDTO} object,
      * also setting the {@link #getBookId() bookId} attribute from its {@link Edition#getBook() book reference}.
@@ -44,8 +64,6 @@ public class EditionDTO {
      * @return The created {@link EditionDTO} object.
      */
     public static EditionDTO toDTO(Edition edition){
-        EditionDTO editionDTO = Mapper.map(edition, EditionDTO.class);
-        editionDTO.setBookId(edition.getBook().getId());
-        return editionDTO;
+        return EditionMapper.INSTANCE.toDTO(edition);
     }
 }
@@ -0,0 +1,20 @@
+package au.com.library.book.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A data transfer object containing the number of books matching a catalogue search with a value of a facet,
+ * such as a format or a year of publication.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class FacetCountDTO {
+
+    private String value;
+    private long count;
+}
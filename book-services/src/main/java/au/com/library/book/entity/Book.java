@@ -22,8 +22,10 @@ import java.util.Set;
 @Entity
 public class Book {
 
+    // Sequence generated in blocks (emulated by a table on MySQL), so that inserts can be sent as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
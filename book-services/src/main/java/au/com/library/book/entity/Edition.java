@@ -1,5 +1,6 @@
 package au.com.library.book.entity;
 
+import au.com.library.shared.util.IsbnNormaliser;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -22,19 +23,31 @@ import java.util.Set;
 @AllArgsConstructor
 @Builder
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_edition_isbn", columnList = "isbn"),
+        @Index(name = "uk_edition_isbn_key", columnList = "isbn_key", unique = true)
+})
 public class Edition {
 
     private static final int LENGTH_ISBN = 20;
     private static final int LENGTH_EDITION = 50;
     private static final int LENGTH_FORMAT = 50;
 
+    // Sequence generated in blocks (emulated by a table on MySQL), so that inserts can be sent as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "edition_seq")
+    @SequenceGenerator(name = "edition_seq", sequenceName = "edition_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = LENGTH_ISBN)
     private String isbn;
 
+    // The ISBN normalised by IsbnNormaliser, maintained from the ISBN as written, so that an edition can be
+    // looked up by any form of its ISBN and is recorded only once
+    @Setter(AccessLevel.NONE)
+    @Column(name = "isbn_key", nullable = false, length = LENGTH_ISBN)
+    private String isbnKey;
+
     @Column(nullable = false)
     private String publisher;
 
@@ -58,4 +71,10 @@ public class Edition {
     // Edition by the name 'edition'.
     @OneToMany(mappedBy = "edition", fetch = FetchType.LAZY)
     private Set<EditionCopy> copies = new HashSet<>();
+
+    @PrePersist
+    @PreUpdate
+    void normaliseIsbn() {
+        isbnKey = IsbnNormaliser.normalise(isbn);
+    }
 }
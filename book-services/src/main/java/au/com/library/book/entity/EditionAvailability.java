@@ -0,0 +1,45 @@
+package au.com.library.book.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * The number of {@link EditionCopy copies} of an {@link Edition edition} with each {@link EditionCopyStatus status},
+ * so that the availability of an edition can be read without reading its copies.
+ * <p>
+ * The counts are kept in a table of their own, rather than on the edition, so that updating an edition cannot
+ * overwrite them with the values it read, and so that lending does not contend with catalogue changes. They are
+ * only ever changed by the {@link au.com.library.book.repository.EditionAvailabilityUpdates relative updates}
+ * made in the same transactions as the changes to the copies, never through this entity.
+ *
+ * @see Edition
+ * @see EditionCopy
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Immutable
+@Entity
+@Table(name = "edition_availability")
+public class EditionAvailability {
+
+    /**
+     * The id of the edition, which is also the id of its availability.
+     */
+    @Id
+    private Long editionId;
+
+    @Column(nullable = false)
+    private long available;
+
+    @Column(nullable = false)
+    private long reserved;
+
+    @Column(nullable = false)
+    private long loaned;
+
+    @Column(nullable = false)
+    private long lost;
+}
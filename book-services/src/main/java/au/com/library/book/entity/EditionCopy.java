@@ -3,6 +3,7 @@ package au.com.library.book.entity;
 import au.com.library.shared.exception.ConflictException;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -20,13 +21,22 @@ import java.time.LocalDateTime;
 @Builder
 @EntityListeners(AuditingEntityListener.class)
 @Entity
+@Table(indexes = {
+        // Used to find the expired holds of reserved copies
+        @Index(name = "idx_edition_copy_status_reserved_until", columnList = "status, reserved_until"),
+        // Used to find the first copy of an edition with a status
+        @Index(name = "idx_edition_copy_edition_id_status_id", columnList = "edition_id, status, id")
+})
 public class EditionCopy {
 
     private static final int LENGTH_STATUS = 50;
     private static final int LENGTH_BARCODE = 50;
+    private static final int LENGTH_HOLD_TOKEN = 36;
 
+    // Sequence generated in blocks (emulated by a table on MySQL), so that inserts can be sent as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "edition_copy_seq")
+    @SequenceGenerator(name = "edition_copy_seq", sequenceName = "edition_copy_seq", allocationSize = 50)
     private Long id;
 
     @Column(
@@ -45,7 +55,38 @@ public class EditionCopy {
     @CreatedDate
     private LocalDateTime dateAcquired;
 
-    // Bidirectional many to one - This child EditionCopy references its parent Edition via
+    /**
+     * The id of the latest loan event applied to this copy - its high-water mark. Loan events with an id
+     * less than or equal to this have already been applied or have been superseded, and are skipped.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private long lastEventId = 0;
+
+    /**
+     * Incremented with each change to this copy, including the conditional status updates made without loading it,
+     * so that an update of a copy that has changed since it was read fails rather than overwriting the change.
+     */
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private long version = 0;
+
+    /**
+     * The time the hold on this copy expires. Only meaningful while the copy is {@link EditionCopyStatus#RESERVED reserved}.
+     */
+    @Column(name = "reserved_until")
+    private LocalDateTime reservedUntil;
+
+    /**
+     * The token identifying the hold on this copy, required to release it. Only meaningful while the copy is
+     * {@link EditionCopyStatus#RESERVED reserved}.
+     */
+    @Column(length = LENGTH_HOLD_TOKEN)
+    private String holdToken;
+
     // Bidirectional many to one - This child EditionCopy references its parent Edition via
     // the 'edition_id' foreign key. In the parent, this is the 'id' column.
     @JoinColumn(name = "edition_id", referencedColumnName = "id", nullable = false)
@@ -91,6 +132,21 @@ public class EditionCopy {
         status = EditionCopyStatus.LOST;
     }
 
+    /**
+     * Makes this {@link EditionCopyStatus#RESERVED reserved} copy {@link EditionCopyStatus#AVAILABLE available} again
+     * once its hold has expired.
+     *
+     * @throws ConflictException Thrown when this copy is not reserved.
+     */
+    public void expireHold(){
+        if(!status.isReserved()){
+            throw new ConflictException("This edition copy is not reserved.");
+        }
+        status = EditionCopyStatus.AVAILABLE;
+        reservedUntil = null;
+        holdToken = null;
+    }
+
     private void checkLost(){
         if(status.isLost()){
             throw new ConflictException("This edition copy is lost. Its status cannot be changed.");
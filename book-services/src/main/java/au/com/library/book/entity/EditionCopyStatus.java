@@ -10,6 +10,11 @@ public enum EditionCopyStatus {
      * Indicates that the edition copy is available for loan.
      */
     AVAILABLE,
+    /**
+     * Indicates that the edition copy is held for a loan being created, until the loan is confirmed by its loan
+     * event, the hold is released, or the hold expires.
+     */
+    RESERVED,
     /**
      * Indicates that the edition copy is currently loaned out.
      */
@@ -37,6 +42,15 @@ public enum EditionCopyStatus {
         return AVAILABLE.equals(this);
     }
 
+    /**
+     * A convenience method that indicates if the status is {@link #RESERVED reserved}.
+     *
+     * @return true if the status is {@link #RESERVED reserved}, false otherwise.
+     */
+    public boolean isReserved(){
+        return RESERVED.equals(this);
+    }
+
     /**
      * A convenience method that indicates if the status is {@link #LOST lost}.
      *
@@ -1,6 +1,7 @@
 package au.com.library.book.exception;
 
 import au.com.library.shared.exception.BadRequestException;
+import au.com.library.shared.exception.ConflictException;
 import au.com.library.shared.exception.ErrorDetails;
 import au.com.library.shared.exception.ResourceNotFoundException;
 import org.springframework.http.HttpStatus;
@@ -41,4 +42,16 @@ public class ServiceExceptionHandler extends ResponseEntityExceptionHandler {
         ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now(), exception.getMessage(), request.getDescription(false), "NOT_FOUND");
         return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
     }
+
+    /**
+     * Handles a {@link ConflictException}, e.g. when a copy to reserve is not available.
+     * @param exception A reference to the {@link ConflictException} object.
+     * @param request The {@link WebRequest} object.
+     * @return The {@link ResponseEntity} object containing the error details.
+     */
+    @ExceptionHandler
+    public ResponseEntity<ErrorDetails> handleConflictException(ConflictException exception, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now(), exception.getMessage(), request.getDescription(false), "CONFLICT");
+        return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
+    }
 }
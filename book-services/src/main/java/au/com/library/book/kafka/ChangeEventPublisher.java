@@ -0,0 +1,75 @@
+package au.com.library.book.kafka;
+
+import au.com.library.contracts.event.change.ChangeEvent;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+
+/**
+ * Publishes {@link ChangeEvent change events} to Kafka when book or edition details are updated, so that
+ * subscribers holding local copies of those details can invalidate them, or when a loan's copy could not be
+ * confirmed, so that the loan service can mark the loan for reconciliation.
+ * <p>
+ * The auto-configured producer serialises values as raw bytes for dead letter publishing, so this publisher
+ * uses its own JSON producer rather than the shared {@link KafkaTemplate} bean. The producer is not a bean, so
+ * that it does not replace the auto-configured one, and is closed by this publisher on shutdown.
+ */
+@Component
+public class ChangeEventPublisher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeEventPublisher.class);
+
+    private final DefaultKafkaProducerFactory<String, ChangeEvent> producerFactory;
+    private final KafkaTemplate<String, ChangeEvent> template;
+    private final NewTopic changeEventTopic;
+
+    public ChangeEventPublisher(@Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                                NewTopic changeEventTopic) {
+        this.changeEventTopic = changeEventTopic;
+        this.producerFactory = new DefaultKafkaProducerFactory<>(
+                Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers),
+                new StringSerializer(),
+                new JsonSerializer<ChangeEvent>().noTypeInfo());
+        this.template = new KafkaTemplate<>(producerFactory);
+    }
+
+    /**
+     * Sends the change events still buffered by the producer, then closes it, releasing its connections to the
+     * brokers and its sender thread.
+     */
+    @PreDestroy
+    public void close() {
+        template.flush();
+        producerFactory.destroy();
+    }
+
+    /**
+     * Publishes the change event once the change has been committed, or immediately if the change
+     * was not made within a transaction.
+     *
+     * @param event The change event to publish.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void publish(ChangeEvent event){
+        if(event == null){
+            throw new IllegalArgumentException("The event to publish cannot be null");
+        }
+        template.send(changeEventTopic.name(), String.valueOf(event.id()), event).whenComplete((_, ex) -> {
+            if (ex != null) {
+                LOGGER.error("Failed to send change event {}: {}", event, ex.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,27 @@
+package au.com.library.book.kafka;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * Configuration class for the Kafka topic to which book and edition change events are published.
+ */
+@Configuration
+public class ChangeEventTopicConfig {
+
+    @Value("${spring.kafka.topic.change-event}")
+    private String changeEventTopic;
+
+    /**
+     * Creates a Kafka topic for change events.
+     *
+     * @return a NewTopic instance representing the change event topic.
+     */
+    @Bean
+    public NewTopic changeEventTopic() {
+        return TopicBuilder.name(changeEventTopic).build();
+    }
+}
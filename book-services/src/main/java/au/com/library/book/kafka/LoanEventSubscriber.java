@@ -4,12 +4,26 @@ import au.com.library.contracts.event.loan.LoanEvent;
 import au.com.library.book.service.EditionCopyService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Subscribes to loan events from Kafka and updates edition copy statuses accordingly.
+ * <p>
+ * Events are consumed in batches - one per poll - and applied by the {@link EditionCopyService} in a single
+ * transaction. When a record in the batch cannot be processed, the records before it are applied and a
+ * {@link BatchListenerFailedException} identifying it is thrown, so that the error handler routes that record alone
+ * to the dead letter topic and redelivers the records after it.
+ * <p>
+ * Redelivered and out of order events are skipped using the high-water mark recorded on each edition copy, so the
+ * loan event topic may be consumed from many partitions concurrently.
+ *
+ * @see au.com.library.book.kafka.error.ErrorHandlingConfig
  */
 @Component
 @RequiredArgsConstructor
@@ -19,24 +33,56 @@ public class LoanEventSubscriber {
     private final ObjectMapper objectMapper;
 
     /**
-     * Subscribes to loan events and processes them based on their type.
+     * Subscribes to a batch of loan events and applies them in the order received.
      *
-     * @param eventPayload The payload of the loan event.
-     * @throws IllegalArgumentException if the event type is unknown or the payload is null.
+     * @param records The loan event records received by a single poll.
+     * @throws BatchListenerFailedException if a record has no payload, an unknown event type or an unknown edition copy.
      */
     @KafkaListener(
             topics = "${spring.kafka.topic.loan-event}",
-            groupId = "${spring.kafka.consumer.group-id}"
+            groupId = "${spring.kafka.consumer.group-id}",
+            batch = "true"
     )
-    public void subscribe(@Payload LoanEvent eventPayload) {
-        if(eventPayload == null){
-            throw new IllegalArgumentException("The event payload cannot be null");
+    public void subscribe(List<ConsumerRecord<String, LoanEvent>> records) {
+        List<LoanEvent> events = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, LoanEvent> consumerRecord : records) {
+            LoanEvent event = consumerRecord.value();
+            String invalid = validate(event);
+            if (invalid != null) {
+                applyThenFail(events, new IllegalArgumentException(invalid), consumerRecord);
+            }
+            events.add(event);
+        }
+        applyThenFail(events, null, null);
+    }
+
+    /**
+     * Applies the events, then fails the batch at the specified record, if any. If an edition copy could not be
+     * found, the batch fails at the record of the first event that was not applied instead.
+     */
+    private void applyThenFail(List<LoanEvent> events, RuntimeException cause, ConsumerRecord<?, ?> failedRecord) {
+        int applied = events.isEmpty() ? 0 : service.applyLoanEvents(events);
+        if (applied < events.size()) {
+            throw new BatchListenerFailedException(
+                    String.format("The edition copy with id %s could not be found", events.get(applied).context().editionCopyId()),
+                    applied);
+        }
+        if (failedRecord != null) {
+            throw new BatchListenerFailedException(cause.getMessage(), cause, failedRecord);
+        }
+    }
+
+    private String validate(LoanEvent event) {
+        if (event == null) {
+            // A record that could not be deserialised has a null value
+            return "The event payload cannot be null";
+        }
+        if (event.eventType() == null) {
+            return "Unknown event type: " + event.eventType();
         }
-         switch (eventPayload.eventType()) {
-            case LOAN_CREATED -> service.borrowCopy(eventPayload.context().editionCopyId());
-            case LOAN_RETURNED -> service.returnCopy(eventPayload.context().editionCopyId());
-            case LOAN_MARKED_LOST -> service.markCopyLost(eventPayload.context().editionCopyId());
-            default -> throw new IllegalArgumentException("Unknown event type: " + eventPayload.eventType());
+        if (event.context() == null || event.context().editionCopyId() == null) {
+            return "The event does not identify an edition copy";
         }
+        return null;
     }
 }
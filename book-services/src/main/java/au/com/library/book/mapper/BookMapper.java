@@ -0,0 +1,34 @@
+package au.com.library.book.mapper;
+
+import au.com.library.book.dto.BookDTO;
+import au.com.library.book.entity.Book;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * Maps between {@link Book books} and {@link BookDTO book DTOs}. The implementation is generated at
+ * compile time, so no reflection is involved when mapping on the request path.
+ *
+ * @see EditionMapper
+ */
+@Mapper(uses = EditionMapper.class)
+public interface BookMapper {
+
+    BookMapper INSTANCE = Mappers.getMapper(BookMapper.class);
+
+    /**
+     * Maps a {@link Book} to a {@link BookDTO}, including its editions.
+     * @param book The source {@link Book}.
+     * @return The mapped {@link BookDTO}.
+     */
+    BookDTO toDTO(Book book);
+
+    /**
+     * Maps a {@link BookDTO} to a new {@link Book}. Editions are added separately and are therefore ignored.
+     * @param bookDTO The source {@link BookDTO}.
+     * @return The mapped {@link Book}.
+     */
+    @Mapping(target = "editions", ignore = true)
+    Book toEntity(BookDTO bookDTO);
+}
@@ -0,0 +1,25 @@
+package au.com.library.book.mapper;
+
+import au.com.library.book.dto.EditionCopyDTO;
+import au.com.library.book.entity.EditionCopy;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * Maps {@link EditionCopy edition copies} to {@link EditionCopyDTO edition copy DTOs}.
+ */
+@Mapper
+public interface EditionCopyMapper {
+
+    EditionCopyMapper INSTANCE = Mappers.getMapper(EditionCopyMapper.class);
+
+    /**
+     * Maps an {@link EditionCopy} to an {@link EditionCopyDTO}, setting the
+     * {@link EditionCopyDTO#getEditionId() editionId} from its {@link EditionCopy#getEdition() edition reference}.
+     * @param editionCopy The source {@link EditionCopy}.
+     * @return The mapped {@link EditionCopyDTO}.
+     */
+    @Mapping(target = "editionId", source = "edition.id")
+    EditionCopyDTO toDTO(EditionCopy editionCopy);
+}
@@ -0,0 +1,40 @@
+package au.com.library.book.mapper;
+
+import au.com.library.book.dto.EditionDTO;
+import au.com.library.book.entity.Edition;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * Maps between {@link Edition editions} and {@link EditionDTO edition DTOs}.
+ *
+ * @see EditionCopyMapper
+ */
+@Mapper(uses = EditionCopyMapper.class)
+public interface EditionMapper {
+
+    EditionMapper INSTANCE = Mappers.getMapper(EditionMapper.class);
+
+    /**
+     * Maps an {@link Edition} to an {@link EditionDTO}, setting the {@link EditionDTO#getBookId() bookId}
+     * from its {@link Edition#getBook() book reference}. The {@link EditionDTO#getAvailability() availability} is
+     * read separately, so is left to the caller.
+     * @param edition The source {@link Edition}.
+     * @return The mapped {@link EditionDTO}.
+     */
+    @Mapping(target = "bookId", source = "book.id")
+    @Mapping(target = "availability", ignore = true)
+    EditionDTO toDTO(Edition edition);
+
+    /**
+     * Maps an {@link EditionDTO} to a new {@link Edition}. The book reference is resolved by the caller
+     * and copies are added separately, so both are ignored, as is the ISBN key, which is maintained by the entity.
+     * @param editionDTO The source {@link EditionDTO}.
+     * @return The mapped {@link Edition}.
+     */
+    @Mapping(target = "book", ignore = true)
+    @Mapping(target = "copies", ignore = true)
+    @Mapping(target = "isbnKey", ignore = true)
+    Edition toEntity(EditionDTO editionDTO);
+}
@@ -1,10 +1,22 @@
 package au.com.library.book.repository;
 
 import au.com.library.book.entity.Book;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 /**
  * The {@link JpaRepository} extension for {@link Book} entities.
  */
 public interface BookRespository extends JpaRepository<Book, Long> {
+
+    /**
+     * Retrieves a page of books in order of their ids, starting after the specified id, so that every book can be
+     * read a page at a time without the cost of an offset growing with each page.
+     * @param afterId The id after which the page starts, or 0 for the first page.
+     * @param limit The maximum number of books in the page.
+     * @return A {@link List} of the {@link Book books} in the page, or an empty List after the last page.
+     */
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
 }
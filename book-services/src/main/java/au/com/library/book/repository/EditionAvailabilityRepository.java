@@ -0,0 +1,13 @@
+package au.com.library.book.repository;
+
+import au.com.library.book.entity.EditionAvailability;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * The {@link JpaRepository} extension for {@link EditionAvailability} entities. Availability is only read through
+ * this repository; it is created and changed through its {@link EditionAvailabilityUpdates} fragment.
+ *
+ * @see EditionAvailabilityUpdates
+ */
+public interface EditionAvailabilityRepository extends JpaRepository<EditionAvailability, Long>, EditionAvailabilityUpdates {
+}
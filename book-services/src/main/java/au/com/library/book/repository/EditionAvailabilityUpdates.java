@@ -0,0 +1,41 @@
+package au.com.library.book.repository;
+
+import au.com.library.book.entity.EditionCopyStatus;
+
+import java.util.Collection;
+
+/**
+ * A repository fragment that maintains the {@link au.com.library.book.entity.EditionAvailability availability} of
+ * editions with relative updates, so that concurrent changes to the copies of an edition are all counted.
+ *
+ * @see EditionAvailabilityRepository
+ */
+public interface EditionAvailabilityUpdates {
+
+    /**
+     * A change to the status of a number of copies of an edition.
+     *
+     * @param editionId The id of the edition.
+     * @param from      The status the copies changed from, or null if they were added.
+     * @param to        The status the copies changed to.
+     * @param copies    The number of copies changed.
+     */
+    record CountChange(Long editionId, EditionCopyStatus from, EditionCopyStatus to, int copies) {
+    }
+
+    /**
+     * Creates the availability of each of the specified new editions, with no copies, as a single JDBC batch.
+     *
+     * @param editionIds The ids of the editions.
+     */
+    void createAvailability(Collection<Long> editionIds);
+
+    /**
+     * Applies the changes to the availability of their editions. The changes to each edition are combined, and the
+     * editions are updated in order of their ids, as a single JDBC batch, so that concurrent updates of the same
+     * editions cannot deadlock.
+     *
+     * @param changes The changes to apply.
+     */
+    void applyCountChanges(Collection<CountChange> changes);
+}
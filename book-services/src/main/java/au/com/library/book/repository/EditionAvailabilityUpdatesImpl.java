@@ -0,0 +1,61 @@
+package au.com.library.book.repository;
+
+import au.com.library.book.entity.EditionCopyStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+
+/**
+ * The {@link EditionAvailabilityUpdates} implementation.
+ * <p>
+ * Each edition's counts are changed by the net change to each of them, rather than set, so that the update commutes
+ * with those of any concurrent transaction.
+ */
+@RequiredArgsConstructor
+public class EditionAvailabilityUpdatesImpl implements EditionAvailabilityUpdates {
+
+    private static final String INSERT_AVAILABILITY = """
+            insert into edition_availability (edition_id, available, reserved, loaned, lost)
+            values (?, 0, 0, 0, 0)""";
+
+    private static final String UPDATE_COUNTS = """
+            update edition_availability
+            set available = available + ?, reserved = reserved + ?, loaned = loaned + ?, lost = lost + ?
+            where edition_id = ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void createAvailability(Collection<Long> editionIds) {
+        if (editionIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_AVAILABILITY, editionIds.stream().map(id -> new Object[]{id}).toList());
+    }
+
+    @Override
+    public void applyCountChanges(Collection<CountChange> changes) {
+        // The net change to the count of each status, by edition, in the order the editions are updated
+        Map<Long, long[]> deltas = new TreeMap<>();
+        for (CountChange change : changes) {
+            long[] delta = deltas.computeIfAbsent(change.editionId(), _ -> new long[EditionCopyStatus.values().length]);
+            if (change.from() != null) {
+                delta[change.from().ordinal()] -= change.copies();
+            }
+            delta[change.to().ordinal()] += change.copies();
+        }
+        List<Object[]> batchArgs = new ArrayList<>();
+        deltas.forEach((editionId, delta) -> {
+            if (Arrays.stream(delta).anyMatch(count -> count != 0)) {
+                batchArgs.add(new Object[]{
+                        delta[EditionCopyStatus.AVAILABLE.ordinal()], delta[EditionCopyStatus.RESERVED.ordinal()],
+                        delta[EditionCopyStatus.LOANED.ordinal()], delta[EditionCopyStatus.LOST.ordinal()], editionId
+                });
+            }
+        });
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_COUNTS, batchArgs);
+        }
+    }
+}
@@ -1,15 +1,57 @@
 package au.com.library.book.repository;
 
+import au.com.library.book.dto.EditionCopyDTO;
 import au.com.library.book.entity.EditionCopy;
+import au.com.library.book.entity.EditionCopyStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * The {@link JpaRepository} extension for {@link EditionCopy} entities.
+ *
+ * @see EditionCopyStatusUpdates
  */
-public interface EditionCopyRepository extends JpaRepository<EditionCopy, Long> {
+public interface EditionCopyRepository extends JpaRepository<EditionCopy, Long>, EditionCopyStatusUpdates {
+
+    /**
+     * The number of copies of an edition.
+     */
+    interface EditionCopyCount {
+
+        Long getEditionId();
+
+        long getCopies();
+    }
+
+    /**
+     * The id of an edition copy and the id of its edition.
+     */
+    interface CopyEdition {
+
+        Long getId();
+
+        Long getEditionId();
+    }
+
+    /**
+     * The id of an edition copy and its barcode.
+     */
+    interface CopyBarcode {
+
+        Long getId();
+
+        String getBarcode();
+    }
 
     /**
      * Handles the retrieval of an {@link EditionCopy edition copy}, specifying both the edition id and the copy id.
@@ -20,9 +62,185 @@ public interface EditionCopyRepository extends JpaRepository<EditionCopy, Long>
     Optional<EditionCopy> findByIdAndEditionId(Long copyId, Long editionId);
 
     /**
-     * Handles the retrieval of all {@link EditionCopy edition copies} for an {@link au.com.library.book.entity.Edition edition}.
+     * Handles the retrieval of the details of all {@link EditionCopy edition copies} for an
+     * {@link au.com.library.book.entity.Edition edition}, selected directly into DTOs with a single query, so that
+     * neither the copies nor their editions are loaded.
      * @param editionId The id of the edition.
-     * @return A {@link List} of {@link EditionCopy edition copies} or an empty List if none were found.
+     * @return A {@link List} of {@link EditionCopyDTO edition copy DTOs}, in order of their ids, or an empty List
+     * if none were found.
+     */
+    @Query("""
+            select new au.com.library.book.dto.EditionCopyDTO(c.id, c.barcode, c.status, c.dateAcquired, c.edition.id)
+            from EditionCopy c
+            where c.edition.id = :editionId
+            order by c.id""")
+    List<EditionCopyDTO> findByEditionId(@Param("editionId") Long editionId);
+
+    /**
+     * Handles the retrieval of the details of all {@link EditionCopy edition copies} for several
+     * {@link au.com.library.book.entity.Edition editions}, selected directly into DTOs with a single query.
+     * @param editionIds The ids of the editions.
+     * @return A {@link List} of {@link EditionCopyDTO edition copy DTOs}, in order of their ids, or an empty List
+     * if none were found.
+     */
+    @Query("""
+            select new au.com.library.book.dto.EditionCopyDTO(c.id, c.barcode, c.status, c.dateAcquired, c.edition.id)
+            from EditionCopy c
+            where c.edition.id in :editionIds
+            order by c.id""")
+    List<EditionCopyDTO> findByEditionIdIn(@Param("editionIds") Collection<Long> editionIds);
+
+    /**
+     * Handles the retrieval of the first {@link EditionCopy edition copy} of an
+     * {@link au.com.library.book.entity.Edition edition} with the specified status, in order of the copies' ids,
+     * with a single indexed query.
+     * @param editionId The id of the edition.
+     * @param status The status of the copy.
+     * @return An {@link Optional} object containing the retrieved {@link EditionCopy copy}, or an empty Optional if
+     * the edition has no copy with that status.
+     */
+    Optional<EditionCopy> findFirstByEditionIdAndStatusOrderByIdAsc(Long editionId, EditionCopyStatus status);
+
+    /**
+     * Handles the retrieval of an {@link EditionCopy edition copy} together with its
+     * {@link au.com.library.book.entity.Edition edition} and {@link au.com.library.book.entity.Book book}
+     * in a single query.
+     * @param copyId The id of the copy.
+     * @return An {@link Optional} object containing the retrieved {@link EditionCopy copy}.
+     */
+    @Query("""
+            select c from EditionCopy c
+            join fetch c.edition e
+            join fetch e.book
+            where c.id = :copyId""")
+    Optional<EditionCopy> findWithEditionAndBookById(@Param("copyId") Long copyId);
+
+    /**
+     * Handles the retrieval of the id of an {@link EditionCopy edition copy} by its barcode, with a single query on
+     * the unique barcode index, without loading the copy.
+     * @param barcode The barcode of the copy.
+     * @return An {@link Optional} object containing the id of the copy, or an empty Optional if it could not be found.
+     */
+    @Query("select c.id from EditionCopy c where c.barcode = :barcode")
+    Optional<Long> findIdByBarcode(@Param("barcode") String barcode);
+
+    /**
+     * Handles the retrieval of the ids and barcodes of a page of {@link EditionCopy edition copies} in order of their
+     * ids, starting after the specified id, so that every barcode can be read a page at a time without loading the
+     * copies or the cost of an offset growing with each page.
+     * @param afterId The id after which the page starts, or 0 for the first page.
+     * @param limit The maximum number of copies in the page.
+     * @return A {@link List} of the {@link CopyBarcode ids and barcodes} of the copies in the page, or an empty List
+     * after the last page.
+     */
+    List<CopyBarcode> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Handles the retrieval of the id of the {@link au.com.library.book.entity.Edition edition} of an
+     * {@link EditionCopy edition copy}, without loading the copy.
+     * @param copyId The id of the copy.
+     * @return An {@link Optional} object containing the id of the copy's edition.
+     */
+    @Query("select c.edition.id from EditionCopy c where c.id = :copyId")
+    Optional<Long> findEditionIdById(@Param("copyId") Long copyId);
+
+    /**
+     * Changes the status of an {@link EditionCopy edition copy} if it currently has the specified status, in a
+     * single conditional update rather than by reading the copy first.
+     * @param copyId The id of the copy.
+     * @param from The status from which the copy may transition.
+     * @param to The status to transition to.
+     * @return 1 if the copy's status was changed, or 0 if the copy could not be found or its status is not the
+     * <code>from</code> status.
+     */
+    @Modifying
+    @Query("update EditionCopy c set c.status = :to, c.version = c.version + 1 where c.id = :copyId and c.status = :from")
+    int transitionStatus(@Param("copyId") Long copyId,
+                         @Param("from") EditionCopyStatus from,
+                         @Param("to") EditionCopyStatus to);
+
+    /**
+     * Reserves an {@link EditionCopy edition copy} if it is available, in a single conditional update.
+     * @param copyId The id of the copy.
+     * @param holdToken The token identifying the new hold.
+     * @param reservedUntil The time the new hold expires.
+     * @return 1 if the copy was reserved, or 0 if the copy could not be found or is not available.
+     */
+    @Modifying
+    @Query("""
+            update EditionCopy c
+            set c.status = au.com.library.book.entity.EditionCopyStatus.RESERVED, c.reservedUntil = :reservedUntil,
+            c.holdToken = :holdToken, c.version = c.version + 1
+            where c.id = :copyId and c.status = au.com.library.book.entity.EditionCopyStatus.AVAILABLE""")
+    int reserve(@Param("copyId") Long copyId,
+                @Param("holdToken") String holdToken,
+                @Param("reservedUntil") LocalDateTime reservedUntil);
+
+    /**
+     * Takes over the hold on a {@link EditionCopy edition copy} if it expired before the specified time, in a single
+     * conditional update, so that a copy whose hold has lapsed can be reserved before its hold is released.
+     * @param copyId The id of the copy.
+     * @param holdToken The token identifying the new hold.
+     * @param now The current time, before which the existing hold must have expired.
+     * @param reservedUntil The time the new hold expires.
+     * @return 1 if the copy was reserved, or 0 if the copy could not be found or is not reserved with an expired hold.
+     */
+    @Modifying
+    @Query("""
+            update EditionCopy c
+            set c.reservedUntil = :reservedUntil, c.holdToken = :holdToken, c.version = c.version + 1
+            where c.id = :copyId and c.status = au.com.library.book.entity.EditionCopyStatus.RESERVED
+            and c.reservedUntil < :now""")
+    int takeOverExpiredHold(@Param("copyId") Long copyId,
+                            @Param("holdToken") String holdToken,
+                            @Param("now") LocalDateTime now,
+                            @Param("reservedUntil") LocalDateTime reservedUntil);
+
+    /**
+     * Releases the hold with the specified token on an {@link EditionCopy edition copy}, making it available again.
+     * @param copyId The id of the copy.
+     * @param holdToken The token identifying the hold.
+     * @return 1 if the hold was released, or 0 if the copy is no longer held with that token.
+     */
+    @Modifying
+    @Query("""
+            update EditionCopy c
+            set c.status = au.com.library.book.entity.EditionCopyStatus.AVAILABLE, c.reservedUntil = null,
+            c.holdToken = null, c.version = c.version + 1
+            where c.id = :copyId and c.status = au.com.library.book.entity.EditionCopyStatus.RESERVED
+            and c.holdToken = :holdToken""")
+    int release(@Param("copyId") Long copyId, @Param("holdToken") String holdToken);
+
+    /**
+     * Handles the retrieval, and locking, of the {@link EditionCopy edition copies} whose holds expired before the
+     * specified time, so that they can be released without a concurrent change to them being missed.
+     * @param now The current time.
+     * @return A {@link List} of the reserved copies whose holds have expired.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select c from EditionCopy c
+            where c.status = au.com.library.book.entity.EditionCopyStatus.RESERVED and c.reservedUntil < :now""")
+    List<EditionCopy> findExpiredHolds(@Param("now") LocalDateTime now);
+
+    /**
+     * Handles the retrieval of the ids of those of the specified {@link EditionCopy edition copies} that exist,
+     * together with the ids of their editions, without loading the copies themselves.
+     * @param copyIds The ids of the copies.
+     * @return A {@link List} of the {@link CopyEdition ids} of the copies found and their editions.
+     */
+    @Query("select c.id as id, c.edition.id as editionId from EditionCopy c where c.id in :copyIds")
+    List<CopyEdition> findEditionIds(@Param("copyIds") Collection<Long> copyIds);
+
+    /**
+     * Counts the copies of each of the specified editions, without loading the copies themselves.
+     * Editions without copies are omitted.
+     * @param editionIds The ids of the editions.
+     * @return A {@link List} of the {@link EditionCopyCount copy counts} of the editions.
      */
-    List<EditionCopy> findByEditionId(Long editionId);
+    @Query("""
+            select c.edition.id as editionId, count(c) as copies from EditionCopy c
+            where c.edition.id in :editionIds
+            group by c.edition.id""")
+    List<EditionCopyCount> countByEditionIds(@Param("editionIds") Collection<Long> editionIds);
 }
@@ -0,0 +1,67 @@
+package au.com.library.book.repository;
+
+import au.com.library.book.entity.EditionCopyStatus;
+
+import java.util.List;
+
+/**
+ * A repository fragment that applies edition copy status transitions raised by loan events using conditional
+ * updates, rather than reading each copy, changing it and writing it back.
+ *
+ * @see EditionCopyRepository
+ */
+public interface EditionCopyStatusUpdates {
+
+    /**
+     * A status transition for an edition copy, raised by a loan event.
+     *
+     * @param copyId  The id of the edition copy.
+     * @param eventId The id of the loan event. May be null, in which case the transition is applied without
+     *                regard to, or change to, the copy's high-water mark.
+     * @param from    The statuses from which the copy may transition. Any other status is left unchanged. May be
+     *                empty, for an event that does not change the copy's status.
+     * @param to      The status to transition to. May be null if there are no <code>from</code> statuses.
+     * @param holdToken The token of the hold the copy must have for its status to change from
+     *                  {@link EditionCopyStatus#RESERVED reserved}, which the transition then clears. Not checked
+     *                  for the other <code>from</code> statuses, as a copy only has a hold while it is reserved.
+     *                  May be null, in which case the copy's hold is neither checked nor changed.
+     */
+    record StatusTransition(Long copyId, Long eventId, List<EditionCopyStatus> from, EditionCopyStatus to,
+                            String holdToken) {
+
+        /**
+         * Constructs a status transition that does not depend on the copy's hold.
+         */
+        public StatusTransition(Long copyId, Long eventId, List<EditionCopyStatus> from, EditionCopyStatus to) {
+            this(copyId, eventId, from, to, null);
+        }
+    }
+
+    /**
+     * The outcome of a status transition.
+     *
+     * @param applied     Whether the transition's event was applied, i.e. had not already been applied or
+     *                    superseded, whether or not it changed the copy's status.
+     * @param changedFrom The status the transition changed the copy from, or null if the status was not changed.
+     */
+    record TransitionOutcome(boolean applied, EditionCopyStatus changedFrom) {
+    }
+
+    /**
+     * Applies the transitions, in order, as a single JDBC batch. A transition is skipped if its event id is not
+     * greater than the copy's {@link au.com.library.book.entity.EditionCopy#getLastEventId() high-water mark}, i.e.
+     * its event has already been applied or superseded. Otherwise, the copy's status is changed if it is one of
+     * the transition's <code>from</code> statuses, and holds the transition's hold token if it is reserved, and its
+     * high-water mark is advanced to the event id either way, so that an earlier event delivered out of order cannot
+     * undo it.
+     * <p>
+     * The transitions are applied in list order, each seeing the status and high-water mark left by those before it,
+     * so transitions of the same copy in one batch have the same effect as in separate batches in that order. A
+     * transition listed after one with a greater event id for the same copy is therefore skipped. A skipped
+     * transition leaves the copy's status, hold and high-water mark unchanged, and is reported as not applied.
+     *
+     * @param transitions The transitions to apply.
+     * @return The outcome of each transition.
+     */
+    List<TransitionOutcome> applyStatusTransitions(List<StatusTransition> transitions);
+}
@@ -0,0 +1,82 @@
+package au.com.library.book.repository;
+
+import au.com.library.book.entity.EditionCopyStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@link EditionCopyStatusUpdates} implementation.
+ * <p>
+ * Each transition is executed as one conditional update per <code>from</code> status, followed by an update of the
+ * high-water mark alone. Whichever statement matches first advances the high-water mark, so the statements after
+ * it match nothing, and the update count of each status statement tells which - if any - transition took place,
+ * while a transition none of whose statements match was already applied or superseded.
+ * Both kinds of statement share the same SQL, with null parameters standing in for the parts that do not apply,
+ * so that all of them can be sent as a single batch.
+ */
+@RequiredArgsConstructor
+public class EditionCopyStatusUpdatesImpl implements EditionCopyStatusUpdates {
+
+    // A non-null hold token, passed only for the reserved from status, must match the copy's hold, which is then cleared
+    private static final String UPDATE_STATUS = """
+            update edition_copy
+            set status = coalesce(?, status), last_event_id = coalesce(?, last_event_id),
+            reserved_until = case when ? is null then reserved_until end,
+            hold_token = case when ? is null then hold_token end, version = version + 1
+            where id = ? and status = coalesce(?, status) and last_event_id < coalesce(?, last_event_id + 1)
+            and (? is null or hold_token = ?)""";
+
+    private static final int[] ARG_TYPES = {
+            Types.VARCHAR, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.VARCHAR, Types.BIGINT,
+            Types.VARCHAR, Types.VARCHAR
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<TransitionOutcome> applyStatusTransitions(List<StatusTransition> transitions) {
+        List<Object[]> batchArgs = new ArrayList<>();
+        // The transition and from status of each statement, or null for a high-water mark update.
+        List<Integer> transitionIndexes = new ArrayList<>();
+        List<EditionCopyStatus> fromStatuses = new ArrayList<>();
+        for (int i = 0; i < transitions.size(); i++) {
+            StatusTransition transition = transitions.get(i);
+            for (EditionCopyStatus from : transition.from()) {
+                String holdToken = from == EditionCopyStatus.RESERVED ? transition.holdToken() : null;
+                batchArgs.add(new Object[]{
+                        transition.to().name(), transition.eventId(), holdToken, holdToken, transition.copyId(),
+                        from.name(), transition.eventId(), holdToken, holdToken
+                });
+                transitionIndexes.add(i);
+                fromStatuses.add(from);
+            }
+            if (transition.eventId() != null) {
+                batchArgs.add(new Object[]{
+                        null, transition.eventId(), null, null, transition.copyId(), null, transition.eventId(), null, null
+                });
+                transitionIndexes.add(i);
+                fromStatuses.add(null);
+            }
+        }
+        boolean[] applied = new boolean[transitions.size()];
+        EditionCopyStatus[] changedFrom = new EditionCopyStatus[transitions.size()];
+        int[] counts = batchArgs.isEmpty() ? new int[0] : jdbcTemplate.batchUpdate(UPDATE_STATUS, batchArgs, ARG_TYPES);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                applied[transitionIndexes.get(i)] = true;
+                if (fromStatuses.get(i) != null) {
+                    changedFrom[transitionIndexes.get(i)] = fromStatuses.get(i);
+                }
+            }
+        }
+        List<TransitionOutcome> outcomes = new ArrayList<>(transitions.size());
+        for (int i = 0; i < transitions.size(); i++) {
+            outcomes.add(new TransitionOutcome(applied[i], changedFrom[i]));
+        }
+        return outcomes;
+    }
+}
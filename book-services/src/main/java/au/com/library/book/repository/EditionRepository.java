@@ -1,9 +1,14 @@
 package au.com.library.book.repository;
 
+import au.com.library.book.dto.EditionDTO;
 import au.com.library.book.entity.Edition;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * The {@link JpaRepository} extension for {@link Edition} entities.
@@ -11,9 +16,58 @@ import java.util.List;
 public interface EditionRepository extends JpaRepository<Edition, Long> {
 
     /**
-     * Retrieves all editions for a book.
+     * Retrieves the details of all editions for a book, selected directly into DTOs with a single query, so that
+     * neither the editions nor their books are loaded. The DTOs' copies and availability are left to the caller.
      * @param bookId The id of the book.
-     * @return A {@link List} of {@link Edition editions} or an empty List if none are recorded yet.
+     * @return A {@link List} of {@link EditionDTO edition DTOs}, in order of their ids, or an empty List if none
+     * are recorded yet.
      */
-    List<Edition> findByBookId(Long bookId);
+    @Query("""
+            select new au.com.library.book.dto.EditionDTO(e.id, e.isbn, e.publisher, e.publicationYear, e.edition, e.format, e.book.id)
+            from Edition e
+            where e.book.id = :bookId
+            order by e.id""")
+    List<EditionDTO> findByBookId(@Param("bookId") Long bookId);
+
+    /**
+     * Retrieves the details of all editions for several books, selected directly into DTOs with a single query.
+     * @param bookIds The ids of the books.
+     * @return A {@link List} of {@link EditionDTO edition DTOs}, in order of their ids, or an empty List if none
+     * are recorded yet.
+     */
+    @Query("""
+            select new au.com.library.book.dto.EditionDTO(e.id, e.isbn, e.publisher, e.publicationYear, e.edition, e.format, e.book.id)
+            from Edition e
+            where e.book.id in :bookIds
+            order by e.id""")
+    List<EditionDTO> findByBookIdIn(@Param("bookIds") Collection<Long> bookIds);
+
+    /**
+     * Retrieves the details of the editions with any of the specified normalised ISBNs, selected directly into DTOs
+     * with a single query on the unique ISBN key index. The DTOs' copies and availability are left to the caller.
+     * @param isbnKeys The ISBNs, normalised by {@link au.com.library.shared.util.IsbnNormaliser}.
+     * @return A {@link List} of the {@link EditionDTO edition DTOs} found, in order of their ids.
+     */
+    @Query("""
+            select new au.com.library.book.dto.EditionDTO(e.id, e.isbn, e.publisher, e.publicationYear, e.edition, e.format, e.book.id)
+            from Edition e
+            where e.isbnKey in :isbnKeys
+            order by e.id""")
+    List<EditionDTO> findByIsbnKeyIn(@Param("isbnKeys") Collection<String> isbnKeys);
+
+    /**
+     * Retrieves the id of the edition with the specified normalised ISBN, without loading the edition.
+     * @param isbnKey The ISBN, normalised by {@link au.com.library.shared.util.IsbnNormaliser}.
+     * @return An {@link Optional} containing the id of the edition, or an empty Optional if it could not be found.
+     */
+    @Query("select e.id from Edition e where e.isbnKey = :isbnKey")
+    Optional<Long> findIdByIsbnKey(@Param("isbnKey") String isbnKey);
+
+    /**
+     * Retrieves the editions with any of the specified normalised ISBNs, together with their books, in a single query.
+     * @param isbnKeys The ISBNs, normalised by {@link au.com.library.shared.util.IsbnNormaliser}.
+     * @return A {@link List} of the {@link Edition editions} found.
+     */
+    @Query("select e from Edition e join fetch e.book where e.isbnKey in :isbnKeys")
+    List<Edition> findWithBookByIsbnKeyIn(@Param("isbnKeys") Collection<String> isbnKeys);
 }
@@ -0,0 +1,48 @@
+package au.com.library.book.reservation;
+
+import au.com.library.book.service.EditionCopyService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Makes {@link au.com.library.book.entity.EditionCopyStatus#RESERVED reserved} copies available again once their
+ * hold has expired without being confirmed by a loan event or released, e.g. because the loan service failed
+ * while creating the loan. Runs every <code>copies.reservation.reaper-delay-ms</code>.
+ * <p>
+ * The number of holds released is published as the <code>copies.reservation.expired</code> counter.
+ */
+@Component
+public class ReservationReaper {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReservationReaper.class);
+
+    private final EditionCopyService service;
+    private final Counter expired;
+
+    public ReservationReaper(EditionCopyService service, MeterRegistry meterRegistry) {
+        this.service = service;
+        this.expired = Counter.builder("copies.reservation.expired").
+                description("The number of copy holds released after expiring").
+                register(meterRegistry);
+    }
+
+    /**
+     * Releases the expired holds.
+     */
+    @Scheduled(fixedDelayString = "${copies.reservation.reaper-delay-ms}")
+    public void reap() {
+        try {
+            int released = service.releaseExpiredReservations();
+            if (released > 0) {
+                expired.increment(released);
+                LOGGER.info("Released {} expired copy holds", released);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to release expired copy holds: {}", e.getMessage(), e);
+        }
+    }
+}
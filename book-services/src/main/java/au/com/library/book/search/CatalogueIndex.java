@@ -0,0 +1,337 @@
+package au.com.library.book.search;
+
+import au.com.library.book.dto.BookSearchHitDTO;
+import au.com.library.book.dto.BookSearchResultDTO;
+import au.com.library.book.dto.EditionDTO;
+import au.com.library.book.dto.FacetCountDTO;
+import au.com.library.book.entity.BookFormat;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.*;
+import org.apache.lucene.facet.FacetResult;
+import org.apache.lucene.facet.Facets;
+import org.apache.lucene.facet.FacetsCollector;
+import org.apache.lucene.facet.FacetsCollectorManager;
+import org.apache.lucene.facet.FacetsConfig;
+import org.apache.lucene.facet.LabelAndValue;
+import org.apache.lucene.facet.sortedset.DefaultSortedSetDocValuesReaderState;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetCounts;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesFacetField;
+import org.apache.lucene.facet.sortedset.SortedSetDocValuesReaderState;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * An inverted index of the catalogue, kept on local disk with Lucene, which answers catalogue searches without
+ * reading the database.
+ * <p>
+ * Each {@link IndexedBook book} is indexed as a single document holding its title and author, and the ISBN,
+ * publisher, format and year of publication of each of its editions, so that a search matches the book through any
+ * of its editions. The title, author and publisher are matched by term, by prefix for the last term searched, and
+ * fuzzily for longer terms; ISBNs are matched by prefix, ignoring hyphens and spaces. Matching books are counted by
+ * format and year of publication.
+ * <p>
+ * Changes become visible to searches when the index is {@link #refresh() refreshed}, and durable when it is
+ * {@link #commit() committed}; until then a restart searches the last committed index.
+ * <p>
+ * Each document is stamped with the index's current generation when it is indexed. A rebuild starts a
+ * {@link #nextGeneration() new generation}, re-indexes every book in place, and then
+ * {@link #deleteGenerationsBefore(long) deletes} the documents it did not reach, so the index stays searchable,
+ * and can be updated, refreshed and committed, throughout the rebuild and after a failed one.
+ */
+@Component
+public class CatalogueIndex implements AutoCloseable {
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_AUTHOR = "author";
+    private static final String FIELD_PUBLISHER = "publisher";
+    private static final String FIELD_ISBN = "isbn";
+    private static final String FIELD_FORMAT = "format";
+    private static final String FIELD_YEAR = "year";
+    private static final String FIELD_GENERATION = "generation";
+
+    // Text fields searched, and the boost of a match on each
+    private static final Map<String, Float> TEXT_FIELDS = Map.of(FIELD_TITLE, 3f, FIELD_AUTHOR, 2f, FIELD_PUBLISHER, 1f);
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MIN_TWO_EDITS_LENGTH = 8;
+    private static final int MIN_ISBN_PREFIX_LENGTH = 4;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final FacetsConfig facetsConfig = new FacetsConfig();
+    private final FSDirectory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final int facetSize;
+
+    // The facet ordinals of the current reader, rebuilt when the index is refreshed
+    private volatile FacetState facetState;
+
+    // Stamped on each document indexed
+    private volatile long generation;
+
+    private record FacetState(IndexReader reader, SortedSetDocValuesReaderState state) {
+    }
+
+    public CatalogueIndex(@Value("${catalogue.search.index-dir}") String indexDir,
+                          @Value("${catalogue.search.facet-size}") int facetSize) throws IOException {
+        this.facetSize = facetSize;
+        facetsConfig.setMultiValued(FIELD_FORMAT, true);
+        facetsConfig.setMultiValued(FIELD_YEAR, true);
+        directory = FSDirectory.open(Path.of(indexDir));
+        // Changes are only committed when asked to
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer).
+                setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND).
+                setCommitOnClose(false));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * Adds or replaces the documents of the specified books.
+     *
+     * @param books The books to index.
+     */
+    public void update(Collection<IndexedBook> books) {
+        try {
+            for (IndexedBook book : books) {
+                writer.updateDocument(new Term(FIELD_ID, String.valueOf(book.id())), toDocument(book));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Starts a new generation, with which the documents indexed from now on are stamped. The generation is taken
+     * from the clock, so that it is later than those stamped before a restart.
+     *
+     * @return The new generation.
+     */
+    public synchronized long nextGeneration() {
+        generation = Math.max(System.currentTimeMillis(), generation + 1);
+        return generation;
+    }
+
+    /**
+     * Removes the documents indexed before the specified generation, e.g. of books no longer in the database once
+     * every book has been re-indexed. Searches are unaffected until the index is next {@link #refresh() refreshed}.
+     *
+     * @param generation The generation before which documents are removed.
+     */
+    public void deleteGenerationsBefore(long generation) {
+        try {
+            writer.deleteDocuments(LongPoint.newRangeQuery(FIELD_GENERATION, Long.MIN_VALUE, generation - 1));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Makes the changes made since the last refresh visible to searches.
+     */
+    public void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Makes the changes made since the last commit durable.
+     */
+    public void commit() {
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Searches the catalogue.
+     *
+     * @param text     The text to search for.
+     * @param format   The format an edition of each book must have, or null for any.
+     * @param yearFrom The earliest year an edition of each book may have been published in, or null for any.
+     * @param yearTo   The latest year an edition of each book may have been published in, or null for any.
+     * @param limit    The maximum number of books to return.
+     * @return A {@link BookSearchResultDTO} containing the best matching books and the counts of all those matching.
+     */
+    public BookSearchResultDTO search(String text, BookFormat format, Integer yearFrom, Integer yearTo, int limit) {
+        Query query = toQuery(text, format, yearFrom, yearTo);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                Object[] collected = searcher.search(query, new MultiCollectorManager(
+                        new TopScoreDocCollectorManager(limit, Integer.MAX_VALUE), new FacetsCollectorManager()));
+                TopDocs topDocs = (TopDocs) collected[0];
+                FacetsCollector facetsCollector = (FacetsCollector) collected[1];
+
+                BookSearchResultDTO result = new BookSearchResultDTO();
+                result.setTotal(topDocs.totalHits.value());
+                StoredFields storedFields = searcher.storedFields();
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    Document document = storedFields.document(scoreDoc.doc);
+                    result.getHits().add(new BookSearchHitDTO(Long.valueOf(document.get(FIELD_ID)),
+                            document.get(FIELD_TITLE), document.get(FIELD_AUTHOR), scoreDoc.score));
+                }
+                if (result.getTotal() > 0 && hasFacets(searcher.getIndexReader())) {
+                    Facets facets = new SortedSetDocValuesFacetCounts(facetState(searcher.getIndexReader()), facetsCollector);
+                    result.setFormats(facetCounts(facets, FIELD_FORMAT));
+                    result.setYears(facetCounts(facets, FIELD_YEAR));
+                }
+                return result;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private Document toDocument(IndexedBook book) throws IOException {
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, String.valueOf(book.id()), Field.Store.YES));
+        document.add(new LongPoint(FIELD_GENERATION, generation));
+        document.add(new TextField(FIELD_TITLE, book.title(), Field.Store.YES));
+        document.add(new TextField(FIELD_AUTHOR, book.author(), Field.Store.YES));
+        Set<String> formats = new HashSet<>();
+        Set<Integer> years = new HashSet<>();
+        for (EditionDTO edition : book.editions()) {
+            document.add(new StringField(FIELD_ISBN, normaliseIsbn(edition.getIsbn()), Field.Store.NO));
+            document.add(new TextField(FIELD_PUBLISHER, edition.getPublisher(), Field.Store.NO));
+            if (edition.getFormat() != null && formats.add(edition.getFormat().name())) {
+                document.add(new StringField(FIELD_FORMAT, edition.getFormat().name(), Field.Store.NO));
+                document.add(new SortedSetDocValuesFacetField(FIELD_FORMAT, edition.getFormat().name()));
+            }
+            if (edition.getPublicationYear() != null && years.add(edition.getPublicationYear())) {
+                document.add(new IntPoint(FIELD_YEAR, edition.getPublicationYear()));
+                document.add(new SortedSetDocValuesFacetField(FIELD_YEAR, String.valueOf(edition.getPublicationYear())));
+            }
+        }
+        return facetsConfig.build(document);
+    }
+
+    private Query toQuery(String text, BookFormat format, Integer yearFrom, Integer yearTo) {
+        BooleanQuery.Builder matches = new BooleanQuery.Builder();
+        List<String> terms = analyse(text);
+        if (!terms.isEmpty()) {
+            BooleanQuery.Builder allTerms = new BooleanQuery.Builder();
+            for (int i = 0; i < terms.size(); i++) {
+                allTerms.add(termQuery(terms.get(i), i == terms.size() - 1), BooleanClause.Occur.MUST);
+            }
+            matches.add(allTerms.build(), BooleanClause.Occur.SHOULD);
+        }
+        String isbn = normaliseIsbn(text);
+        if (isbn.length() >= MIN_ISBN_PREFIX_LENGTH) {
+            matches.add(new BoostQuery(new PrefixQuery(new Term(FIELD_ISBN, isbn)), 10f), BooleanClause.Occur.SHOULD);
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder().add(matches.build(), BooleanClause.Occur.MUST);
+        if (format != null) {
+            query.add(new TermQuery(new Term(FIELD_FORMAT, format.name())), BooleanClause.Occur.FILTER);
+        }
+        if (yearFrom != null || yearTo != null) {
+            query.add(IntPoint.newRangeQuery(FIELD_YEAR,
+                    yearFrom == null ? Integer.MIN_VALUE : yearFrom,
+                    yearTo == null ? Integer.MAX_VALUE : yearTo), BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+
+    /**
+     * Matches a single term in any of the text fields: exactly, by prefix if it is the last term - as it may not
+     * have been typed in full - and fuzzily if it is long enough for a misspelling to be told from another word.
+     */
+    private Query termQuery(String term, boolean last) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        TEXT_FIELDS.forEach((field, boost) -> {
+            Term fieldTerm = new Term(field, term);
+            builder.add(new BoostQuery(new TermQuery(fieldTerm), boost * 2), BooleanClause.Occur.SHOULD);
+            if (last) {
+                builder.add(new BoostQuery(new PrefixQuery(fieldTerm), boost), BooleanClause.Occur.SHOULD);
+            }
+            if (term.length() >= MIN_FUZZY_LENGTH) {
+                // The first character must match, which keeps the number of terms to visit small
+                int maxEdits = term.length() >= MIN_TWO_EDITS_LENGTH ? 2 : 1;
+                builder.add(new BoostQuery(new FuzzyQuery(fieldTerm, maxEdits, 1), boost / 2), BooleanClause.Occur.SHOULD);
+            }
+        });
+        return builder.build();
+    }
+
+    private List<String> analyse(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream(FIELD_TITLE, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private List<FacetCountDTO> facetCounts(Facets facets, String dimension) throws IOException {
+        FacetResult facetResult = facets.getTopChildren(facetSize, dimension);
+        if (facetResult == null) {
+            return new ArrayList<>();
+        }
+        List<FacetCountDTO> counts = new ArrayList<>();
+        for (LabelAndValue labelAndValue : facetResult.labelValues) {
+            counts.add(new FacetCountDTO(labelAndValue.label, labelAndValue.value.longValue()));
+        }
+        return counts;
+    }
+
+    /**
+     * Tells whether any book in the reader has an edition, and so a facet value; the facet ordinals cannot be built
+     * otherwise.
+     */
+    private boolean hasFacets(IndexReader reader) {
+        return reader.leaves().stream().anyMatch(leaf ->
+                leaf.reader().getFieldInfos().fieldInfo(FacetsConfig.DEFAULT_INDEX_FIELD_NAME) != null);
+    }
+
+    /**
+     * Returns the facet ordinals of the reader, building them only when the reader has changed since the last
+     * search, as doing so reads every facet value in the index.
+     */
+    private SortedSetDocValuesReaderState facetState(IndexReader reader) throws IOException {
+        FacetState current = facetState;
+        if (current == null || current.reader() != reader) {
+            current = new FacetState(reader, new DefaultSortedSetDocValuesReaderState(reader, facetsConfig));
+            facetState = current;
+        }
+        return current.state();
+    }
+
+    private static String normaliseIsbn(String isbn) {
+        return isbn == null ? "" : isbn.replaceAll("[^0-9Xx]", "").toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,12 @@
+package au.com.library.book.search;
+
+import java.util.Collection;
+
+/**
+ * Raised when books, or their editions, are added or changed, so that their documents in the {@link CatalogueIndex}
+ * are brought up to date once the change has been committed.
+ *
+ * @param bookIds The ids of the books added or changed.
+ */
+public record CatalogueIndexEvent(Collection<Long> bookIds) {
+}
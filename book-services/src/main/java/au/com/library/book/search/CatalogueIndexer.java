@@ -0,0 +1,191 @@
+package au.com.library.book.search;
+
+import au.com.library.book.dto.EditionDTO;
+import au.com.library.book.entity.Book;
+import au.com.library.book.repository.BookRespository;
+import au.com.library.book.repository.EditionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the {@link CatalogueIndex} up to date with the books and editions in the database.
+ * <p>
+ * The index is rebuilt from the database in the background once the application has started, reading the books a
+ * page at a time and re-indexing each in place, so searches continue to be answered throughout. A rebuild that
+ * fails is retried, up to <code>catalogue.search.rebuild-max-attempts</code> attempts in all, after a delay starting
+ * at <code>catalogue.search.rebuild-retry-ms</code> and doubling with each attempt. Meanwhile, and after, the books
+ * named by each {@link CatalogueIndexEvent} are re-read and re-indexed once their change has been committed.
+ * Each book is read and indexed while holding a lock, so that the document indexed last for a book is always the
+ * one read last, whether by the rebuild or by an update.
+ * <p>
+ * Changes are made visible to searches every <code>catalogue.search.refresh-ms</code>, and durable every
+ * <code>catalogue.search.commit-ms</code> and on shutdown.
+ */
+@Component
+public class CatalogueIndexer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogueIndexer.class);
+
+    private final CatalogueIndex index;
+    private final BookRespository bookRespository;
+    private final EditionRepository editionRepository;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Value("${catalogue.search.rebuild-on-startup}")
+    private boolean rebuildOnStartup;
+
+    @Value("${catalogue.search.rebuild-page-size}")
+    private int rebuildPageSize;
+
+    @Value("${catalogue.search.rebuild-max-attempts}")
+    private int rebuildMaxAttempts;
+
+    @Value("${catalogue.search.rebuild-retry-ms}")
+    private long rebuildRetryMs;
+
+    public CatalogueIndexer(CatalogueIndex index, BookRespository bookRespository, EditionRepository editionRepository) {
+        this.index = index;
+        this.bookRespository = bookRespository;
+        this.editionRepository = editionRepository;
+    }
+
+    /**
+     * Starts rebuilding the index in the background, if configured to.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            Thread.ofPlatform().name("catalogue-index-rebuild").daemon().start(this::rebuildWithRetry);
+        }
+    }
+
+    /**
+     * Re-indexes the books named by the event, once the change that raised it has been committed.
+     *
+     * @param event The event naming the books added or changed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogueChange(CatalogueIndexEvent event) {
+        try {
+            lock.lock();
+            try {
+                index.update(read(bookRespository.findAllById(event.bookIds())));
+            } finally {
+                lock.unlock();
+            }
+        } catch (RuntimeException e) {
+            // The change has been committed, so it is not undone; the book is indexed again when next changed or rebuilt
+            LOGGER.error("Failed to index the books with ids {}: {}", event.bookIds(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Makes the changes to the index visible to searches.
+     */
+    @Scheduled(fixedDelayString = "${catalogue.search.refresh-ms}")
+    public void refresh() {
+        index.refresh();
+    }
+
+    /**
+     * Makes the changes to the index durable.
+     */
+    @Scheduled(fixedDelayString = "${catalogue.search.commit-ms}")
+    public void commit() {
+        index.commit();
+    }
+
+    private void rebuildWithRetry() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                rebuild();
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= rebuildMaxAttempts) {
+                    // Books not re-indexed keep their previous documents, and are indexed again when next changed
+                    LOGGER.error("Gave up rebuilding the catalogue index after {} attempts: {}", attempt, e.getMessage(), e);
+                    return;
+                }
+                long delay = rebuildRetryMs << Math.min(attempt - 1, 16);
+                LOGGER.warn("Failed to rebuild the catalogue index, retrying in {} ms: {}", delay, e.getMessage(), e);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        long generation;
+        lock.lock();
+        try {
+            generation = index.nextGeneration();
+        } finally {
+            lock.unlock();
+        }
+        long books = 0;
+        long afterId = 0;
+        List<Book> page;
+        do {
+            lock.lock();
+            try {
+                page = bookRespository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(rebuildPageSize));
+                index.update(read(page));
+            } finally {
+                lock.unlock();
+            }
+            if (!page.isEmpty()) {
+                afterId = page.getLast().getId();
+                books += page.size();
+            }
+        } while (page.size() == rebuildPageSize);
+        // Every book has now been indexed in this generation, so the documents left from before are of books that
+        // no longer exist
+        index.deleteGenerationsBefore(generation);
+        index.commit();
+        index.refresh();
+        LOGGER.info("Rebuilt the catalogue index of {} books in {} ms", books, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Makes the changes to the index durable before it is closed.
+     */
+    @PreDestroy
+    public void close() {
+        index.commit();
+    }
+
+    /**
+     * Reads the editions of the books with a single query, and combines them with the books.
+     */
+    private List<IndexedBook> read(Collection<Book> books) {
+        if (books.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<EditionDTO>> editions = editionRepository.findByBookIdIn(books.stream().map(Book::getId).toList()).
+                stream().
+                collect(Collectors.groupingBy(EditionDTO::getBookId));
+        return books.stream().
+                map(book -> new IndexedBook(book.getId(), book.getTitle(), book.getAuthor(), editions.getOrDefault(book.getId(), List.of()))).
+                toList();
+    }
+}
@@ -0,0 +1,16 @@
+package au.com.library.book.search;
+
+import au.com.library.book.dto.EditionDTO;
+
+import java.util.List;
+
+/**
+ * The details of a book, and of its editions, held by the {@link CatalogueIndex}.
+ *
+ * @param id       The id of the book.
+ * @param title    The title of the book.
+ * @param author   The author of the book.
+ * @param editions The editions of the book.
+ */
+public record IndexedBook(Long id, String title, String author, List<EditionDTO> editions) {
+}
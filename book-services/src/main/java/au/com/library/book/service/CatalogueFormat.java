@@ -0,0 +1,21 @@
+package au.com.library.book.service;
+
+/**
+ * The formats in which a catalogue may be imported.
+ *
+ * @see CatalogueImportService
+ */
+public enum CatalogueFormat {
+
+    /**
+     * One JSON {@link au.com.library.book.dto.CatalogueBookDTO book record} per line.
+     */
+    NDJSON,
+
+    /**
+     * One edition per line, with a header line naming the columns title, author, isbn, publisher,
+     * publicationYear, edition, format and copies. Consecutive lines with the same title and author
+     * are editions of the same book.
+     */
+    CSV
+}
@@ -0,0 +1,28 @@
+package au.com.library.book.service;
+
+import au.com.library.book.dto.CatalogueImportSummaryDTO;
+import au.com.library.shared.exception.BadRequestException;
+
+import java.io.InputStream;
+
+/**
+ * A service level interface handling the bulk import of a catalogue of {@link au.com.library.book.entity.Book books},
+ * their {@link au.com.library.book.entity.Edition editions} and {@link au.com.library.book.entity.EditionCopy copies}.
+ */
+public interface CatalogueImportService {
+
+    /**
+     * Imports a catalogue, reading it incrementally from the specified stream. Editions are upserted by ISBN and
+     * copies added until each edition has the number of copies in its record. The records are imported in chunks,
+     * each in its own transaction, so the records imported before a failure remain imported.
+     * <p>
+     * Records that are malformed, invalid or fail to import are rejected and reported in the summary, without
+     * stopping the import.
+     *
+     * @param catalogue The catalogue to import.
+     * @param format The format of the catalogue.
+     * @return A {@link CatalogueImportSummaryDTO} summarising the import.
+     * @throws BadRequestException Thrown when the catalogue could not be read, or a CSV catalogue's header is invalid.
+     */
+    CatalogueImportSummaryDTO importCatalogue(InputStream catalogue, CatalogueFormat format) throws BadRequestException;
+}
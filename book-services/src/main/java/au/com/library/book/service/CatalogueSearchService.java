@@ -0,0 +1,28 @@
+package au.com.library.book.service;
+
+import au.com.library.book.dto.BookSearchResultDTO;
+import au.com.library.book.entity.BookFormat;
+import au.com.library.shared.exception.BadRequestException;
+
+/**
+ * A service level interface handling full-text searches of the catalogue of {@link au.com.library.book.entity.Book books}
+ * and their {@link au.com.library.book.entity.Edition editions}.
+ */
+public interface CatalogueSearchService {
+
+    /**
+     * Searches the catalogue for books whose title, author, or edition publisher or ISBN match the specified text,
+     * answered from the search index rather than the database. Recent changes to the catalogue may take a moment
+     * to be found.
+     *
+     * @param text The text to search for.
+     * @param format The format an edition of each book must have, or null for any.
+     * @param yearFrom The earliest year an edition of each book may have been published in, or null for any.
+     * @param yearTo The latest year an edition of each book may have been published in, or null for any.
+     * @param limit The maximum number of books to return.
+     * @return A {@link BookSearchResultDTO} containing the best matching books, and the number of all those matching
+     * by format and year of publication.
+     * @throws BadRequestException Thrown when the text is blank, the years are out of order or the limit is out of range.
+     */
+    BookSearchResultDTO search(String text, BookFormat format, Integer yearFrom, Integer yearTo, int limit) throws BadRequestException;
+}
@@ -1,6 +1,12 @@
 package au.com.library.book.service;
 
+import au.com.library.book.dto.EditionCopyBatchDTO;
 import au.com.library.book.dto.EditionCopyDTO;
+import au.com.library.book.dto.EditionCopyDetailsDTO;
+import au.com.library.book.dto.EditionCopyReservationDTO;
+import au.com.library.contracts.event.loan.LoanEvent;
+import au.com.library.shared.exception.BadRequestException;
+import au.com.library.shared.exception.ConflictException;
 import au.com.library.shared.exception.ResourceNotFoundException;
 
 import java.util.List;
@@ -22,6 +28,65 @@ public interface EditionCopyService {
      */
     EditionCopyDTO addCopy(Long editionId) throws ResourceNotFoundException;
 
+    /**
+     * Handles the creation of a number of {@link au.com.library.book.entity.EditionCopy copies} of an
+     * {@link au.com.library.book.entity.Edition edition} at once, such as when a shipment is received.
+     *
+     * @param editionId The id of the edition to which the copies will be linked.
+     * @param count The number of copies to create.
+     * @return A {@link List} of {@link EditionCopyDTO} objects containing the new copy details.
+     * @throws ResourceNotFoundException Thrown when the edition could not be found.
+     * @throws BadRequestException Thrown when the count is not between one and the maximum batch size.
+     */
+    List<EditionCopyDTO> addCopies(Long editionId, int count) throws ResourceNotFoundException, BadRequestException;
+
+    /**
+     * Handles the creation of copies of several {@link au.com.library.book.entity.Edition editions} at once,
+     * within a single transaction.
+     *
+     * @param batches The editions and the number of copies to create for each.
+     * @return A {@link List} of {@link EditionCopyDTO} objects containing the new copy details, in the order requested.
+     * @throws ResourceNotFoundException Thrown when any of the editions could not be found.
+     * @throws BadRequestException Thrown when a count is less than one or the total exceeds the maximum batch size.
+     */
+    List<EditionCopyDTO> addCopies(List<EditionCopyBatchDTO> batches) throws ResourceNotFoundException, BadRequestException;
+
+    /**
+     * Reserves an {@link au.com.library.book.entity.EditionCopyStatus#AVAILABLE available} edition copy for a loan
+     * being created, with a single conditional update so that only one of any concurrent requests for the copy can
+     * succeed. The hold is confirmed when the loan's created event is applied, and lapses unless it is confirmed or
+     * released before it expires.
+     * @param copyId The id of the edition copy to reserve.
+     * @return A {@link EditionCopyReservationDTO} object containing the hold and the copy details.
+     * @throws ResourceNotFoundException Thrown when the edition copy could not be found.
+     * @throws ConflictException Thrown when the edition copy is not available.
+     */
+    EditionCopyReservationDTO reserveCopy(Long copyId) throws ResourceNotFoundException, ConflictException;
+
+    /**
+     * Reserves an {@link au.com.library.book.entity.EditionCopyStatus#AVAILABLE available} edition copy, identified
+     * by its barcode, for a loan being created, as {@link #reserveCopy(Long)} does.
+     * @param barcode The barcode of the edition copy to reserve.
+     * @return A {@link EditionCopyReservationDTO} object containing the hold and the copy details.
+     * @throws ResourceNotFoundException Thrown when the edition copy could not be found.
+     * @throws ConflictException Thrown when the edition copy is not available.
+     */
+    EditionCopyReservationDTO reserveCopyByBarcode(String barcode) throws ResourceNotFoundException, ConflictException;
+
+    /**
+     * Releases a hold on an edition copy, e.g. because the loan it was made for could not be created, making the
+     * copy available again. Releasing a hold that has already been confirmed, released or has lapsed does nothing.
+     * @param copyId The id of the reserved edition copy.
+     * @param token The token identifying the hold.
+     */
+    void releaseCopy(Long copyId, String token);
+
+    /**
+     * Releases the holds that have expired without being confirmed or released.
+     * @return The number of holds released.
+     */
+    int releaseExpiredReservations();
+
     /**
      * Marks an edition copy as being {@link au.com.library.book.entity.EditionCopyStatus#LOANED on loan}.
      * @param copyId The id of the edition copy being borrowed.
@@ -45,6 +110,17 @@ public interface EditionCopyService {
      */
     void markCopyLost(Long copyId) throws ResourceNotFoundException;
 
+    /**
+     * Applies a batch of {@link LoanEvent loan events} to the status of the affected edition copies, in the order
+     * the events were received, within a single transaction. Events that have already been applied to a copy, or
+     * that are older than the latest event applied to it, are skipped. Processing stops at the first event whose
+     * edition copy could not be found; the events before it are still applied.
+     * @param events The loan events to apply.
+     * @return The number of events applied, which is less than the number of events only if an edition copy
+     * could not be found.
+     */
+    int applyLoanEvents(List<LoanEvent> events);
+
     /**
      * Handles the retrieval of a single set of edition copy details.
      * @param copyId The id of the edition copy.
@@ -53,6 +129,23 @@ public interface EditionCopyService {
      */
     EditionCopyDTO findCopy(Long copyId) throws ResourceNotFoundException;
 
+    /**
+     * Handles the retrieval of a single set of edition copy details by the copy's barcode, e.g. when it is scanned.
+     * @param barcode The barcode of the edition copy.
+     * @return An {@link EditionCopyDTO} object containing the edition copy details.
+     * @throws ResourceNotFoundException Thrown when the edition copy could not be found.
+     */
+    EditionCopyDTO findCopyByBarcode(String barcode) throws ResourceNotFoundException;
+
+    /**
+     * Handles the retrieval of a single set of edition copy details, combined with the details of
+     * its {@link au.com.library.book.entity.Edition edition} and {@link au.com.library.book.entity.Book book}.
+     * @param copyId The id of the edition copy.
+     * @return An {@link EditionCopyDetailsDTO} object containing the combined details.
+     * @throws ResourceNotFoundException Thrown when the edition copy could not be found.
+     */
+    EditionCopyDetailsDTO findCopyDetails(Long copyId) throws ResourceNotFoundException;
+
     /**
      * Handles the retrieval of all {@link au.com.library.book.entity.EditionCopy copies} of an {@link au.com.library.book.entity.Edition edition}.
      * @param editionId The edition id.
@@ -61,4 +154,14 @@ public interface EditionCopyService {
      */
     List<EditionCopyDTO> findCopies(Long editionId) throws ResourceNotFoundException;
 
+    /**
+     * Handles the retrieval of the first {@link au.com.library.book.entity.EditionCopyStatus#AVAILABLE available}
+     * {@link au.com.library.book.entity.EditionCopy copy} of an {@link au.com.library.book.entity.Edition edition},
+     * without reading its other copies.
+     * @param editionId The edition id.
+     * @return An {@link EditionCopyDTO} object containing the details of the copy.
+     * @throws ResourceNotFoundException Thrown when the edition could not be found or has no available copy.
+     */
+    EditionCopyDTO findFirstAvailableCopy(Long editionId) throws ResourceNotFoundException;
+
 }
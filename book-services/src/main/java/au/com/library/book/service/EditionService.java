@@ -1,9 +1,14 @@
 package au.com.library.book.service;
 
+import au.com.library.book.dto.EditionAvailabilityDTO;
 import au.com.library.book.dto.EditionDTO;
+import au.com.library.shared.exception.BadRequestException;
+import au.com.library.shared.exception.ConflictException;
 import au.com.library.shared.exception.ResourceNotFoundException;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * The service level interface handling addition, update and retrieval of {@link au.com.library.book.entity.Edition edition} details.
@@ -15,8 +20,9 @@ public interface EditionService {
      * @param editionDTO The edition details.
      * @return An {@link EditionDTO} object containing the details of the creation edition.
      * @throws ResourceNotFoundException Thrown when the associated book could not be found.
+     * @throws ConflictException Thrown when another edition is recorded with the same ISBN, however it was written.
      */
-    EditionDTO addEdition(Long bookId, EditionDTO editionDTO) throws ResourceNotFoundException;
+    EditionDTO addEdition(Long bookId, EditionDTO editionDTO) throws ResourceNotFoundException, ConflictException;
 
     Collection<EditionDTO> findEditions(Long bookId) throws ResourceNotFoundException;
 
@@ -28,12 +34,42 @@ public interface EditionService {
      */
     EditionDTO findEdition(Long id) throws ResourceNotFoundException;
 
+    /**
+     * Handles the retrieval of book edition details by ISBN. The ISBN may be written with or without hyphens, and an
+     * ISBN-10 finds the edition recorded with the equivalent ISBN-13, and vice versa.
+     * @param isbn The ISBN of the edition.
+     * @return An {@link EditionDTO} object containing the {@link au.com.library.book.entity.Edition edition} details.
+     * @throws BadRequestException Thrown when the ISBN contains no digits.
+     * @throws ResourceNotFoundException Thrown when the edition could not be found.
+     */
+    EditionDTO findEditionByIsbn(String isbn) throws BadRequestException, ResourceNotFoundException;
+
+    /**
+     * Handles the retrieval of the details of the editions with several ISBNs, with their availability but without
+     * their copies, with a single query for the editions however many ISBNs are requested.
+     * @param isbns The ISBNs of the editions, written in any of the forms accepted by {@link #findEditionByIsbn(String)}.
+     * @return A {@link Map} of {@link EditionDTO} objects by the ISBN requested, as written, in the order requested,
+     * containing only the ISBNs whose edition was found.
+     * @throws BadRequestException Thrown when more ISBNs are requested than can be looked up at once, or an ISBN contains no digits.
+     */
+    Map<String, EditionDTO> findEditionsByIsbn(List<String> isbns) throws BadRequestException;
+
+    /**
+     * Handles the retrieval of the number of copies of each of several {@link au.com.library.book.entity.Edition editions}
+     * with each status, with a single query and without reading the copies.
+     * @param editionIds The ids of the editions.
+     * @return A {@link List} of {@link EditionAvailabilityDTO} objects, one for each of the editions found.
+     * @throws BadRequestException Thrown when more editions are requested than can be retrieved at once.
+     */
+    List<EditionAvailabilityDTO> findAvailability(Collection<Long> editionIds) throws BadRequestException;
+
     /**
      * Handles the update/replacement of a set of {@link au.com.library.book.entity.Edition edition} details.
      * @param id The id of the edition to update.
      * @param editionDTO An {@link EditionDTO} object containing the update/replacement details.
      * @return An {@link EditionDTO} object containing the updated details.
      * @throws ResourceNotFoundException Thrown when the edition to update could not be found.
+     * @throws ConflictException Thrown when another edition is recorded with the same ISBN, however it was written.
      */
-    EditionDTO updateEdtion(Long id, EditionDTO editionDTO) throws ResourceNotFoundException;
+    EditionDTO updateEdtion(Long id, EditionDTO editionDTO) throws ResourceNotFoundException, ConflictException;
 }
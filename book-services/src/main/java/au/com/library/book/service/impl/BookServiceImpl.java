@@ -4,19 +4,24 @@ import au.com.library.book.dto.BookDTO;
 import au.com.library.book.dto.EditionDTO;
 import au.com.library.book.entity.Book;
 import au.com.library.book.entity.Edition;
+import au.com.library.book.mapper.BookMapper;
 import au.com.library.book.repository.BookRespository;
 import au.com.library.book.repository.EditionRepository;
+import au.com.library.book.search.CatalogueIndexEvent;
 import au.com.library.book.service.BookService;
+import au.com.library.contracts.event.change.ChangeEvent;
 import au.com.library.shared.exception.BadRequestException;
 import au.com.library.shared.exception.ResourceNotFoundException;
-import au.com.library.shared.util.Mapper;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.List;
 
+import static au.com.library.contracts.event.change.ChangeEventType.BOOK_UPDATED;
+
 /**
  * The {@link BookService} implementation.
  *
@@ -27,12 +32,14 @@ import java.util.List;
 public class BookServiceImpl implements BookService {
 
     private BookRespository bookRespository;
+    private ApplicationEventPublisher eventPublisher;
 
     @Override
     public BookDTO addBook(BookDTO bookDTO) {
         try {
-            Book book = bookRespository.save(Mapper.map(bookDTO, Book.class));
-            return Mapper.map(book, BookDTO.class);
+            Book book = bookRespository.save(BookMapper.INSTANCE.toEntity(bookDTO));
+            eventPublisher.publishEvent(new CatalogueIndexEvent(List.of(book.getId())));
+            return BookMapper.INSTANCE.toDTO(book);
         } catch (Exception e) {
             throw new BadRequestException(e.getMessage());
         }
@@ -45,7 +52,9 @@ public class BookServiceImpl implements BookService {
         book.setAuthor(bookDTO.getAuthor());
         try {
             Book saved = bookRespository.save(book);
-            return Mapper.map(saved, BookDTO.class);
+            eventPublisher.publishEvent(new ChangeEvent(BOOK_UPDATED, saved.getId()));
+            eventPublisher.publishEvent(new CatalogueIndexEvent(List.of(saved.getId())));
+            return BookMapper.INSTANCE.toDTO(saved);
         } catch (Exception e) {
             throw new BadRequestException(e.getMessage());
         }
@@ -54,7 +63,7 @@ public class BookServiceImpl implements BookService {
     @Override
     @Transactional(readOnly = true)
     public BookDTO findBook(Long id) throws ResourceNotFoundException {
-        return Mapper.map(findBookById(id), BookDTO.class);
+        return BookMapper.INSTANCE.toDTO(findBookById(id));
     }
 
     private Book findBookById(Long id){
@@ -0,0 +1,304 @@
+package au.com.library.book.service.impl;
+
+import au.com.library.book.barcode.BarcodeIndexEvent;
+import au.com.library.book.dto.CatalogueBookDTO;
+import au.com.library.book.dto.CatalogueEditionDTO;
+import au.com.library.book.dto.CatalogueImportErrorDTO;
+import au.com.library.book.dto.CatalogueImportSummaryDTO;
+import au.com.library.book.entity.Book;
+import au.com.library.book.entity.Edition;
+import au.com.library.book.entity.EditionCopy;
+import au.com.library.book.entity.EditionCopyStatus;
+import au.com.library.book.repository.BookRespository;
+import au.com.library.book.repository.EditionAvailabilityRepository;
+import au.com.library.book.repository.EditionAvailabilityUpdates.CountChange;
+import au.com.library.book.repository.EditionCopyRepository;
+import au.com.library.book.repository.EditionCopyRepository.EditionCopyCount;
+import au.com.library.book.repository.EditionRepository;
+import au.com.library.book.search.CatalogueIndexEvent;
+import au.com.library.book.service.CatalogueFormat;
+import au.com.library.book.service.CatalogueImportService;
+import au.com.library.book.service.impl.CatalogueReader.CatalogueRecord;
+import au.com.library.contracts.event.change.ChangeEvent;
+import au.com.library.shared.exception.BadRequestException;
+import au.com.library.shared.util.BarcodeStrategy;
+import au.com.library.shared.util.IsbnNormaliser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static au.com.library.contracts.event.change.ChangeEventType.AVAILABILITY_UPDATED;
+import static au.com.library.contracts.event.change.ChangeEventType.BOOK_UPDATED;
+import static au.com.library.contracts.event.change.ChangeEventType.EDITION_UPDATED;
+
+/**
+ * The {@link CatalogueImportService} implementation.
+ * <p>
+ * Records are read one at a time and imported in chunks. Each chunk looks up the editions it references by their
+ * normalised ISBN, so that an ISBN-10 matches the edition recorded with the equivalent ISBN-13,
+ * and counts their copies, with one query each, then saves the new books, editions and copies, and the changes to
+ * the editions' availability, as JDBC batches.
+ * If a chunk fails, its records are retried one at a time so that only the failing records are rejected.
+ * The persistence context is cleared after each chunk, so memory use does not grow with the catalogue.
+ */
+@RequiredArgsConstructor
+@Service
+public class CatalogueImportServiceImpl implements CatalogueImportService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogueImportServiceImpl.class);
+
+    private static final int LENGTH_ISBN = 20;
+    private static final int LENGTH_EDITION = 50;
+
+    private final BookRespository bookRespository;
+    private final EditionRepository editionRepository;
+    private final EditionCopyRepository editionCopyRepository;
+    private final EditionAvailabilityRepository availabilityRepository;
+    private final BarcodeStrategy barcodeStrategy;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    @Value("${catalogue.import.chunk-size}")
+    private int chunkSize;
+
+    @Value("${catalogue.import.max-errors}")
+    private int maxErrors;
+
+    @Override
+    public CatalogueImportSummaryDTO importCatalogue(InputStream catalogue, CatalogueFormat format) throws BadRequestException {
+        CatalogueImportSummaryDTO summary = new CatalogueImportSummaryDTO();
+        try (CatalogueReader reader = CatalogueReader.of(format, catalogue, objectMapper)) {
+            List<CatalogueRecord> chunk = new ArrayList<>(chunkSize);
+            CatalogueRecord catalogueRecord;
+            while ((catalogueRecord = reader.next()) != null) {
+                summary.setRecords(summary.getRecords() + 1);
+                String invalid = catalogueRecord.error() != null ? catalogueRecord.error() : validate(catalogueRecord.book());
+                if (invalid != null) {
+                    reject(summary, catalogueRecord, invalid);
+                    continue;
+                }
+                chunk.add(catalogueRecord);
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, summary);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, summary);
+            }
+        } catch (IOException e) {
+            throw new BadRequestException(String.format("The catalogue could not be read after %d records: %s", summary.getRecords(), e.getMessage()));
+        }
+        LOGGER.info("Catalogue import completed: {} records, {} rejected, {} books and {} editions created, {} editions updated, {} copies added",
+                summary.getRecords(), summary.getRejected(), summary.getBooksCreated(), summary.getEditionsCreated(),
+                summary.getEditionsUpdated(), summary.getCopiesAdded());
+        return summary;
+    }
+
+    private void importChunk(List<CatalogueRecord> chunk, CatalogueImportSummaryDTO summary) {
+        try {
+            transactionTemplate.executeWithoutResult(_ -> upsert(chunk, summary));
+        } catch (RuntimeException e) {
+            LOGGER.warn("A catalogue import chunk failed, retrying its {} records individually", chunk.size(), e);
+            entityManager.clear();
+            for (CatalogueRecord catalogueRecord : chunk) {
+                try {
+                    transactionTemplate.executeWithoutResult(_ -> upsert(List.of(catalogueRecord), summary));
+                } catch (RuntimeException recordException) {
+                    reject(summary, catalogueRecord, recordException.getMessage());
+                } finally {
+                    entityManager.clear();
+                }
+            }
+        } finally {
+            entityManager.clear();
+        }
+        LOGGER.info("Catalogue import progress: {} records read, {} rejected", summary.getRecords(), summary.getRejected());
+    }
+
+    /**
+     * Upserts the records of a chunk, adding to the summary's counts only once all of them have been saved.
+     */
+    private void upsert(List<CatalogueRecord> chunk, CatalogueImportSummaryDTO summary) {
+        // Editions and their copy counts are keyed by normalised ISBN, as new editions have no ISBN key until saved
+        Set<String> isbnKeys = chunk.stream().
+                flatMap(catalogueRecord -> catalogueRecord.book().getEditions().stream()).
+                map(editionRecord -> IsbnNormaliser.normalise(editionRecord.getIsbn())).
+                collect(Collectors.toSet());
+        Map<String, Edition> editions = editionRepository.findWithBookByIsbnKeyIn(isbnKeys).stream().
+                collect(Collectors.toMap(Edition::getIsbnKey, edition -> edition));
+        Map<String, Integer> copyCounts = new HashMap<>();
+        if (!editions.isEmpty()) {
+            Map<Long, String> isbnKeysById = editions.values().stream().collect(Collectors.toMap(Edition::getId, Edition::getIsbnKey));
+            for (EditionCopyCount count : editionCopyRepository.countByEditionIds(isbnKeysById.keySet())) {
+                copyCounts.put(isbnKeysById.get(count.getEditionId()), (int) count.getCopies());
+            }
+        }
+
+        List<Book> newBooks = new ArrayList<>();
+        List<Edition> newEditions = new ArrayList<>();
+        Map<Edition, Integer> copiesToAdd = new LinkedHashMap<>();
+        Set<Long> updatedBooks = new HashSet<>();
+        Set<Long> updatedEditions = new HashSet<>();
+        Set<Book> chunkBooks = new HashSet<>();
+        for (CatalogueRecord catalogueRecord : chunk) {
+            CatalogueBookDTO bookRecord = catalogueRecord.book();
+            Book book = bookRecord.getEditions().stream().
+                    map(editionRecord -> editions.get(IsbnNormaliser.normalise(editionRecord.getIsbn()))).
+                    filter(Objects::nonNull).
+                    map(Edition::getBook).
+                    findFirst().
+                    orElse(null);
+            if (book == null) {
+                book = Book.builder().title(bookRecord.getTitle()).author(bookRecord.getAuthor()).editions(new HashSet<>()).build();
+                newBooks.add(book);
+            } else if (updateBook(book, bookRecord) && book.getId() != null) {
+                updatedBooks.add(book.getId());
+            }
+            chunkBooks.add(book);
+            for (CatalogueEditionDTO editionRecord : bookRecord.getEditions()) {
+                String isbnKey = IsbnNormaliser.normalise(editionRecord.getIsbn());
+                Edition edition = editions.get(isbnKey);
+                if (edition == null) {
+                    edition = Edition.builder().isbn(editionRecord.getIsbn()).book(book).copies(new HashSet<>()).build();
+                    updateEdition(edition, editionRecord);
+                    editions.put(isbnKey, edition);
+                    newEditions.add(edition);
+                } else if (updateEdition(edition, editionRecord) && edition.getId() != null) {
+                    updatedEditions.add(edition.getId());
+                }
+                int held = copyCounts.getOrDefault(isbnKey, 0);
+                int wanted = editionRecord.getCopies() == null ? 0 : editionRecord.getCopies();
+                if (wanted > held) {
+                    copiesToAdd.merge(edition, wanted - held, Integer::sum);
+                    copyCounts.put(isbnKey, wanted);
+                }
+            }
+        }
+
+        bookRespository.saveAll(newBooks);
+        editionRepository.saveAll(newEditions);
+        availabilityRepository.createAvailability(newEditions.stream().map(Edition::getId).toList());
+        int copies = copiesToAdd.values().stream().mapToInt(Integer::intValue).sum();
+        Iterator<String> barcodes = barcodeStrategy.generate(copies).iterator();
+        List<EditionCopy> newCopies = new ArrayList<>(copies);
+        copiesToAdd.forEach((edition, count) -> {
+            for (int i = 0; i < count; i++) {
+                newCopies.add(EditionCopy.builder().
+                        edition(edition).
+                        status(EditionCopyStatus.AVAILABLE).
+                        barcode(barcodes.next()).
+                        build());
+            }
+        });
+        editionCopyRepository.saveAll(newCopies);
+        availabilityRepository.applyCountChanges(copiesToAdd.entrySet().stream().
+                map(entry -> new CountChange(entry.getKey().getId(), null, EditionCopyStatus.AVAILABLE, entry.getValue())).
+                toList());
+        editionCopyRepository.flush();
+
+        updatedBooks.forEach(id -> eventPublisher.publishEvent(new ChangeEvent(BOOK_UPDATED, id)));
+        updatedEditions.forEach(id -> eventPublisher.publishEvent(new ChangeEvent(EDITION_UPDATED, id)));
+        copiesToAdd.keySet().forEach(edition -> eventPublisher.publishEvent(new ChangeEvent(AVAILABILITY_UPDATED, edition.getId())));
+        eventPublisher.publishEvent(new CatalogueIndexEvent(chunkBooks.stream().map(Book::getId).toList()));
+        eventPublisher.publishEvent(new BarcodeIndexEvent(newCopies.stream().
+                collect(Collectors.toMap(EditionCopy::getBarcode, EditionCopy::getId))));
+        summary.setBooksCreated(summary.getBooksCreated() + newBooks.size());
+        summary.setEditionsCreated(summary.getEditionsCreated() + newEditions.size());
+        summary.setEditionsUpdated(summary.getEditionsUpdated() + updatedEditions.size());
+        summary.setCopiesAdded(summary.getCopiesAdded() + copies);
+    }
+
+    /**
+     * Applies a book record to a book.
+     * @return true if the book was changed, false otherwise.
+     */
+    private boolean updateBook(Book book, CatalogueBookDTO bookRecord) {
+        boolean changed = !bookRecord.getTitle().equals(book.getTitle()) || !bookRecord.getAuthor().equals(book.getAuthor());
+        book.setTitle(bookRecord.getTitle());
+        book.setAuthor(bookRecord.getAuthor());
+        return changed;
+    }
+
+    /**
+     * Applies an edition record to an edition.
+     * @return true if the edition was changed, false otherwise.
+     */
+    private boolean updateEdition(Edition edition, CatalogueEditionDTO editionRecord) {
+        boolean changed = !Objects.equals(edition.getPublisher(), editionRecord.getPublisher())
+                || !Objects.equals(edition.getPublicationYear(), editionRecord.getPublicationYear())
+                || !Objects.equals(edition.getEdition(), editionRecord.getEdition())
+                || edition.getFormat() != editionRecord.getFormat();
+        edition.setPublisher(editionRecord.getPublisher());
+        edition.setPublicationYear(editionRecord.getPublicationYear());
+        edition.setEdition(editionRecord.getEdition());
+        edition.setFormat(editionRecord.getFormat());
+        return changed;
+    }
+
+    /**
+     * Validates a book record.
+     * @return The reason the record is invalid, or null if it is valid.
+     */
+    private String validate(CatalogueBookDTO bookRecord) {
+        if (bookRecord == null) {
+            return "The record is empty";
+        }
+        if (isBlank(bookRecord.getTitle()) || isBlank(bookRecord.getAuthor())) {
+            return "The title and author are required";
+        }
+        if (bookRecord.getEditions() == null || bookRecord.getEditions().isEmpty()) {
+            return "At least one edition is required";
+        }
+        Set<String> isbnKeys = new HashSet<>();
+        for (CatalogueEditionDTO editionRecord : bookRecord.getEditions()) {
+            if (editionRecord == null) {
+                return "An edition of the record is empty";
+            }
+            if (isBlank(editionRecord.getIsbn()) || editionRecord.getIsbn().length() > LENGTH_ISBN) {
+                return String.format("The ISBN %s must be between 1 and %d characters", editionRecord.getIsbn(), LENGTH_ISBN);
+            }
+            String isbnKey = IsbnNormaliser.normalise(editionRecord.getIsbn());
+            if (isbnKey.isEmpty()) {
+                return String.format("The ISBN %s must contain digits", editionRecord.getIsbn());
+            }
+            if (!isbnKeys.add(isbnKey)) {
+                return String.format("The ISBN %s is repeated", editionRecord.getIsbn());
+            }
+            if (isBlank(editionRecord.getPublisher()) || editionRecord.getPublicationYear() == null || editionRecord.getFormat() == null) {
+                return String.format("The publisher, publication year and format of the edition with the ISBN %s are required", editionRecord.getIsbn());
+            }
+            if (isBlank(editionRecord.getEdition()) || editionRecord.getEdition().length() > LENGTH_EDITION) {
+                return String.format("The edition of the ISBN %s must be between 1 and %d characters", editionRecord.getIsbn(), LENGTH_EDITION);
+            }
+            if (editionRecord.getCopies() != null && editionRecord.getCopies() < 0) {
+                return String.format("The number of copies of the ISBN %s cannot be negative", editionRecord.getIsbn());
+            }
+        }
+        return null;
+    }
+
+    private void reject(CatalogueImportSummaryDTO summary, CatalogueRecord catalogueRecord, String message) {
+        summary.setRejected(summary.getRejected() + 1);
+        if (summary.getErrors().size() < maxErrors) {
+            summary.getErrors().add(new CatalogueImportErrorDTO(catalogueRecord.line(), message));
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
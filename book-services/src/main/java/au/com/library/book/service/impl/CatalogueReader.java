@@ -0,0 +1,49 @@
+package au.com.library.book.service.impl;
+
+import au.com.library.book.dto.CatalogueBookDTO;
+import au.com.library.book.service.CatalogueFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the records of a catalogue import one at a time, so that the catalogue is never held in memory.
+ */
+interface CatalogueReader extends Closeable {
+
+    /**
+     * A catalogue record, or the reason it could not be read.
+     *
+     * @param line The line of the catalogue on which the record starts.
+     * @param book The book record, or null if it could not be read.
+     * @param error The reason the record could not be read, or null if it was read.
+     */
+    record CatalogueRecord(long line, CatalogueBookDTO book, String error) {
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return The next record, or null at the end of the catalogue.
+     * @throws IOException Thrown when the catalogue could not be read.
+     */
+    CatalogueRecord next() throws IOException;
+
+    /**
+     * Creates a reader for a catalogue in the specified format.
+     *
+     * @param format The format of the catalogue.
+     * @param catalogue The catalogue, encoded in UTF-8.
+     * @param objectMapper The mapper used to read JSON records.
+     * @return The reader.
+     * @throws IOException Thrown when the catalogue could not be read.
+     */
+    static CatalogueReader of(CatalogueFormat format, InputStream catalogue, ObjectMapper objectMapper) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(catalogue, StandardCharsets.UTF_8));
+        return switch (format) {
+            case NDJSON -> new NdjsonCatalogueReader(reader, objectMapper);
+            case CSV -> new CsvCatalogueReader(reader);
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package au.com.library.book.service.impl;
+
+import au.com.library.book.dto.BookSearchResultDTO;
+import au.com.library.book.entity.BookFormat;
+import au.com.library.book.search.CatalogueIndex;
+import au.com.library.book.service.CatalogueSearchService;
+import au.com.library.shared.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * The {@link CatalogueSearchService} implementation, backed by the {@link CatalogueIndex}.
+ */
+@RequiredArgsConstructor
+@Service
+public class CatalogueSearchServiceImpl implements CatalogueSearchService {
+
+    private final CatalogueIndex index;
+
+    @Value("${catalogue.search.max-results}")
+    private int maxResults;
+
+    @Value("${catalogue.search.max-text-length}")
+    private int maxTextLength;
+
+    @Override
+    public BookSearchResultDTO search(String text, BookFormat format, Integer yearFrom, Integer yearTo, int limit) throws BadRequestException {
+        if(text == null || text.isBlank()){
+            throw new BadRequestException("The text to search for must not be blank");
+        }
+        if(text.length() > maxTextLength){
+            throw new BadRequestException(String.format("The text to search for must be no longer than %d characters", maxTextLength));
+        }
+        if(yearFrom != null && yearTo != null && yearFrom > yearTo){
+            throw new BadRequestException("The earliest year of publication must not be after the latest");
+        }
+        if(limit < 1 || limit > maxResults){
+            throw new BadRequestException(String.format("The number of books to return must be between 1 and %d", maxResults));
+        }
+        return index.search(text, format, yearFrom, yearTo, limit);
+    }
+}
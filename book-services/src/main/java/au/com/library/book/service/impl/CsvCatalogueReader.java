@@ -0,0 +1,123 @@
+package au.com.library.book.service.impl;
+
+import au.com.library.book.dto.CatalogueBookDTO;
+import au.com.library.book.dto.CatalogueEditionDTO;
+import au.com.library.book.entity.BookFormat;
+import au.com.library.shared.util.CsvLineReader;
+import au.com.library.shared.util.CsvLineReader.CsvLine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Reads a catalogue of one edition per line, in the columns named by its header line. Consecutive lines with the
+ * same title and author are read as the editions of a single {@link CatalogueBookDTO book record}.
+ * <p>
+ * The lines are read by a {@link CsvLineReader}.
+ */
+final class CsvCatalogueReader implements CatalogueReader {
+
+    private static final String[] COLUMNS = {"title", "author", "isbn", "publisher", "publicationYear", "edition", "format", "copies"};
+    private static final int TITLE = 0;
+    private static final int AUTHOR = 1;
+    private static final int ISBN = 2;
+    private static final int PUBLISHER = 3;
+    private static final int PUBLICATION_YEAR = 4;
+    private static final int EDITION = 5;
+    private static final int FORMAT = 6;
+    private static final int COPIES = 7;
+
+    private record Row(long line, String title, String author, CatalogueEditionDTO edition, String error) {
+    }
+
+    private final CsvLineReader lines;
+    // The position of each of the COLUMNS in a line
+    private final int[] positions = new int[COLUMNS.length];
+    // The row read ahead of the current record, which starts the next record
+    private Row pending;
+
+    CsvCatalogueReader(BufferedReader reader) throws IOException {
+        this.lines = new CsvLineReader(reader, "catalogue");
+        for (int i = 0; i < COLUMNS.length; i++) {
+            positions[i] = lines.column(COLUMNS[i], true);
+        }
+    }
+
+    @Override
+    public CatalogueRecord next() throws IOException {
+        Row first = pending != null ? pending : readRow();
+        pending = null;
+        if (first == null) {
+            return null;
+        }
+        if (first.error() != null) {
+            return new CatalogueRecord(first.line(), null, first.error());
+        }
+        List<CatalogueEditionDTO> editions = new ArrayList<>();
+        editions.add(first.edition());
+        Row row;
+        while ((row = readRow()) != null) {
+            if (row.error() != null || !Objects.equals(row.title(), first.title()) || !Objects.equals(row.author(), first.author())) {
+                pending = row;
+                break;
+            }
+            editions.add(row.edition());
+        }
+        return new CatalogueRecord(first.line(), new CatalogueBookDTO(first.title(), first.author(), editions), null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        lines.close();
+    }
+
+    private Row readRow() throws IOException {
+        CsvLine csvLine = lines.next();
+        if (csvLine == null) {
+            return null;
+        }
+        if (csvLine.error() != null) {
+            return new Row(csvLine.line(), null, null, null, csvLine.error());
+        }
+        List<String> fields = csvLine.fields();
+        try {
+            CatalogueEditionDTO edition = new CatalogueEditionDTO(
+                    field(fields, ISBN),
+                    field(fields, PUBLISHER),
+                    integer(fields, PUBLICATION_YEAR),
+                    field(fields, EDITION),
+                    format(fields),
+                    integer(fields, COPIES));
+            return new Row(csvLine.line(), field(fields, TITLE), field(fields, AUTHOR), edition, null);
+        } catch (IllegalArgumentException e) {
+            return new Row(csvLine.line(), null, null, null, e.getMessage());
+        }
+    }
+
+    private String field(List<String> fields, int column) {
+        String value = fields.get(positions[column]).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private Integer integer(List<String> fields, int column) {
+        String value = field(fields, column);
+        try {
+            return value == null ? null : Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("The %s %s is not a whole number", COLUMNS[column], value));
+        }
+    }
+
+    private BookFormat format(List<String> fields) {
+        String value = field(fields, FORMAT);
+        try {
+            return value == null ? null : BookFormat.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("The format %s is not recognised", value));
+        }
+    }
+}
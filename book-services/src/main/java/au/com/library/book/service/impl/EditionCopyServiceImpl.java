@@ -1,33 +1,66 @@
 package au.com.library.book.service.impl;
 
+import au.com.library.book.barcode.BarcodeIndex;
+import au.com.library.book.barcode.BarcodeIndexEvent;
+import au.com.library.book.dto.EditionCopyBatchDTO;
 import au.com.library.book.dto.EditionCopyDTO;
+import au.com.library.book.dto.EditionCopyDetailsDTO;
+import au.com.library.book.dto.EditionCopyReservationDTO;
 import au.com.library.book.entity.Edition;
 import au.com.library.book.entity.EditionCopy;
 import au.com.library.book.entity.EditionCopyStatus;
-import au.com.library.book.exception.InvalidEditionCopyStatusException;
+import au.com.library.book.repository.EditionAvailabilityRepository;
+import au.com.library.book.repository.EditionAvailabilityUpdates.CountChange;
 import au.com.library.book.repository.EditionCopyRepository;
+import au.com.library.book.repository.EditionCopyRepository.CopyEdition;
+import au.com.library.book.repository.EditionCopyStatusUpdates.StatusTransition;
+import au.com.library.book.repository.EditionCopyStatusUpdates.TransitionOutcome;
 import au.com.library.book.repository.EditionRepository;
 import au.com.library.book.service.EditionCopyService;
+import au.com.library.contracts.event.change.ChangeEvent;
+import au.com.library.contracts.event.loan.LoanEvent;
 import au.com.library.shared.exception.BadRequestException;
+import au.com.library.shared.exception.ConflictException;
 import au.com.library.shared.exception.ResourceNotFoundException;
-import au.com.library.shared.util.BarcodeGenerator;
-import lombok.AllArgsConstructor;
+import au.com.library.shared.util.BarcodeStrategy;
+import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-@AllArgsConstructor
+import static au.com.library.book.entity.EditionCopyStatus.*;
+import static au.com.library.contracts.event.change.ChangeEventType.AVAILABILITY_UPDATED;
+import static au.com.library.contracts.event.change.ChangeEventType.LOAN_CONFLICTED;
+
+@RequiredArgsConstructor
 @Service
 public class EditionCopyServiceImpl implements EditionCopyService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EditionCopyServiceImpl.class);
 
-    private EditionRepository editionRepository;
-    private EditionCopyRepository editionCopyRepository;
+    private final EditionRepository editionRepository;
+    private final EditionCopyRepository editionCopyRepository;
+    private final EditionAvailabilityRepository availabilityRepository;
+    private final BarcodeStrategy barcodeStrategy;
+    private final BarcodeIndex barcodeIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${copies.batch.max-count}")
+    private int maxBatchCount;
+
+    @Value("${copies.reservation.hold-seconds}")
+    private long holdSeconds;
 
     @Override
+    @Transactional
     public EditionCopyDTO addCopy(Long editionId) throws ResourceNotFoundException {
         Edition edition = editionRepository.findById(editionId).orElseThrow(
                 ()-> new ResourceNotFoundException("An edition with the id %s could not be found")
@@ -35,54 +68,167 @@ public class EditionCopyServiceImpl implements EditionCopyService {
         EditionCopy copy = EditionCopy.builder().
                 edition(edition).
                 status(EditionCopyStatus.AVAILABLE).
-                barcode(BarcodeGenerator.generate()).
+                barcode(barcodeStrategy.generate()).
                 build();
         EditionCopy saved = editionCopyRepository.save(copy);
+        applyCountChanges(List.of(new CountChange(editionId, null, AVAILABLE, 1)));
+        eventPublisher.publishEvent(new BarcodeIndexEvent(Map.of(saved.getBarcode(), saved.getId())));
         return EditionCopyDTO.toDTO(saved);
     }
 
     @Override
-    public void borrowCopy(Long copyId) throws ResourceNotFoundException {
-        EditionCopy copy = findById(copyId);
-        EditionCopyStatus status = copy.getStatus();
-        switch (status){
-            case AVAILABLE -> {
-                copy.markBorrowed();
-                editionCopyRepository.save(copy);
+    @Transactional
+    public List<EditionCopyDTO> addCopies(Long editionId, int count) throws ResourceNotFoundException, BadRequestException {
+        return addCopies(List.of(new EditionCopyBatchDTO(editionId, count)));
+    }
+
+    @Override
+    @Transactional
+    public List<EditionCopyDTO> addCopies(List<EditionCopyBatchDTO> batches) throws ResourceNotFoundException, BadRequestException {
+        int total = 0;
+        for(EditionCopyBatchDTO batch : batches){
+            if(batch == null || batch.getEditionId() == null){
+                throw new BadRequestException("The id of the edition is required for each batch of copies");
+            }
+            if(batch.getCount() < 1){
+                throw new BadRequestException(String.format("The number of copies of the edition with the id %s must be at least one", batch.getEditionId()));
+            }
+            // Checked as the counts are added, so that the total cannot overflow
+            if(batch.getCount() > maxBatchCount - total){
+                throw new BadRequestException(String.format("No more than %d copies can be added at once", maxBatchCount));
+            }
+            total += batch.getCount();
+        }
+
+        // Each edition is loaded once, however many copies are added to it
+        Set<Long> editionIds = batches.stream().map(EditionCopyBatchDTO::getEditionId).collect(Collectors.toSet());
+        Map<Long, Edition> editions = editionRepository.findAllById(editionIds).stream().
+                collect(Collectors.toMap(Edition::getId, Function.identity()));
+        editionIds.stream().filter(id -> !editions.containsKey(id)).findFirst().ifPresent(id -> {
+            throw new ResourceNotFoundException(String.format("An edition with the id %s could not be found", id));
+        });
+
+        Iterator<String> barcodes = barcodeStrategy.generate(total).iterator();
+        List<EditionCopy> copies = new ArrayList<>(total);
+        for(EditionCopyBatchDTO batch : batches){
+            Edition edition = editions.get(batch.getEditionId());
+            for(int i = 0; i < batch.getCount(); i++){
+                copies.add(EditionCopy.builder().
+                        edition(edition).
+                        status(EditionCopyStatus.AVAILABLE).
+                        barcode(barcodes.next()).
+                        build());
             }
-            case LOANED -> LOGGER.info("The edition copy with id %s is already on loan", copyId);
-            case LOST -> LOGGER.info("The edition copy with id %s is marked as lost and cannot be borrowed", copyId);
-            default -> throw new InvalidEditionCopyStatusException("The edition copy status is invalid");
         }
+        applyCountChanges(batches.stream().
+                map(batch -> new CountChange(batch.getEditionId(), null, AVAILABLE, batch.getCount())).
+                toList());
+        // Sequence generated ids allow the inserts to be sent as JDBC batches
+        List<EditionCopy> saved = editionCopyRepository.saveAll(copies);
+        eventPublisher.publishEvent(new BarcodeIndexEvent(saved.stream().
+                collect(Collectors.toMap(EditionCopy::getBarcode, EditionCopy::getId))));
+        return saved.stream().map(EditionCopyDTO::toDTO).toList();
     }
 
     @Override
-    public void returnCopy(Long copyId) throws ResourceNotFoundException {
-        EditionCopy copy = findById(copyId);
-        EditionCopyStatus status = copy.getStatus();
-        switch (status){
-            case LOANED -> {
-                copy.markAvailable();
-                editionCopyRepository.save(copy);
-            }
-            case AVAILABLE -> LOGGER.info("The edition copy with id %s is already available in the library", copyId);
-            case LOST -> LOGGER.info("The edition copy with id %s is marked as lost and cannot be returned", copyId);
-            default -> throw new InvalidEditionCopyStatusException("The edition copy status is invalid");
+    @Transactional
+    public EditionCopyReservationDTO reserveCopy(Long copyId) throws ResourceNotFoundException, ConflictException {
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusSeconds(holdSeconds);
+        if(editionCopyRepository.reserve(copyId, token, expiresAt) == 1){
+            countChange(copyId, AVAILABLE, RESERVED);
+        } else if(editionCopyRepository.takeOverExpiredHold(copyId, token, now, expiresAt) == 0){
+            EditionCopy copy = findById(copyId);
+            throw new ConflictException(String.format("The edition copy with id %s is not available. Its status is %s", copyId, copy.getStatus()));
         }
+        EditionCopy copy = editionCopyRepository.findWithEditionAndBookById(copyId).orElseThrow();
+        return new EditionCopyReservationDTO(token, expiresAt, holdSeconds, EditionCopyDetailsDTO.toDTO(copy));
+    }
+
+    @Override
+    @Transactional
+    public EditionCopyReservationDTO reserveCopyByBarcode(String barcode) throws ResourceNotFoundException, ConflictException {
+        return reserveCopy(findIdByBarcode(barcode));
+    }
+
+    @Override
+    @Transactional
+    public void releaseCopy(Long copyId, String token) {
+        if(editionCopyRepository.release(copyId, token) == 0){
+            LOGGER.info("The hold {} on the edition copy with id {} was not released as it is no longer held", token, copyId);
+        } else {
+            countChange(copyId, RESERVED, AVAILABLE);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int releaseExpiredReservations() {
+        List<EditionCopy> expired = editionCopyRepository.findExpiredHolds(LocalDateTime.now());
+        expired.forEach(EditionCopy::expireHold);
+        applyCountChanges(expired.stream().
+                map(copy -> new CountChange(copy.getEdition().getId(), RESERVED, AVAILABLE, 1)).
+                toList());
+        return expired.size();
+    }
+
+    @Override
+    @Transactional
+    public void borrowCopy(Long copyId) throws ResourceNotFoundException {
+        transition(copyId, List.of(AVAILABLE), LOANED);
+    }
+
+    @Override
+    @Transactional
+    public void returnCopy(Long copyId) throws ResourceNotFoundException {
+        transition(copyId, List.of(LOANED), AVAILABLE);
     }
 
     @Override
+    @Transactional
     public void markCopyLost(Long copyId) throws ResourceNotFoundException {
-        EditionCopy copy = findById(copyId);
-        EditionCopyStatus status = copy.getStatus();
-        switch (status){
-            case LOST -> LOGGER.info("The edition copy with id %s is already marked as lost", copyId);
-            case AVAILABLE, LOANED -> {
-                copy.markLost();
-                editionCopyRepository.save(copy);
+        transition(copyId, List.of(AVAILABLE, LOANED), LOST);
+    }
+
+    @Override
+    @Transactional
+    public int applyLoanEvents(List<LoanEvent> events) {
+        Set<Long> copyIds = events.stream().
+                map(event -> event.context().editionCopyId()).
+                collect(Collectors.toSet());
+        Map<Long, Long> editionIds = editionCopyRepository.findEditionIds(copyIds).stream().
+                collect(Collectors.toMap(CopyEdition::getId, CopyEdition::getEditionId));
+        int applicable = 0;
+        while(applicable < events.size() && editionIds.containsKey(events.get(applicable).context().editionCopyId())){
+            applicable++;
+        }
+        if(applicable < events.size()){
+            LOGGER.warn("The edition copy with id {} could not be found", events.get(applicable).context().editionCopyId());
+        }
+        List<StatusTransition> transitions = events.subList(0, applicable).stream().
+                map(this::toStatusTransition).
+                toList();
+        List<TransitionOutcome> outcomes = editionCopyRepository.applyStatusTransitions(transitions);
+        List<CountChange> countChanges = new ArrayList<>();
+        for(int i = 0; i < transitions.size(); i++){
+            StatusTransition transition = transitions.get(i);
+            TransitionOutcome outcome = outcomes.get(i);
+            if(outcome.changedFrom() != null){
+                countChanges.add(new CountChange(editionIds.get(transition.copyId()), outcome.changedFrom(), transition.to(), 1));
+            } else if(outcome.applied() && transition.holdToken() != null){
+                // The copy was held for, or lent to, another loan once this loan's hold lapsed, so the loan must be
+                // reconciled rather than left active without its copy
+                LOGGER.warn("Loan event {} could not confirm edition copy {} for loan {} as the copy has since been taken by another loan",
+                        events.get(i).eventId(), transition.copyId(), events.get(i).context().loanId());
+                eventPublisher.publishEvent(new ChangeEvent(LOAN_CONFLICTED, events.get(i).context().loanId()));
+            } else {
+                LOGGER.debug("Loan event {} for edition copy {} was skipped as already applied, superseded or not applicable to the copy's status",
+                        events.get(i).eventId(), transition.copyId());
             }
-            default -> throw new InvalidEditionCopyStatusException("The edition copy status is invalid");
         }
+        applyCountChanges(countChanges);
+        return applicable;
     }
 
     @Override
@@ -91,9 +237,112 @@ public class EditionCopyServiceImpl implements EditionCopyService {
     }
 
     @Override
+    public EditionCopyDTO findCopyByBarcode(String barcode) throws ResourceNotFoundException {
+        return findCopy(findIdByBarcode(barcode));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EditionCopyDetailsDTO findCopyDetails(Long copyId) throws ResourceNotFoundException {
+        EditionCopy copy = editionCopyRepository.findWithEditionAndBookById(copyId).orElseThrow(
+                () -> new ResourceNotFoundException(String.format("The edition copy with the copy id %s could not be found", copyId)
+                )
+        );
+        return EditionCopyDetailsDTO.toDTO(copy);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<EditionCopyDTO> findCopies(Long editionId) throws ResourceNotFoundException {
-        List<EditionCopy> copies = editionCopyRepository.findByEditionId(editionId);
-        return copies.stream().map(EditionCopyDTO::toDTO).toList();
+        // Selected directly into DTOs, so neither the copies nor their editions are loaded
+        return editionCopyRepository.findByEditionId(editionId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EditionCopyDTO findFirstAvailableCopy(Long editionId) throws ResourceNotFoundException {
+        // The counts tell when no copy is available without looking for one
+        boolean noneAvailable = availabilityRepository.findById(editionId).
+                filter(availability -> availability.getAvailable() == 0).
+                isPresent();
+        Optional<EditionCopy> copy = noneAvailable ? Optional.empty() :
+                editionCopyRepository.findFirstByEditionIdAndStatusOrderByIdAsc(editionId, AVAILABLE);
+        return copy.map(EditionCopyDTO::toDTO).orElseThrow(() -> new ResourceNotFoundException(
+                editionRepository.existsById(editionId) ?
+                        String.format("No copy of the edition with the id %s is available", editionId) :
+                        String.format("An edition with the id %s could not be found", editionId)
+        ));
+    }
+
+    /**
+     * Maps a loan event to the status transition it raises for its edition copy.
+     */
+    private StatusTransition toStatusTransition(LoanEvent event){
+        Long copyId = event.context().editionCopyId();
+        return switch (event.eventType()){
+            // Confirms the copy's hold if it is still the hold the loan was created under or, for an event delayed
+            // until the hold has lapsed and been released, if the copy is still available, but never a copy since
+            // reserved for or lent to another loan
+            case LOAN_CREATED -> event.context().holdToken() == null ?
+                    new StatusTransition(copyId, event.eventId(), List.of(), null) :
+                    new StatusTransition(copyId, event.eventId(), List.of(RESERVED, AVAILABLE), LOANED, event.context().holdToken());
+            case LOAN_RETURNED -> new StatusTransition(copyId, event.eventId(), List.of(LOANED), AVAILABLE);
+            case LOAN_MARKED_LOST -> new StatusTransition(copyId, event.eventId(), List.of(AVAILABLE, LOANED), LOST);
+            // The copy stays on loan; only its high-water mark is advanced
+            case LOAN_OVERDUE -> new StatusTransition(copyId, event.eventId(), List.of(), null);
+        };
+    }
+
+    /**
+     * Changes the copy's status with a conditional update for each of the statuses it may change from, until one
+     * matches, so that concurrent transitions of the same copy cannot overwrite each other and the status changed
+     * from is known. The copy is only read when its status was not changed, to tell why.
+     */
+    private void transition(Long copyId, List<EditionCopyStatus> from, EditionCopyStatus to){
+        for(EditionCopyStatus status : from){
+            if(editionCopyRepository.transitionStatus(copyId, status, to) == 1){
+                countChange(copyId, status, to);
+                return;
+            }
+        }
+        EditionCopy copy = findById(copyId);
+        LOGGER.info("The edition copy with id {} was not changed to {} as its status is {}", copyId, to, copy.getStatus());
+    }
+
+    /**
+     * Applies changes to the availability of editions, in the same transaction, and raises a change event for each
+     * edition changed, so that cached responses embedding its availability are purged once the changes commit.
+     */
+    private void applyCountChanges(List<CountChange> changes){
+        availabilityRepository.applyCountChanges(changes);
+        changes.stream().
+                map(CountChange::editionId).
+                distinct().
+                forEach(editionId -> eventPublisher.publishEvent(new ChangeEvent(AVAILABILITY_UPDATED, editionId)));
+    }
+
+    /**
+     * Counts a change to the status of a copy in the availability of its edition, in the same transaction.
+     */
+    private void countChange(Long copyId, EditionCopyStatus from, EditionCopyStatus to){
+        editionCopyRepository.findEditionIdById(copyId).ifPresent(editionId ->
+                applyCountChanges(List.of(new CountChange(editionId, from, to, 1))));
+    }
+
+    /**
+     * Resolves a barcode to the id of its copy from the {@link BarcodeIndex}, falling back to the database for a
+     * barcode not yet indexed, e.g. of a copy added by another instance, which is then indexed.
+     */
+    private Long findIdByBarcode(String barcode){
+        OptionalLong indexed = barcodeIndex.find(barcode);
+        if(indexed.isPresent()){
+            return indexed.getAsLong();
+        }
+        Long copyId = editionCopyRepository.findIdByBarcode(barcode).orElseThrow(
+                () -> new ResourceNotFoundException(String.format("The edition copy with the barcode %s could not be found", barcode))
+        );
+        barcodeIndex.put(barcode, copyId);
+        return copyId;
     }
 
     private EditionCopy findById(Long copyId) {
@@ -1,68 +1,234 @@
 package au.com.library.book.service.impl;
 
+import au.com.library.book.cache.IsbnCache;
+import au.com.library.book.dto.EditionAvailabilityDTO;
+import au.com.library.book.dto.EditionCopyDTO;
 import au.com.library.book.dto.EditionDTO;
 import au.com.library.book.entity.Book;
 import au.com.library.book.entity.Edition;
+import au.com.library.book.mapper.EditionMapper;
 import au.com.library.book.repository.BookRespository;
+import au.com.library.book.repository.EditionAvailabilityRepository;
+import au.com.library.book.repository.EditionCopyRepository;
 import au.com.library.book.repository.EditionRepository;
+import au.com.library.book.search.CatalogueIndexEvent;
 import au.com.library.book.service.EditionService;
+import au.com.library.contracts.event.change.ChangeEvent;
+import au.com.library.shared.exception.BadRequestException;
+import au.com.library.shared.exception.ConflictException;
 import au.com.library.shared.exception.ResourceNotFoundException;
-import au.com.library.shared.util.Mapper;
-import lombok.AllArgsConstructor;
+import au.com.library.shared.util.IsbnNormaliser;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static au.com.library.contracts.event.change.ChangeEventType.EDITION_UPDATED;
 
 /**
  * The {@link EditionService} implementation.
  */
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class EditionServiceImpl implements EditionService {
 
-    private EditionRepository editionRepository;
-    private BookRespository bookRespository;
+    private static final String UNIQUE_ISBN_KEY = "uk_edition_isbn_key";
+
+    private final EditionRepository editionRepository;
+    private final EditionCopyRepository editionCopyRepository;
+    private final BookRespository bookRespository;
+    private final EditionAvailabilityRepository availabilityRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final IsbnCache isbnCache;
+
+    @Value("${editions.availability.max-ids}")
+    private int maxAvailabilityIds;
+
+    @Value("${editions.isbn-lookup.max-count}")
+    private int maxIsbnLookupCount;
 
     @Override
     @Transactional(readOnly = true)
     public EditionDTO findEdition(Long id) throws ResourceNotFoundException {
-        return EditionDTO.toDTO(findById(id));
+        return withAvailability(EditionDTO.toDTO(findById(id)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EditionDTO findEditionByIsbn(String isbn) throws BadRequestException, ResourceNotFoundException {
+        String isbnKey = normaliseIsbn(isbn);
+        Optional<Long> editionId = isbnCache.findEditionId(isbnKey);
+        Optional<Edition> edition = editionId.flatMap(id -> findByIsbnKey(id, isbnKey));
+        if(edition.isEmpty() && editionId.isPresent()){
+            // The cached id is stale, as the edition's ISBN was changed by another instance, so the ISBN is looked up again
+            isbnCache.evict(isbnKey);
+            edition = isbnCache.findEditionId(isbnKey).flatMap(id -> findByIsbnKey(id, isbnKey));
+        }
+        return withAvailability(EditionDTO.toDTO(edition.orElseThrow(
+                () -> new ResourceNotFoundException(String.format("The edition with the ISBN %s could not be found", isbn))
+        )));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, EditionDTO> findEditionsByIsbn(List<String> isbns) throws BadRequestException {
+        if(isbns.size() > maxIsbnLookupCount){
+            throw new BadRequestException(String.format("No more than %d ISBNs can be looked up at once", maxIsbnLookupCount));
+        }
+        Map<String, String> isbnKeys = new LinkedHashMap<>();
+        for(String isbn : isbns){
+            isbnKeys.put(isbn, normaliseIsbn(isbn));
+        }
+        // The editions and their availability are each read with a single query, however many ISBNs are requested
+        Map<String, EditionDTO> editions = editionRepository.findByIsbnKeyIn(new HashSet<>(isbnKeys.values())).stream().
+                collect(Collectors.toMap(edition -> IsbnNormaliser.normalise(edition.getIsbn()), Function.identity()));
+        if(editions.isEmpty()){
+            return Map.of();
+        }
+        Map<Long, EditionAvailabilityDTO> availability = availabilityRepository.findAllById(
+                editions.values().stream().map(EditionDTO::getId).toList()).stream().
+                map(EditionAvailabilityDTO::toDTO).
+                collect(Collectors.toMap(EditionAvailabilityDTO::getEditionId, Function.identity()));
+        editions.forEach((isbnKey, edition) -> {
+            edition.setAvailability(availability.get(edition.getId()));
+            isbnCache.put(isbnKey, edition.getId());
+        });
+        Map<String, EditionDTO> found = new LinkedHashMap<>();
+        isbnKeys.forEach((isbn, isbnKey) -> {
+            EditionDTO edition = editions.get(isbnKey);
+            if(edition != null){
+                found.put(isbn, edition);
+            }
+        });
+        return found;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EditionAvailabilityDTO> findAvailability(Collection<Long> editionIds) throws BadRequestException {
+        if(editionIds.size() > maxAvailabilityIds){
+            throw new BadRequestException(String.format("The availability of no more than %d editions can be retrieved at once", maxAvailabilityIds));
+        }
+        return availabilityRepository.findAllById(editionIds).stream().map(EditionAvailabilityDTO::toDTO).toList();
     }
 
     @Override
-    public EditionDTO updateEdtion(Long id, EditionDTO editionDTO) throws ResourceNotFoundException {
+    public EditionDTO updateEdtion(Long id, EditionDTO editionDTO) throws ResourceNotFoundException, ConflictException {
         Edition edition = findById(id);
+        String previousIsbnKey = edition.getIsbnKey();
+        checkIsbnUnused(editionDTO.getIsbn(), id);
 
         edition.setIsbn(editionDTO.getIsbn());
         edition.setEdition(editionDTO.getEdition());
         edition.setFormat(editionDTO.getFormat());
         edition.setPublicationYear(editionDTO.getPublicationYear());
         edition.setPublisher(editionDTO.getPublisher());
-        return EditionDTO.toDTO(editionRepository.save(edition));
+        Edition saved = saveAndFlush(edition);
+        if(!previousIsbnKey.equals(saved.getIsbnKey())){
+            isbnCache.evict(previousIsbnKey);
+        }
+        eventPublisher.publishEvent(new ChangeEvent(EDITION_UPDATED, saved.getId()));
+        eventPublisher.publishEvent(new CatalogueIndexEvent(List.of(saved.getBook().getId())));
+        return withAvailability(EditionDTO.toDTO(saved));
     }
 
 
     @Override
-    public EditionDTO addEdition(Long bookId, EditionDTO editionDTO) throws ResourceNotFoundException {
+    @Transactional
+    public EditionDTO addEdition(Long bookId, EditionDTO editionDTO) throws ResourceNotFoundException, ConflictException {
         Book book = bookRespository.findById(bookId).orElseThrow(
                 () -> new ResourceNotFoundException(String.format("The book with the id %s could not be found", bookId)
                 )
         );
-        Edition edition = Mapper.map(editionDTO, Edition.class);
+        checkIsbnUnused(editionDTO.getIsbn(), null);
+        Edition edition = EditionMapper.INSTANCE.toEntity(editionDTO);
         edition.setBook(book);
-        return EditionDTO.toDTO(editionRepository.save(edition));
+        Edition saved = saveAndFlush(edition);
+        availabilityRepository.createAvailability(List.of(saved.getId()));
+        eventPublisher.publishEvent(new CatalogueIndexEvent(List.of(bookId)));
+        EditionDTO dto = EditionDTO.toDTO(saved);
+        dto.setAvailability(new EditionAvailabilityDTO(saved.getId(), 0, 0, 0, 0));
+        return dto;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Collection<EditionDTO> findEditions(Long bookId) throws ResourceNotFoundException {
         if(!bookRespository.existsById(bookId)){
             throw new ResourceNotFoundException(String.format("The book with the id %s could not be found", bookId));
         }
-        List<Edition> editions = editionRepository.findByBookId(bookId);
-        return editions.stream().map(EditionDTO::toDTO).toList();
+        // The editions, their copies and their availability are each read with a single query, however many
+        // editions the book has, rather than loading each edition's copies lazily
+        List<EditionDTO> editions = editionRepository.findByBookId(bookId);
+        if(editions.isEmpty()){
+            return editions;
+        }
+        List<Long> editionIds = editions.stream().map(EditionDTO::getId).toList();
+        Map<Long, Set<EditionCopyDTO>> copies = editionCopyRepository.findByEditionIdIn(editionIds).stream().
+                collect(Collectors.groupingBy(EditionCopyDTO::getEditionId, Collectors.toCollection(LinkedHashSet::new)));
+        Map<Long, EditionAvailabilityDTO> availability = availabilityRepository.findAllById(editionIds).stream().
+                map(EditionAvailabilityDTO::toDTO).
+                collect(Collectors.toMap(EditionAvailabilityDTO::getEditionId, Function.identity()));
+        editions.forEach(edition -> {
+            edition.setCopies(copies.getOrDefault(edition.getId(), new LinkedHashSet<>()));
+            edition.setAvailability(availability.get(edition.getId()));
+        });
+        return editions;
+    }
+
+    private EditionDTO withAvailability(EditionDTO dto){
+        availabilityRepository.findById(dto.getId()).
+                map(EditionAvailabilityDTO::toDTO).
+                ifPresent(dto::setAvailability);
+        return dto;
+    }
+
+    private Optional<Edition> findByIsbnKey(Long id, String isbnKey){
+        return editionRepository.findById(id).filter(edition -> edition.getIsbnKey().equals(isbnKey));
+    }
+
+    private String normaliseIsbn(String isbn){
+        String isbnKey = IsbnNormaliser.normalise(isbn);
+        if(isbnKey == null || isbnKey.isEmpty()){
+            throw new BadRequestException(String.format("The ISBN %s must contain digits", isbn));
+        }
+        return isbnKey;
+    }
+
+    /**
+     * Checks that no other edition is recorded with the same ISBN, however it was written.
+     * @param isbn The ISBN of the edition.
+     * @param id The id of the edition, or null if it is new.
+     */
+    private void checkIsbnUnused(String isbn, Long id){
+        editionRepository.findIdByIsbnKey(normaliseIsbn(isbn)).
+                filter(existingId -> !existingId.equals(id)).
+                ifPresent(existingId -> {
+                    throw new ConflictException(String.format("The ISBN %s is already recorded for the edition with the id %s", isbn, existingId));
+                });
+    }
+
+    /**
+     * Saves an edition, flushing it so that an ISBN recorded concurrently by another edition is reported as a
+     * conflict by the unique ISBN key index.
+     */
+    private Edition saveAndFlush(Edition edition){
+        try {
+            return editionRepository.saveAndFlush(edition);
+        } catch (DataIntegrityViolationException e) {
+            if(!(e.getCause() instanceof ConstraintViolationException violation) || violation.getConstraintName() == null
+                    || !violation.getConstraintName().toLowerCase(Locale.ROOT).contains(UNIQUE_ISBN_KEY)){
+                throw e;
+            }
+            throw new ConflictException(String.format("The ISBN %s is already recorded for another edition", edition.getIsbn()));
+        }
     }
 
     private Edition findById(Long id){
@@ -0,0 +1,32 @@
+package au.com.library.book.service.impl;
+
+import au.com.library.book.dto.CatalogueBookDTO;
+import au.com.library.shared.util.NdjsonLineReader;
+import au.com.library.shared.util.NdjsonLineReader.NdjsonLine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads a catalogue of one JSON {@link CatalogueBookDTO book record} per line. Blank lines are ignored.
+ */
+final class NdjsonCatalogueReader implements CatalogueReader {
+
+    private final NdjsonLineReader<CatalogueBookDTO> lines;
+
+    NdjsonCatalogueReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.lines = new NdjsonLineReader<>(reader, objectMapper, CatalogueBookDTO.class);
+    }
+
+    @Override
+    public CatalogueRecord next() throws IOException {
+        NdjsonLine<CatalogueBookDTO> ndjsonLine = lines.next();
+        return ndjsonLine == null ? null : new CatalogueRecord(ndjsonLine.line(), ndjsonLine.value(), ndjsonLine.error());
+    }
+
+    @Override
+    public void close() throws IOException {
+        lines.close();
+    }
+}
@@ -0,0 +1,21 @@
+-- Creates the availability of the editions of an existing library_books database from the statuses of their copies.
+-- Run once, with the book services stopped, after starting a version that counts the copies of editions by status:
+--   mysql -u root -p library_books < edition-availability.sql
+-- It is safe to run again, as the availability of every edition is recounted.
+
+CREATE TABLE IF NOT EXISTS edition_availability (
+    edition_id BIGINT NOT NULL PRIMARY KEY,
+    available BIGINT NOT NULL,
+    reserved BIGINT NOT NULL,
+    loaned BIGINT NOT NULL,
+    lost BIGINT NOT NULL
+);
+DELETE FROM edition_availability;
+INSERT INTO edition_availability (edition_id, available, reserved, loaned, lost)
+SELECT e.id,
+       COUNT(CASE WHEN c.status = 'AVAILABLE' THEN 1 END),
+       COUNT(CASE WHEN c.status = 'RESERVED' THEN 1 END),
+       COUNT(CASE WHEN c.status = 'LOANED' THEN 1 END),
+       COUNT(CASE WHEN c.status = 'LOST' THEN 1 END)
+FROM edition e LEFT JOIN edition_copy c ON c.edition_id = e.id
+GROUP BY e.id;
@@ -0,0 +1,47 @@
+-- Adds the normalised ISBN key of the editions of an existing library_books database, by which editions are looked
+-- up and which must be unique, so that an edition is recorded only once however its ISBN is written.
+-- Run once, with the book services stopped, before starting a version that looks editions up by normalised ISBN:
+--   mysql -u root -p library_books < edition-isbn-key.sql
+-- Editions recorded more than once with the same ISBN are listed before the unique index is created. If any are
+-- listed, the index cannot be created: correct or merge those editions, then run the final two statements again.
+
+-- Normalises an ISBN as au.com.library.shared.util.IsbnNormaliser does: everything but the digits and X is removed,
+-- and a valid ISBN-10 is converted to the equivalent ISBN-13.
+DROP FUNCTION IF EXISTS normalise_isbn;
+DELIMITER //
+CREATE FUNCTION normalise_isbn(isbn VARCHAR(20)) RETURNS VARCHAR(20) DETERMINISTIC
+BEGIN
+    DECLARE stripped VARCHAR(20) DEFAULT REGEXP_REPLACE(UPPER(isbn), '[^0-9X]', '');
+    DECLARE digits VARCHAR(12);
+    DECLARE total INT DEFAULT 0;
+    DECLARE i INT DEFAULT 1;
+    IF stripped NOT REGEXP '^[0-9]{9}[0-9X]$' THEN
+        RETURN stripped;
+    END IF;
+    WHILE i <= 10 DO
+        SET total = total + IF(SUBSTRING(stripped, i, 1) = 'X', 10, SUBSTRING(stripped, i, 1)) * (11 - i);
+        SET i = i + 1;
+    END WHILE;
+    IF total MOD 11 <> 0 THEN
+        RETURN stripped;
+    END IF;
+    SET digits = CONCAT('978', LEFT(stripped, 9));
+    SET total = 0;
+    SET i = 1;
+    WHILE i <= 12 DO
+        SET total = total + SUBSTRING(digits, i, 1) * IF(i MOD 2 = 1, 1, 3);
+        SET i = i + 1;
+    END WHILE;
+    RETURN CONCAT(digits, (10 - total MOD 10) MOD 10);
+END //
+DELIMITER ;
+
+ALTER TABLE edition ADD COLUMN isbn_key VARCHAR(20) NULL;
+UPDATE edition SET isbn_key = normalise_isbn(isbn);
+DROP FUNCTION normalise_isbn;
+
+SELECT isbn_key, GROUP_CONCAT(id ORDER BY id) AS edition_ids, GROUP_CONCAT(isbn ORDER BY id) AS isbns
+FROM edition
+GROUP BY isbn_key
+HAVING COUNT(*) > 1;
+ALTER TABLE edition MODIFY isbn_key VARCHAR(20) NOT NULL, ADD UNIQUE INDEX uk_edition_isbn_key (isbn_key);
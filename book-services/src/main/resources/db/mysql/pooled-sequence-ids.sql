@@ -0,0 +1,17 @@
+-- Migrates an existing library_books database from identity to pooled sequence ids.
+-- MySQL has no sequences, so Hibernate emulates each one with a single row table holding the next value.
+-- Run once, with the book services stopped, before starting a version using sequence ids:
+--   mysql -u root -p library_books < pooled-sequence-ids.sql
+-- It is safe to run again, e.g. if the services were started first and created the tables starting at 1.
+
+CREATE TABLE IF NOT EXISTS book_seq (next_val BIGINT);
+DELETE FROM book_seq;
+INSERT INTO book_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM book;
+
+CREATE TABLE IF NOT EXISTS edition_seq (next_val BIGINT);
+DELETE FROM edition_seq;
+INSERT INTO edition_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM edition;
+
+CREATE TABLE IF NOT EXISTS edition_copy_seq (next_val BIGINT);
+DELETE FROM edition_copy_seq;
+INSERT INTO edition_copy_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM edition_copy;
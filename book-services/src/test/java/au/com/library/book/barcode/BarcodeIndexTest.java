@@ -0,0 +1,57 @@
+package au.com.library.book.barcode;
+
+import au.com.library.shared.util.BarcodeGenerator;
+import au.com.library.shared.util.MonotonicBarcodeStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Tests that the {@link BarcodeIndex} finds the copies of the barcodes added, and only those, as it grows.
+ */
+public class BarcodeIndexTest {
+
+    private static final int COPIES = 200_000;
+
+    /**
+     * Tests that monotonic barcodes are found after the table has been resized several times.
+     */
+    @Test
+    @DisplayName("testFindMonotonicBarcodes")
+    public void givenManyMonotonicBarcodes_whenFinding_thenCopiesFound(){
+        BarcodeIndex index = new BarcodeIndex(new SimpleMeterRegistry());
+        List<String> barcodes = new MonotonicBarcodeStrategy(1).generate(COPIES + 1);
+        for(int i = 0; i < COPIES; i++){
+            index.put(barcodes.get(i), i + 1);
+        }
+
+        Assertions.assertThat(index.size()).isEqualTo(COPIES);
+        for(int i = 0; i < COPIES; i++){
+            Assertions.assertThat(index.find(barcodes.get(i))).hasValue(i + 1);
+        }
+        Assertions.assertThat(index.find(barcodes.getLast())).isEmpty();
+    }
+
+    /**
+     * Tests that other barcodes are found, and that adding a barcode again does not count it twice.
+     */
+    @Test
+    @DisplayName("testFindOtherBarcodes")
+    public void givenOtherBarcodes_whenFinding_thenCopiesFound(){
+        BarcodeIndex index = new BarcodeIndex(new SimpleMeterRegistry());
+        String random = BarcodeGenerator.generate();
+        String monotonic = new MonotonicBarcodeStrategy(2).generate();
+        index.put(random, 1);
+        index.put(monotonic, 2);
+        index.put(monotonic, 2);
+
+        Assertions.assertThat(index.size()).isEqualTo(2);
+        Assertions.assertThat(index.find(random)).hasValue(1);
+        Assertions.assertThat(index.find(monotonic)).hasValue(2);
+        Assertions.assertThat(index.find("unknown")).isEmpty();
+        Assertions.assertThat(index.find(null)).isEmpty();
+    }
+}
@@ -1,15 +1,21 @@
 package au.com.library.book.repository;
 
+import au.com.library.book.dto.EditionDTO;
 import au.com.library.book.entity.*;
+import au.com.library.shared.util.IsbnNormaliser;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.assertj.core.api.Assertions;
+import org.assertj.core.groups.Tuple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +28,8 @@ public class BookServiceRepositoriesTest {
     private EditionRepository editionRepository;
     @Autowired
     private EditionCopyRepository editionCopyRepository;
+    @Autowired
+    private EditionAvailabilityRepository availabilityRepository;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -284,14 +292,15 @@ public class BookServiceRepositoriesTest {
 
         // Step 4: Load the editions for the book using a fresh persistence context to
         // simulate the state of a editions in production.
-        List<Edition> editions = editionRepository.findByBookId(savedBook.getId());
+        List<EditionDTO> editions = editionRepository.findByBookId(savedBook.getId());
 
         // The editions should be present
         Assertions.assertThat(editions).isNotNull();
-        Edition selectedEdition = editions.stream().findFirst().get();
+        Assertions.assertThat(editions).hasSize(toSave.size());
+        EditionDTO selectedEdition = editions.stream().findFirst().get();
         // Checked that the editions have a reference to the book by
         // checking the first one in the List
-        Assertions.assertThat(selectedEdition.getBook()).isNotNull();
+        Assertions.assertThat(selectedEdition.getBookId()).isEqualTo(savedBook.getId());
     }
 
     /**
@@ -405,6 +414,225 @@ public class BookServiceRepositoriesTest {
         Assertions.assertThat(selectedCopy.getEdition().getBook().getId()).isEqualTo(savedBook.getId());
     }
 
+    /**
+     * Tests that an {@link EditionCopy edition copy} can be retrieved along with its {@link Edition edition}
+     * and {@link Book book} in a single query, such that both are initialised once the persistence context
+     * has been cleared.
+     */
+    @Test
+    @DisplayName("testFindEditionCopyWithEditionAndBook")
+    public void givenExistingCopy_whenFindingWithEditionAndBook_thenEditionAndBookFetched(){
+        Book savedBook = bookRespository.save(book);
+        Edition edition = buildTestEdition(
+                savedBook,
+                "ISBN-123",
+                "1st Edition",
+                BookFormat.HARDBACK,
+                1943
+                ,"Tolkien Publishing");
+        editionRepository.save(edition);
+        EditionCopy savedCopy = editionCopyRepository.save(buildTestEditionCopy(edition, "barcode"));
+
+        forceCommit();
+
+        EditionCopy found = editionCopyRepository.findWithEditionAndBookById(savedCopy.getId()).
+                orElseThrow(() -> new IllegalStateException("Edition copy not found"));
+        entityManager.clear();
+
+        Assertions.assertThat(found.getEdition().getEdition()).isEqualTo("1st Edition");
+        Assertions.assertThat(found.getEdition().getBook().getTitle()).isEqualTo(savedBook.getTitle());
+    }
+
+    /**
+     * Tests that editions can be found by ISBN with their books, and their copies counted, as used by the
+     * catalogue import.
+     */
+    @Test
+    @DisplayName("testFindEditionsByIsbnAndCountCopies")
+    public void givenEditionsWithCopies_whenFindingByIsbnAndCountingCopies_thenEditionsAndCountsFound(){
+        Book savedBook = bookRespository.save(book);
+        Edition first = editionRepository.save(buildTestEdition(savedBook, "0-306-40615-2", "1st Edition", BookFormat.HARDBACK, 1954, "Allen & Unwin"));
+        Edition second = editionRepository.save(buildTestEdition(savedBook, "978-0-8044-2957-3", "2nd Edition", BookFormat.PAPERBACK, 1966, "Allen & Unwin"));
+        editionRepository.save(buildTestEdition(savedBook, "ISBN-3", "3rd Edition", BookFormat.PAPERBACK, 1974, "Allen & Unwin"));
+        editionCopyRepository.saveAll(List.of(
+                buildTestEditionCopy(first, "barcode-1"),
+                buildTestEditionCopy(first, "barcode-2"),
+                buildTestEditionCopy(second, "barcode-3")));
+
+        forceCommit();
+
+        List<Edition> found = editionRepository.findWithBookByIsbnKeyIn(List.of("9780306406157", "9780804429573", "4"));
+        entityManager.clear();
+        Assertions.assertThat(found).extracting(Edition::getIsbn).containsExactlyInAnyOrder("0-306-40615-2", "978-0-8044-2957-3");
+        Assertions.assertThat(found).allMatch(edition -> edition.getBook().getTitle().equals(savedBook.getTitle()));
+
+        List<EditionCopyRepository.EditionCopyCount> counts = editionCopyRepository.countByEditionIds(List.of(first.getId(), second.getId()));
+        Assertions.assertThat(counts).extracting(EditionCopyRepository.EditionCopyCount::getEditionId, EditionCopyRepository.EditionCopyCount::getCopies).
+                containsExactlyInAnyOrder(
+                        Tuple.tuple(first.getId(), 2L),
+                        Tuple.tuple(second.getId(), 1L));
+    }
+
+    /**
+     * Tests that editions are keyed by their normalised ISBN, so that an edition can be found by any form of its
+     * ISBN, and that a second edition with the same ISBN, however it is written, cannot be saved.
+     */
+    @Test
+    @DisplayName("testFindEditionsByIsbnKey")
+    public void givenEditionWithIsbn10_whenFindingByIsbnKeyOrSavingSameIsbn_thenFoundAndDuplicateRejected(){
+        Book savedBook = bookRespository.save(book);
+        Edition saved = editionRepository.save(buildTestEdition(savedBook, "0-306-40615-2", "1st Edition", BookFormat.HARDBACK, 1954, "Allen & Unwin"));
+
+        forceCommit();
+
+        Assertions.assertThat(editionRepository.findIdByIsbnKey(IsbnNormaliser.normalise("978-0-306-40615-7"))).contains(saved.getId());
+        Assertions.assertThat(editionRepository.findByIsbnKeyIn(List.of("9780306406157"))).
+                extracting(EditionDTO::getId, EditionDTO::getIsbn, EditionDTO::getBookId).
+                containsExactly(Tuple.tuple(saved.getId(), "0-306-40615-2", savedBook.getId()));
+        Assertions.assertThatThrownBy(() -> editionRepository.saveAndFlush(
+                buildTestEdition(savedBook, "9780306406157", "2nd Edition", BookFormat.PAPERBACK, 1966, "Allen & Unwin"))).
+                isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    /**
+     * Tests that the changes to the copies of editions are counted in their availability, and that the first
+     * available copy of an edition is found by status.
+     */
+    @Test
+    @DisplayName("testCountEditionAvailability")
+    public void givenEditionsWithCopies_whenCountingChanges_thenAvailabilityCounted(){
+        Book savedBook = bookRespository.save(book);
+        Edition first = editionRepository.save(buildTestEdition(savedBook, "ISBN-1", "1st Edition", BookFormat.HARDBACK, 1954, "Allen & Unwin"));
+        Edition second = editionRepository.save(buildTestEdition(savedBook, "ISBN-2", "2nd Edition", BookFormat.PAPERBACK, 1966, "Allen & Unwin"));
+        List<EditionCopy> copies = editionCopyRepository.saveAll(List.of(
+                buildTestEditionCopy(first, "barcode-1"),
+                buildTestEditionCopy(first, "barcode-2"),
+                buildTestEditionCopy(second, "barcode-3")));
+        availabilityRepository.createAvailability(List.of(first.getId(), second.getId()));
+        availabilityRepository.applyCountChanges(List.of(
+                new EditionAvailabilityUpdates.CountChange(first.getId(), null, EditionCopyStatus.AVAILABLE, 2),
+                new EditionAvailabilityUpdates.CountChange(second.getId(), null, EditionCopyStatus.AVAILABLE, 1)));
+
+        forceCommit();
+
+        Assertions.assertThat(editionCopyRepository.transitionStatus(copies.getFirst().getId(), EditionCopyStatus.AVAILABLE, EditionCopyStatus.LOANED)).isEqualTo(1);
+        availabilityRepository.applyCountChanges(List.of(
+                new EditionAvailabilityUpdates.CountChange(first.getId(), EditionCopyStatus.AVAILABLE, EditionCopyStatus.LOANED, 1),
+                new EditionAvailabilityUpdates.CountChange(second.getId(), EditionCopyStatus.AVAILABLE, EditionCopyStatus.LOST, 1),
+                new EditionAvailabilityUpdates.CountChange(second.getId(), EditionCopyStatus.LOST, EditionCopyStatus.AVAILABLE, 1)));
+        entityManager.clear();
+
+        Assertions.assertThat(availabilityRepository.findAllById(List.of(first.getId(), second.getId()))).
+                extracting(EditionAvailability::getEditionId, EditionAvailability::getAvailable, EditionAvailability::getLoaned, EditionAvailability::getLost).
+                containsExactlyInAnyOrder(
+                        Tuple.tuple(first.getId(), 1L, 1L, 0L),
+                        Tuple.tuple(second.getId(), 1L, 0L, 0L));
+        Assertions.assertThat(editionCopyRepository.findFirstByEditionIdAndStatusOrderByIdAsc(first.getId(), EditionCopyStatus.AVAILABLE)).
+                map(EditionCopy::getBarcode).
+                contains("barcode-2");
+    }
+
+    /**
+     * Tests that a loan event only confirms the hold on a reserved copy if it carries the token of the copy's
+     * current hold, which the confirmation then clears.
+     */
+    @Test
+    @DisplayName("testConfirmHoldByToken")
+    public void givenReservedCopy_whenApplyingTransitionsWithHoldTokens_thenOnlyMatchingHoldConfirmed(){
+        Book savedBook = bookRespository.save(book);
+        Edition edition = editionRepository.save(buildTestEdition(savedBook, "ISBN-1", "1st Edition", BookFormat.HARDBACK, 1954, "Allen & Unwin"));
+        EditionCopy copy = editionCopyRepository.save(buildTestEditionCopy(edition, "barcode-1"));
+        forceCommit();
+
+        Assertions.assertThat(editionCopyRepository.reserve(copy.getId(), "current-hold", LocalDateTime.now().plusSeconds(60))).isEqualTo(1);
+        List<EditionCopyStatusUpdates.TransitionOutcome> outcomes = editionCopyRepository.applyStatusTransitions(List.of(
+                new EditionCopyStatusUpdates.StatusTransition(copy.getId(), 1L, List.of(EditionCopyStatus.RESERVED), EditionCopyStatus.LOANED, "expired-hold"),
+                new EditionCopyStatusUpdates.StatusTransition(copy.getId(), 2L, List.of(EditionCopyStatus.RESERVED), EditionCopyStatus.LOANED, "current-hold")));
+        entityManager.clear();
+
+        Assertions.assertThat(outcomes).containsExactly(
+                new EditionCopyStatusUpdates.TransitionOutcome(true, null),
+                new EditionCopyStatusUpdates.TransitionOutcome(true, EditionCopyStatus.RESERVED));
+        EditionCopy confirmed = editionCopyRepository.findById(copy.getId()).orElseThrow();
+        Assertions.assertThat(confirmed.getStatus()).isEqualTo(EditionCopyStatus.LOANED);
+        Assertions.assertThat(confirmed.getHoldToken()).isNull();
+        Assertions.assertThat(confirmed.getReservedUntil()).isNull();
+        Assertions.assertThat(confirmed.getLastEventId()).isEqualTo(2L);
+    }
+
+    /**
+     * Tests that a redelivered loan event is skipped, even when the copy has since returned to a status the event
+     * could transition it from.
+     */
+    @Test
+    @DisplayName("testRedeliveredTransitionSkipped")
+    public void givenAppliedEvent_whenRedelivered_thenTransitionSkipped(){
+        EditionCopy copy = saveAvailableCopy();
+        applyTransitions(copy, new EditionCopyStatusUpdates.StatusTransition(copy.getId(), 1L, List.of(EditionCopyStatus.AVAILABLE), EditionCopyStatus.LOANED));
+        applyTransitions(copy, new EditionCopyStatusUpdates.StatusTransition(copy.getId(), 2L, List.of(EditionCopyStatus.LOANED), EditionCopyStatus.AVAILABLE));
+
+        List<EditionCopyStatusUpdates.TransitionOutcome> outcomes = applyTransitions(copy,
+                new EditionCopyStatusUpdates.StatusTransition(copy.getId(), 1L, List.of(EditionCopyStatus.AVAILABLE), EditionCopyStatus.LOANED));
+
+        Assertions.assertThat(outcomes).containsExactly(new EditionCopyStatusUpdates.TransitionOutcome(false, null));
+        assertCopyState(copy, EditionCopyStatus.AVAILABLE, 2L, 1L, 0L, 0L);
+    }
+
+    /**
+     * Tests that a loan event delivered after a newer event for the same copy is skipped, as the newer event has
+     * superseded it.
+     */
+    @Test
+    @DisplayName("testOlderTransitionSkipped")
+    public void givenNewerEventApplied_whenOlderEventApplied_thenTransitionSkipped(){
+        EditionCopy copy = saveAvailableCopy();
+        applyTransitions(copy, new EditionCopyStatusUpdates.StatusTransition(copy.getId(), 5L, List.of(EditionCopyStatus.AVAILABLE), EditionCopyStatus.LOANED));
+
+        List<EditionCopyStatusUpdates.TransitionOutcome> outcomes = applyTransitions(copy,
+                new EditionCopyStatusUpdates.StatusTransition(copy.getId(), 3L, List.of(EditionCopyStatus.AVAILABLE, EditionCopyStatus.LOANED), EditionCopyStatus.LOST));
+
+        Assertions.assertThat(outcomes).containsExactly(new EditionCopyStatusUpdates.TransitionOutcome(false, null));
+        assertCopyState(copy, EditionCopyStatus.LOANED, 5L, 0L, 1L, 0L);
+    }
+
+    /**
+     * Tests that two loan events for the same copy in one batch are applied in the order of the batch, the second
+     * seeing the status left by the first.
+     */
+    @Test
+    @DisplayName("testBatchTransitionsAppliedInOrder")
+    public void givenTwoEventsForCopyInBatch_whenApplied_thenAppliedInBatchOrder(){
+        EditionCopy copy = saveAvailableCopy();
+
+        List<EditionCopyStatusUpdates.TransitionOutcome> outcomes = applyTransitions(copy,
+                new EditionCopyStatusUpdates.StatusTransition(copy.getId(), 1L, List.of(EditionCopyStatus.AVAILABLE), EditionCopyStatus.LOANED),
+                new EditionCopyStatusUpdates.StatusTransition(copy.getId(), 2L, List.of(EditionCopyStatus.LOANED), EditionCopyStatus.AVAILABLE));
+
+        Assertions.assertThat(outcomes).containsExactly(
+                new EditionCopyStatusUpdates.TransitionOutcome(true, EditionCopyStatus.AVAILABLE),
+                new EditionCopyStatusUpdates.TransitionOutcome(true, EditionCopyStatus.LOANED));
+        assertCopyState(copy, EditionCopyStatus.AVAILABLE, 2L, 1L, 0L, 0L);
+    }
+
+    /**
+     * Tests that an older loan event batched after a newer event for the same copy is skipped, as it would be in a
+     * later batch, while the newer event still advances the high-water mark when it does not change the status.
+     */
+    @Test
+    @DisplayName("testBatchOlderTransitionSkipped")
+    public void givenOlderEventAfterNewerInBatch_whenApplied_thenOlderSkipped(){
+        EditionCopy copy = saveAvailableCopy();
+
+        List<EditionCopyStatusUpdates.TransitionOutcome> outcomes = applyTransitions(copy,
+                new EditionCopyStatusUpdates.StatusTransition(copy.getId(), 2L, List.of(EditionCopyStatus.LOANED), EditionCopyStatus.AVAILABLE),
+                new EditionCopyStatusUpdates.StatusTransition(copy.getId(), 1L, List.of(EditionCopyStatus.AVAILABLE), EditionCopyStatus.LOANED));
+
+        Assertions.assertThat(outcomes).containsExactly(
+                new EditionCopyStatusUpdates.TransitionOutcome(true, null),
+                new EditionCopyStatusUpdates.TransitionOutcome(false, null));
+        assertCopyState(copy, EditionCopyStatus.AVAILABLE, 2L, 1L, 0L, 0L);
+    }
+
     private Edition buildTestEdition(Book book, String isbn, String edition, BookFormat format, int year, String publisher){
         return Edition.builder().
                 isbn(isbn).
@@ -423,6 +651,44 @@ public class BookServiceRepositoriesTest {
                 build();
     }
 
+    /**
+     * Saves an available copy of a new edition, with the availability counts of the edition.
+     */
+    private EditionCopy saveAvailableCopy(){
+        Edition edition = editionRepository.save(buildTestEdition(bookRespository.save(book), "ISBN-1", "1st Edition", BookFormat.HARDBACK, 1954, "Allen & Unwin"));
+        EditionCopy copy = editionCopyRepository.save(buildTestEditionCopy(edition, "barcode-1"));
+        availabilityRepository.createAvailability(List.of(edition.getId()));
+        availabilityRepository.applyCountChanges(List.of(new EditionAvailabilityUpdates.CountChange(edition.getId(), null, EditionCopyStatus.AVAILABLE, 1)));
+        forceCommit();
+        return copy;
+    }
+
+    /**
+     * Applies transitions of a copy, and the availability count changes of those that changed its status, as loan
+     * events are applied.
+     */
+    private List<EditionCopyStatusUpdates.TransitionOutcome> applyTransitions(EditionCopy copy, EditionCopyStatusUpdates.StatusTransition... transitions){
+        List<EditionCopyStatusUpdates.TransitionOutcome> outcomes = editionCopyRepository.applyStatusTransitions(List.of(transitions));
+        List<EditionAvailabilityUpdates.CountChange> changes = new ArrayList<>();
+        for (int i = 0; i < transitions.length; i++) {
+            if (outcomes.get(i).changedFrom() != null) {
+                changes.add(new EditionAvailabilityUpdates.CountChange(copy.getEdition().getId(), outcomes.get(i).changedFrom(), transitions[i].to(), 1));
+            }
+        }
+        availabilityRepository.applyCountChanges(changes);
+        entityManager.clear();
+        return outcomes;
+    }
+
+    private void assertCopyState(EditionCopy copy, EditionCopyStatus status, long lastEventId, long available, long loaned, long lost){
+        EditionCopy found = editionCopyRepository.findById(copy.getId()).orElseThrow();
+        Assertions.assertThat(found.getStatus()).isEqualTo(status);
+        Assertions.assertThat(found.getLastEventId()).isEqualTo(lastEventId);
+        Assertions.assertThat(availabilityRepository.findById(copy.getEdition().getId()).orElseThrow()).
+                extracting(EditionAvailability::getAvailable, EditionAvailability::getLoaned, EditionAvailability::getLost).
+                containsExactly(available, loaned, lost);
+    }
+
     private void forceCommit(){
         entityManager.flush();
         entityManager.clear();
@@ -0,0 +1,180 @@
+package au.com.library.book.search;
+
+import au.com.library.book.dto.BookSearchHitDTO;
+import au.com.library.book.dto.BookSearchResultDTO;
+import au.com.library.book.dto.EditionDTO;
+import au.com.library.book.dto.FacetCountDTO;
+import au.com.library.book.entity.BookFormat;
+import org.assertj.core.api.Assertions;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Tests the searches answered by the {@link CatalogueIndex}, against an index in a temporary directory holding
+ * three books: two by the same author, and one of those with two editions.
+ */
+public class CatalogueIndexTest {
+
+    private static final long DISPOSSESSED = 1L;
+    private static final long LEFT_HAND = 2L;
+    private static final long FELLOWSHIP = 3L;
+
+    @TempDir
+    private Path indexDir;
+
+    private CatalogueIndex index;
+
+    /**
+     * Sets up each test by indexing the three books and making them visible to searches.
+     */
+    @BeforeEach
+    void setup() throws IOException {
+        index = new CatalogueIndex(indexDir.toString(), 10);
+        index.update(List.of(
+                new IndexedBook(DISPOSSESSED, "The Dispossessed", "Ursula K. Le Guin", List.of(
+                        buildTestEdition("978-0-06-051275-0", "Harper", 1974, BookFormat.PAPERBACK),
+                        buildTestEdition("978-0-575-07688-9", "Gollancz", 1994, BookFormat.HARDBACK))),
+                new IndexedBook(LEFT_HAND, "The Left Hand of Darkness", "Ursula K. Le Guin", List.of(
+                        buildTestEdition("978-0-441-47812-5", "Ace", 1969, BookFormat.PAPERBACK))),
+                new IndexedBook(FELLOWSHIP, "The Fellowship of the Ring", "J.R.R. Tolkien", List.of(
+                        buildTestEdition("978-0-261-10235-4", "Allen & Unwin", 1954, BookFormat.HARDBACK)))));
+        index.refresh();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+
+    /**
+     * Tests that whole terms are matched in the title, author and publisher.
+     */
+    @Test
+    @DisplayName("testSearchExactTerms")
+    public void givenWholeTerms_whenSearching_thenBooksMatchedByTitleAuthorOrPublisher(){
+        Assertions.assertThat(bookIds(index.search("Fellowship", null, null, null, 10))).containsExactly(FELLOWSHIP);
+        Assertions.assertThat(bookIds(index.search("le guin", null, null, null, 10))).containsExactlyInAnyOrder(DISPOSSESSED, LEFT_HAND);
+        Assertions.assertThat(bookIds(index.search("Gollancz", null, null, null, 10))).containsExactly(DISPOSSESSED);
+    }
+
+    /**
+     * Tests that the last term searched for is matched by prefix, as it may not have been typed in full, but that
+     * the terms before it are not.
+     */
+    @Test
+    @DisplayName("testSearchPrefix")
+    public void givenPartialTerm_whenSearching_thenOnlyLastTermMatchedByPrefix(){
+        Assertions.assertThat(bookIds(index.search("left ha", null, null, null, 10))).containsExactly(LEFT_HAND);
+        Assertions.assertThat(index.search("fell ring", null, null, null, 10).getTotal()).isZero();
+    }
+
+    /**
+     * Tests that misspelt terms are matched fuzzily, but only if they are long enough.
+     */
+    @Test
+    @DisplayName("testSearchFuzzy")
+    public void givenMisspeltTerms_whenSearching_thenBooksMatchedFuzzily(){
+        Assertions.assertThat(bookIds(index.search("dispossesed", null, null, null, 10))).containsExactly(DISPOSSESSED);
+        Assertions.assertThat(bookIds(index.search("tolkein", null, null, null, 10))).containsExactly(FELLOWSHIP);
+        Assertions.assertThat(index.search("ace darknes", null, null, null, 10).getTotal()).isEqualTo(1);
+        Assertions.assertThat(index.search("rng the", null, null, null, 10).getTotal()).isZero();
+    }
+
+    /**
+     * Tests that an ISBN is matched by prefix, ignoring hyphens and spaces, through any of a book's editions.
+     */
+    @Test
+    @DisplayName("testSearchIsbnPrefix")
+    public void givenIsbnPrefixWithHyphens_whenSearching_thenBookMatchedByEdition(){
+        Assertions.assertThat(bookIds(index.search("978-0-441", null, null, null, 10))).containsExactly(LEFT_HAND);
+        Assertions.assertThat(bookIds(index.search("978 0575 07688 9", null, null, null, 10))).containsExactly(DISPOSSESSED);
+        Assertions.assertThat(index.search("978-0-999", null, null, null, 10).getTotal()).isZero();
+    }
+
+    /**
+     * Tests that the books matched are filtered by the format and year of publication of any of their editions.
+     */
+    @Test
+    @DisplayName("testSearchFilters")
+    public void givenFormatAndYearFilters_whenSearching_thenOnlyBooksWithMatchingEditionReturned(){
+        Assertions.assertThat(bookIds(index.search("le guin", BookFormat.HARDBACK, null, null, 10))).containsExactly(DISPOSSESSED);
+        Assertions.assertThat(bookIds(index.search("le guin", null, 1960, 1970, 10))).containsExactly(LEFT_HAND);
+        Assertions.assertThat(bookIds(index.search("le guin", null, 1990, null, 10))).containsExactly(DISPOSSESSED);
+        Assertions.assertThat(index.search("le guin", BookFormat.DIGITAL, null, null, 10).getTotal()).isZero();
+    }
+
+    /**
+     * Tests that all the books matched are counted by format and year of publication, counting a book once per
+     * value however many of its editions have it, and that the total counts every match beyond the limit.
+     */
+    @Test
+    @DisplayName("testSearchFacetCounts")
+    public void givenMatchingBooks_whenSearching_thenBooksCountedByFormatAndYear(){
+        BookSearchResultDTO result = index.search("le guin", null, null, null, 1);
+
+        Assertions.assertThat(result.getTotal()).isEqualTo(2);
+        Assertions.assertThat(result.getHits()).hasSize(1);
+        Assertions.assertThat(result.getFormats()).
+                extracting(FacetCountDTO::getValue, FacetCountDTO::getCount).
+                containsExactlyInAnyOrder(Tuple.tuple("PAPERBACK", 2L), Tuple.tuple("HARDBACK", 1L));
+        Assertions.assertThat(result.getYears()).
+                extracting(FacetCountDTO::getValue, FacetCountDTO::getCount).
+                containsExactlyInAnyOrder(Tuple.tuple("1969", 1L), Tuple.tuple("1974", 1L), Tuple.tuple("1994", 1L));
+    }
+
+    /**
+     * Tests that indexing a book again replaces its document, once the index has been refreshed.
+     */
+    @Test
+    @DisplayName("testUpdateReplacesBook")
+    public void givenIndexedBook_whenUpdatedAndRefreshed_thenDocumentReplaced(){
+        index.update(List.of(new IndexedBook(FELLOWSHIP, "The Two Towers", "J.R.R. Tolkien", List.of(
+                buildTestEdition("978-0-261-10236-1", "Allen & Unwin", 1954, BookFormat.HARDBACK)))));
+
+        Assertions.assertThat(bookIds(index.search("fellowship", null, null, null, 10))).containsExactly(FELLOWSHIP);
+        index.refresh();
+
+        Assertions.assertThat(index.search("fellowship", null, null, null, 10).getTotal()).isZero();
+        Assertions.assertThat(index.search("tolkien", null, null, null, 10).getTotal()).isEqualTo(1);
+        Assertions.assertThat(index.search("towers", null, null, null, 10).getHits()).
+                extracting(BookSearchHitDTO::getBookId, BookSearchHitDTO::getTitle).
+                containsExactly(Tuple.tuple(FELLOWSHIP, "The Two Towers"));
+    }
+
+    /**
+     * Tests that the documents not indexed again since a generation started are deleted with it, as a rebuild
+     * does for books no longer in the database.
+     */
+    @Test
+    @DisplayName("testDeleteGenerationsBefore")
+    public void givenBooksNotIndexedInGeneration_whenDeletingGenerationsBefore_thenOnlyThoseBooksDeleted(){
+        long generation = index.nextGeneration();
+        index.update(List.of(new IndexedBook(FELLOWSHIP, "The Fellowship of the Ring", "J.R.R. Tolkien", List.of())));
+        index.deleteGenerationsBefore(generation);
+        index.refresh();
+
+        Assertions.assertThat(index.search("le guin", null, null, null, 10).getTotal()).isZero();
+        Assertions.assertThat(bookIds(index.search("fellowship", null, null, null, 10))).containsExactly(FELLOWSHIP);
+    }
+
+    private static List<Long> bookIds(BookSearchResultDTO result) {
+        return result.getHits().stream().map(BookSearchHitDTO::getBookId).toList();
+    }
+
+    private static EditionDTO buildTestEdition(String isbn, String publisher, int year, BookFormat format){
+        EditionDTO edition = new EditionDTO();
+        edition.setIsbn(isbn);
+        edition.setPublisher(publisher);
+        edition.setPublicationYear(year);
+        edition.setFormat(format);
+        return edition;
+    }
+}
@@ -0,0 +1,157 @@
+package au.com.library.book.service;
+
+import au.com.library.book.barcode.BarcodeIndex;
+import au.com.library.book.cache.IsbnCache;
+import au.com.library.book.config.BarcodeConfig;
+import au.com.library.book.dto.EditionCopyDTO;
+import au.com.library.book.dto.EditionDTO;
+import au.com.library.book.entity.*;
+import au.com.library.book.repository.BookRespository;
+import au.com.library.book.repository.EditionAvailabilityRepository;
+import au.com.library.book.repository.EditionAvailabilityUpdates.CountChange;
+import au.com.library.book.repository.EditionCopyRepository;
+import au.com.library.book.repository.EditionRepository;
+import au.com.library.book.service.impl.EditionCopyServiceImpl;
+import au.com.library.book.service.impl.EditionServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static au.com.library.book.support.StatementCountAssertions.assertMaxStatements;
+
+/**
+ * Tests that the edition and copy listings, and the batch ISBN lookup, issue a fixed number of SQL statements,
+ * however many editions and copies are listed.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "editions.availability.max-ids=500",
+        "editions.isbn-lookup.max-count=500",
+        "editions.isbn-cache.maximum-size=100",
+        "editions.isbn-cache.ttl-minutes=60",
+        "copies.batch.max-count=1000",
+        "copies.reservation.hold-seconds=60",
+        "barcode.strategy=random",
+        "barcode.node-id=0"
+})
+@Import({EditionServiceImpl.class, EditionCopyServiceImpl.class, BarcodeConfig.class, IsbnCache.class, BarcodeIndex.class,
+        SimpleMeterRegistry.class})
+public class EditionListingStatementCountTest {
+
+    private static final int EDITIONS = 5;
+    private static final int COPIES_PER_EDITION = 3;
+
+    @Autowired
+    private EditionService editionService;
+    @Autowired
+    private EditionCopyService editionCopyService;
+    @Autowired
+    private BookRespository bookRespository;
+    @Autowired
+    private EditionRepository editionRepository;
+    @Autowired
+    private EditionCopyRepository editionCopyRepository;
+    @Autowired
+    private EditionAvailabilityRepository availabilityRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Book book;
+    private List<Edition> editions;
+
+    /**
+     * Sets up each test by creating a book with several editions, each with several copies, and clearing the
+     * persistence context so that nothing is served from it.
+     */
+    @BeforeEach
+    void setup(){
+        book = bookRespository.save(Book.builder().title("The Fellowship of the Ring").author("Tolkien, J.R.R").build());
+        editions = new ArrayList<>();
+        List<EditionCopy> copies = new ArrayList<>();
+        for(int i = 0; i < EDITIONS; i++){
+            Edition edition = editionRepository.save(Edition.builder().
+                    isbn("ISBN-" + i).
+                    edition(i + 1 + " Edition").
+                    format(BookFormat.HARDBACK).
+                    publicationYear(1954 + i).
+                    publisher("Allen & Unwin").
+                    book(book).build());
+            editions.add(edition);
+            for(int j = 0; j < COPIES_PER_EDITION; j++){
+                copies.add(EditionCopy.builder().
+                        barcode("barcode-" + i + "-" + j).
+                        edition(edition).
+                        status(EditionCopyStatus.AVAILABLE).build());
+            }
+        }
+        editionCopyRepository.saveAll(copies);
+        Collection<Long> editionIds = editions.stream().map(Edition::getId).toList();
+        availabilityRepository.createAvailability(editionIds);
+        availabilityRepository.applyCountChanges(editionIds.stream().
+                map(id -> new CountChange(id, null, EditionCopyStatus.AVAILABLE, COPIES_PER_EDITION)).
+                toList());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Tests that the editions of a book are listed, with their copies and availability, with no more statements
+     * than the check that the book exists and one query each for the editions, copies and availability.
+     */
+    @Test
+    @DisplayName("testFindEditionsStatementCount")
+    public void givenBookWithEditions_whenFindingEditions_thenFixedNumberOfStatements(){
+        Collection<EditionDTO> found = assertMaxStatements(entityManagerFactory, 4,
+                () -> editionService.findEditions(book.getId()));
+
+        Assertions.assertThat(found).hasSize(EDITIONS);
+        Assertions.assertThat(found).allMatch(edition -> edition.getCopies().size() == COPIES_PER_EDITION);
+        Assertions.assertThat(found).allMatch(edition -> edition.getAvailability().getAvailable() == COPIES_PER_EDITION);
+    }
+
+    /**
+     * Tests that the copies of an edition are listed with a single statement.
+     */
+    @Test
+    @DisplayName("testFindCopiesStatementCount")
+    public void givenEditionWithCopies_whenFindingCopies_thenSingleStatement(){
+        Long editionId = editions.getFirst().getId();
+        List<EditionCopyDTO> found = assertMaxStatements(entityManagerFactory, 1,
+                () -> editionCopyService.findCopies(editionId));
+
+        Assertions.assertThat(found).hasSize(COPIES_PER_EDITION);
+        Assertions.assertThat(found).allMatch(copy -> editionId.equals(copy.getEditionId()));
+    }
+
+    /**
+     * Tests that the editions with several ISBNs are found, with their availability, with one query each for the
+     * editions and their availability, and are returned by the ISBN as requested.
+     */
+    @Test
+    @DisplayName("testFindEditionsByIsbnStatementCount")
+    public void givenEditions_whenFindingByIsbns_thenTwoStatements(){
+        List<String> isbns = new ArrayList<>(editions.stream().map(Edition::getIsbn).toList());
+        isbns.add("ISBN-99");
+        Map<String, EditionDTO> found = assertMaxStatements(entityManagerFactory, 2,
+                () -> editionService.findEditionsByIsbn(isbns));
+
+        Assertions.assertThat(found).containsOnlyKeys(isbns.subList(0, EDITIONS));
+        Assertions.assertThat(found.values()).allMatch(edition -> edition.getAvailability().getAvailable() == COPIES_PER_EDITION);
+    }
+}
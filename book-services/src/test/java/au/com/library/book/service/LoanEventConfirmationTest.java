@@ -0,0 +1,175 @@
+package au.com.library.book.service;
+
+import au.com.library.book.barcode.BarcodeIndex;
+import au.com.library.book.config.BarcodeConfig;
+import au.com.library.book.entity.*;
+import au.com.library.book.repository.BookRespository;
+import au.com.library.book.repository.EditionAvailabilityRepository;
+import au.com.library.book.repository.EditionAvailabilityUpdates.CountChange;
+import au.com.library.book.repository.EditionCopyRepository;
+import au.com.library.book.repository.EditionRepository;
+import au.com.library.book.service.impl.EditionCopyServiceImpl;
+import au.com.library.contracts.event.change.ChangeEvent;
+import au.com.library.contracts.event.change.ChangeEventType;
+import au.com.library.contracts.event.loan.LoanEvent;
+import au.com.library.contracts.event.loan.LoanEventContext;
+import au.com.library.contracts.event.loan.LoanEventType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.List;
+
+/**
+ * Tests how a loan created event confirms the hold on its edition copy when it is delivered after the hold has
+ * lapsed and been released by the {@link au.com.library.book.reservation.ReservationReaper reaper}, as it is when the
+ * relay, Kafka or the subscriber lags. Holds are taken already expired, so the reaper releases them at once.
+ */
+@DataJpaTest(properties = {
+        "copies.batch.max-count=1000",
+        "copies.reservation.hold-seconds=-60",
+        "barcode.strategy=random",
+        "barcode.node-id=0"
+})
+@Import({EditionCopyServiceImpl.class, BarcodeConfig.class, BarcodeIndex.class, SimpleMeterRegistry.class})
+@RecordApplicationEvents
+public class LoanEventConfirmationTest {
+
+    private static final long LOAN_ID = 7L;
+    private static final long MEMBER_ID = 11L;
+
+    @Autowired
+    private EditionCopyService editionCopyService;
+    @Autowired
+    private BookRespository bookRespository;
+    @Autowired
+    private EditionRepository editionRepository;
+    @Autowired
+    private EditionCopyRepository editionCopyRepository;
+    @Autowired
+    private EditionAvailabilityRepository availabilityRepository;
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Edition edition;
+    private EditionCopy copy;
+
+    /**
+     * Sets up each test by creating an edition with a single available copy.
+     */
+    @BeforeEach
+    void setup(){
+        Book book = bookRespository.save(Book.builder().title("The Fellowship of the Ring").author("Tolkien, J.R.R").build());
+        edition = editionRepository.save(Edition.builder().
+                isbn("ISBN-1").
+                edition("1st Edition").
+                format(BookFormat.HARDBACK).
+                publicationYear(1954).
+                publisher("Allen & Unwin").
+                book(book).build());
+        copy = editionCopyRepository.save(EditionCopy.builder().
+                barcode("barcode-1").
+                edition(edition).
+                status(EditionCopyStatus.AVAILABLE).build());
+        availabilityRepository.createAvailability(List.of(edition.getId()));
+        availabilityRepository.applyCountChanges(List.of(new CountChange(edition.getId(), null, EditionCopyStatus.AVAILABLE, 1)));
+        forceCommit();
+    }
+
+    /**
+     * Tests that a loan created event delivered after its hold was released confirms the copy as loaned, as it is
+     * still available, so the loan does not stay active while its copy can be lent to someone else.
+     */
+    @Test
+    @DisplayName("testLateLoanCreatedConfirmsReleasedCopy")
+    public void givenHoldReleasedByReaper_whenLateLoanCreatedApplied_thenCopyLoaned(){
+        String holdToken = editionCopyService.reserveCopy(copy.getId()).getToken();
+        reap();
+
+        editionCopyService.applyLoanEvents(List.of(loanCreated(1L, holdToken)));
+        entityManager.clear();
+
+        EditionCopy loaned = editionCopyRepository.findById(copy.getId()).orElseThrow();
+        Assertions.assertThat(loaned.getStatus()).isEqualTo(EditionCopyStatus.LOANED);
+        Assertions.assertThat(loaned.getLastEventId()).isEqualTo(1L);
+        EditionAvailability availability = availabilityRepository.findById(edition.getId()).orElseThrow();
+        Assertions.assertThat(availability.getAvailable()).isZero();
+        Assertions.assertThat(availability.getReserved()).isZero();
+        Assertions.assertThat(availability.getLoaned()).isEqualTo(1L);
+        Assertions.assertThat(applicationEvents.stream(ChangeEvent.class)).
+                contains(new ChangeEvent(ChangeEventType.AVAILABILITY_UPDATED, edition.getId())).
+                noneMatch(event -> event.eventType() == ChangeEventType.LOAN_CONFLICTED);
+    }
+
+    /**
+     * Tests that a loan created event delivered after its released copy was reserved for another loan leaves the
+     * other loan's hold in place, and raises a conflict so that the loan is reconciled.
+     */
+    @Test
+    @DisplayName("testLateLoanCreatedConflictsWithAnotherHold")
+    public void givenCopyHeldForAnotherLoan_whenLateLoanCreatedApplied_thenLoanConflicted(){
+        String holdToken = editionCopyService.reserveCopy(copy.getId()).getToken();
+        reap();
+        String otherHoldToken = editionCopyService.reserveCopy(copy.getId()).getToken();
+        forceCommit();
+
+        editionCopyService.applyLoanEvents(List.of(loanCreated(1L, holdToken)));
+        entityManager.clear();
+
+        EditionCopy held = editionCopyRepository.findById(copy.getId()).orElseThrow();
+        Assertions.assertThat(held.getStatus()).isEqualTo(EditionCopyStatus.RESERVED);
+        Assertions.assertThat(held.getHoldToken()).isEqualTo(otherHoldToken);
+        Assertions.assertThat(availabilityRepository.findById(edition.getId()).orElseThrow().getReserved()).isEqualTo(1L);
+        Assertions.assertThat(applicationEvents.stream(ChangeEvent.class).filter(event -> event.eventType() == ChangeEventType.LOAN_CONFLICTED)).
+                containsExactly(new ChangeEvent(ChangeEventType.LOAN_CONFLICTED, LOAN_ID));
+    }
+
+    /**
+     * Tests that a redelivered loan created event raises no conflict, as it has already been applied.
+     */
+    @Test
+    @DisplayName("testRedeliveredLoanCreatedNotConflicted")
+    public void givenConfirmedHold_whenLoanCreatedRedelivered_thenNoConflict(){
+        String holdToken = editionCopyService.reserveCopy(copy.getId()).getToken();
+        forceCommit();
+
+        editionCopyService.applyLoanEvents(List.of(loanCreated(1L, holdToken)));
+        editionCopyService.applyLoanEvents(List.of(loanCreated(1L, holdToken)));
+        entityManager.clear();
+
+        Assertions.assertThat(editionCopyRepository.findById(copy.getId()).orElseThrow().getStatus()).isEqualTo(EditionCopyStatus.LOANED);
+        Assertions.assertThat(availabilityRepository.findById(edition.getId()).orElseThrow().getLoaned()).isEqualTo(1L);
+        Assertions.assertThat(applicationEvents.stream(ChangeEvent.class)).
+                noneMatch(event -> event.eventType() == ChangeEventType.LOAN_CONFLICTED);
+    }
+
+    /**
+     * Releases the expired holds, as the reaper does, and commits the release.
+     */
+    private void reap(){
+        forceCommit();
+        Assertions.assertThat(editionCopyService.releaseExpiredReservations()).isEqualTo(1);
+        forceCommit();
+    }
+
+    private LoanEvent loanCreated(Long eventId, String holdToken){
+        return new LoanEvent(eventId, LoanEventType.LOAN_CREATED, new LoanEventContext(LOAN_ID, MEMBER_ID, copy.getId(), holdToken));
+    }
+
+    private void forceCommit(){
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,46 @@
+package au.com.library.book.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.Supplier;
+
+/**
+ * Asserts the number of SQL statements Hibernate prepares while an action runs, so that a test fails when a change
+ * makes a listing issue a statement per row - e.g. by lazily loading an association of each entity listed - rather
+ * than a fixed number of statements.
+ * <p>
+ * Only the statements issued through Hibernate are counted; those issued through a <code>JdbcTemplate</code> are not.
+ */
+public final class StatementCountAssertions {
+
+    private StatementCountAssertions() {
+    }
+
+    /**
+     * Runs the action, asserting that Hibernate prepares no more than the specified number of statements while it
+     * runs.
+     *
+     * @param entityManagerFactory The entity manager factory whose statements are counted.
+     * @param maxStatements        The maximum number of statements the action may issue.
+     * @param action               The action to run.
+     * @return The result of the action.
+     */
+    public static <T> T assertMaxStatements(EntityManagerFactory entityManagerFactory, long maxStatements, Supplier<T> action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        boolean enabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            T result = action.get();
+            Assertions.assertThat(statistics.getPrepareStatementCount()).
+                    as("The number of SQL statements issued").
+                    isLessThanOrEqualTo(maxStatements);
+            return result;
+        } finally {
+            statistics.setStatisticsEnabled(enabled);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package au.com.library.contracts.event.change;
+
+/**
+ * Represents a change to a book, edition, member or loan that can be published to Kafka and received by subscribers,
+ * typically so that they can invalidate any local copies of the changed details.
+ *
+ * @see ChangeEventType
+ *
+ * @param eventType The type of the change event.
+ * @param id        The unique identifier of the changed book, edition, member or loan.
+ */
+public record ChangeEvent(ChangeEventType eventType, Long id) {
+}
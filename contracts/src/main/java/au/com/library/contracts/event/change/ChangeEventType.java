@@ -0,0 +1,32 @@
+package au.com.library.contracts.event.change;
+
+/**
+ * Represents the types of change events that can be published to Kafka when rarely changing reference data,
+ * such as book, edition or member details, or the availability of an edition, is updated, or when a loan needs to
+ * be reconciled.
+ */
+public enum ChangeEventType {
+    /**
+     * Event type for when the details of a book are updated.
+     */
+    BOOK_UPDATED,
+    /**
+     * Event type for when the details of an edition are updated.
+     */
+    EDITION_UPDATED,
+    /**
+     * Event type for when the details of a member are updated.
+     */
+    MEMBER_UPDATED,
+    /**
+     * Event type for when the availability of the copies of an edition changes, as copies are added, held, lent,
+     * returned or lost. The id is that of the edition.
+     */
+    AVAILABILITY_UPDATED,
+    /**
+     * Event type for when the edition copy of a loan could not be confirmed as loaned to it, as the copy had been
+     * reserved for or lent to another loan after the loan's hold lapsed, so that the loan can be reconciled. The
+     * id is that of the loan.
+     */
+    LOAN_CONFLICTED;
+}
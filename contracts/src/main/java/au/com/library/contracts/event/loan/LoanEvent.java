@@ -2,12 +2,17 @@ package au.com.library.contracts.event.loan;
 
 /**
  * Represents a loan event - including the event type and its associated context - that can be published to Kafka and received by subscribers.
+ * <p>
+ * Events are keyed by the {@link LoanEventContext#editionCopyId() edition copy id}, and the {@link #eventId() event id}
+ * increases with each event raised for an edition copy, so subscribers can detect and skip events that have already
+ * been applied or that have been superseded by a later event for the same copy.
  *
  * @see LoanEventContext
  * @see LoanEventType
  *
+ * @param eventId   The unique identifier of the event. May be null for events published before event ids were introduced.
  * @param eventType The type of the loan event.
  * @param context   The context of the loan event.
  */
-public record LoanEvent(LoanEventType eventType, LoanEventContext context) {
+public record LoanEvent(Long eventId, LoanEventType eventType, LoanEventContext context) {
 }
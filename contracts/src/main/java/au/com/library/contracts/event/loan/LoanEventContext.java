@@ -7,10 +7,25 @@ package au.com.library.contracts.event.loan;
  * @param loanId        The unique identifier of the loan.
  * @param memberId      The unique identifier of the member associated with the loan.
  * @param editionCopyId The unique identifier of the edition copy involved in the loan event.
+ * @param holdToken     The token of the hold on the edition copy that a {@link LoanEventType#LOAN_CREATED created}
+ *                      loan confirms, so that only the loan the copy is held for can confirm it. Null for the other
+ *                      event types.
  */
 public record LoanEventContext(
         Long loanId,
         Long memberId,
-        Long editionCopyId
+        Long editionCopyId,
+        String holdToken
 ) {
+
+    /**
+     * Constructs the context of a loan event that does not confirm a hold.
+     *
+     * @param loanId        The unique identifier of the loan.
+     * @param memberId      The unique identifier of the member associated with the loan.
+     * @param editionCopyId The unique identifier of the edition copy involved in the loan event.
+     */
+    public LoanEventContext(Long loanId, Long memberId, Long editionCopyId) {
+        this(loanId, memberId, editionCopyId, null);
+    }
 }
@@ -15,5 +15,10 @@ public enum LoanEventType {
     /**
      * Event type for when a loan is marked as lost.
      */
-    LOAN_MARKED_LOST;
+    LOAN_MARKED_LOST,
+    /**
+     * Event type for when an active loan is first detected to be past its due date. Raised once per due date,
+     * so again if the loan is renewed and becomes overdue once more. It does not change the loaned copy.
+     */
+    LOAN_OVERDUE;
 }
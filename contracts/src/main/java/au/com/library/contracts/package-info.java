@@ -1,5 +1,6 @@
 package au.com.library.contracts;
 /**
  * This package contains contract definitions for events and data structures used in the library management system.
- * It includes definitions for loan events, their types, and contexts, as well as status representations for edition copies of books.
+ * It includes definitions for loan events, their types, and contexts, change events for book, edition and member details,
+ * as well as status representations for edition copies of books.
  */
\ No newline at end of file
@@ -0,0 +1,40 @@
+package au.com.library.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records latencies in nanoseconds and reports their percentiles.
+ */
+final class LatencySamples {
+
+    private long[] samples = new long[1024];
+    private int count;
+
+    synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    /**
+     * Returns the latency at the specified percentile in milliseconds, or zero when nothing was recorded.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The latency in milliseconds.
+     */
+    synchronized double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = Math.max(0, (int) Math.ceil(percentile / 100 * count) - 1);
+        return sorted[index] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,268 @@
+package au.com.library.loadtest;
+
+import au.com.library.loadtest.LoadTestSettings.Operation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies a mix of loan creations, returns and renewals to the services through the api-gateway routes
+ * and records their latencies, along with the delay before a created loan is reflected in the status of
+ * the copy in the book services.
+ * <p>
+ * Copies are only lent when they are believed to be available and loans are only renewed up to the
+ * renewal limit. Copies are made available again by loan events, so a copy that has just been returned
+ * may still be on loan in the book services; those loan requests are rejected with a conflict, which
+ * is counted separately from errors.
+ */
+final class LoadDriver {
+
+    private static final String LOANED = "LOANED";
+    private static final Duration PROPAGATION_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration PROPAGATION_POLL_INTERVAL = Duration.ofMillis(1);
+
+    private record ActiveLoan(long loanId, long copyId, int renewals) {
+    }
+
+    /**
+     * The results of a load test run.
+     *
+     * @param elapsed The time the load was applied for.
+     * @param latencies The latencies of the successful requests for each operation.
+     * @param propagation The delays between a loan being created and its copy being borrowed in the book services.
+     * @param completed The number of successful requests.
+     * @param conflicts The number of requests rejected with a conflict.
+     * @param errors The number of requests that failed for any other reason.
+     */
+    record Report(Duration elapsed, Map<Operation, LatencySamples> latencies, LatencySamples propagation,
+                  long completed, long conflicts, long errors) {
+
+        double throughput() {
+            return completed / (elapsed.toNanos() / (double) TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    private final LoadTestSettings settings;
+    private final LoadTestEnvironment environment;
+    private final int renewalLimit;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient client = HttpClient.newBuilder().executor(executor).build();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final List<Long> members = new ArrayList<>();
+    private final Queue<Long> availableCopies = new ConcurrentLinkedQueue<>();
+    private final Queue<ActiveLoan> activeLoans = new ConcurrentLinkedQueue<>();
+
+    private final Map<Operation, LatencySamples> latencies = new EnumMap<>(Operation.class);
+    private final LatencySamples propagation = new LatencySamples();
+    private final AtomicLong created = new AtomicLong();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    LoadDriver(LoadTestSettings settings, LoadTestEnvironment environment) {
+        this.settings = settings;
+        this.environment = environment;
+        this.renewalLimit = Integer.parseInt(environment.property("loan-services", "renewal.limit"));
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencySamples());
+        }
+    }
+
+    /**
+     * Creates the members, book, editions and copies the load is applied to.
+     */
+    void seed() throws IOException, InterruptedException {
+        for (int i = 0; i < settings.members(); i++) {
+            members.add(id(post("/api/members", String.format("""
+                    {"firstName":"Load","lastName":"Tester %d","email":"load.tester.%d@example.com","phone":"0400 000 000",
+                    "address1":"1 Library Lane","city":"Melbourne","state":"VIC","postcode":"3000"}""", i, i))));
+        }
+        long bookId = id(post("/api/books", """
+                {"title":"The Dispossessed","author":"Ursula K. Le Guin"}"""));
+        for (int i = 0; i < settings.editions(); i++) {
+            long editionId = id(post(String.format("/api/books/%d/editions", bookId), String.format("""
+                    {"isbn":"%s","publisher":"Harper","publicationYear":%d,"edition":"Edition %d","format":"PAPERBACK"}""",
+                    isbn(i), 1974 + i, i + 1)));
+            TimedResponse copies = post(String.format("/api/editions/%d/copies:batch?count=%d", editionId, settings.copiesPerEdition()), "");
+            checkSeeded(copies);
+            mapper.readTree(copies.response().body()).forEach(copy -> availableCopies.add(copy.get("id").asLong()));
+        }
+    }
+
+    /**
+     * Applies the load for the configured duration.
+     *
+     * @return The results of the run.
+     */
+    Report run() throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + settings.duration().toNanos();
+        List<Future<?>> clients = new ArrayList<>();
+        for (int i = 0; i < settings.concurrency(); i++) {
+            clients.add(executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    apply(settings.nextOperation());
+                }
+                return null;
+            }));
+        }
+        for (Future<?> client : clients) {
+            try {
+                client.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("A load test client failed", e.getCause());
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        executor.shutdown();
+        executor.awaitTermination(PROPAGATION_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+        return new Report(elapsed, latencies, propagation, completed.sum(), conflicts.sum(), errors.sum());
+    }
+
+    private void apply(Operation operation) throws IOException, InterruptedException {
+        switch (operation) {
+            case CREATE -> createLoan();
+            case RETURN -> returnLoan();
+            case RENEW -> renewLoan();
+        }
+    }
+
+    private void createLoan() throws IOException, InterruptedException {
+        Long copyId = availableCopies.poll();
+        if (copyId == null) {
+            returnLoan();
+            return;
+        }
+        long memberId = members.get(ThreadLocalRandom.current().nextInt(members.size()));
+        HttpResponse<String> response = timed(Operation.CREATE, post("/api/loans",
+                String.format("{\"editionCopyId\":%d,\"memberId\":%d}", copyId, memberId)));
+        if (!succeeded(response)) {
+            availableCopies.add(copyId);
+            return;
+        }
+        ActiveLoan loan = new ActiveLoan(id(response), copyId, 0);
+        if (created.incrementAndGet() % settings.propagationSampleRate() == 0) {
+            // The loan is held back until its copy is seen as on loan, so it cannot be returned first
+            long createdAt = System.nanoTime();
+            executor.submit(() -> awaitPropagation(loan, createdAt));
+        } else {
+            activeLoans.add(loan);
+        }
+    }
+
+    private void returnLoan() throws IOException, InterruptedException {
+        ActiveLoan loan = activeLoans.poll();
+        if (loan != null) {
+            returnLoan(loan);
+        }
+    }
+
+    private void returnLoan(ActiveLoan loan) throws IOException, InterruptedException {
+        if (succeeded(timed(Operation.RETURN, post(String.format("/api/loans/%d/return", loan.loanId()), "")))) {
+            availableCopies.add(loan.copyId());
+        }
+    }
+
+    private void renewLoan() throws IOException, InterruptedException {
+        ActiveLoan loan = activeLoans.poll();
+        if (loan == null) {
+            return;
+        }
+        if (loan.renewals() >= renewalLimit) {
+            returnLoan(loan);
+            return;
+        }
+        if (succeeded(timed(Operation.RENEW, post(String.format("/api/loans/%d/renew", loan.loanId()), "")))) {
+            activeLoans.add(new ActiveLoan(loan.loanId(), loan.copyId(), loan.renewals() + 1));
+        }
+    }
+
+    private Void awaitPropagation(ActiveLoan loan, long createdAt) throws InterruptedException {
+        long timeout = createdAt + PROPAGATION_TIMEOUT.toNanos();
+        while (System.nanoTime() < timeout) {
+            if (LOANED.equals(environment.copyStatus(loan.copyId()))) {
+                propagation.record(System.nanoTime() - createdAt);
+                break;
+            }
+            Thread.sleep(PROPAGATION_POLL_INTERVAL);
+        }
+        activeLoans.add(loan);
+        return null;
+    }
+
+    private HttpResponse<String> timed(Operation operation, TimedResponse response) {
+        if (response.response().statusCode() / 100 == 2) {
+            latencies.get(operation).record(response.nanos());
+        }
+        return response.response();
+    }
+
+    private boolean succeeded(HttpResponse<String> response) {
+        int status = response.statusCode();
+        if (status / 100 == 2) {
+            completed.increment();
+            return true;
+        }
+        if (status == 409) {
+            conflicts.increment();
+        } else {
+            errors.increment();
+        }
+        return false;
+    }
+
+    private record TimedResponse(HttpResponse<String> response, long nanos) {
+    }
+
+    private TimedResponse post(String path, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(environment.route(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        return new TimedResponse(response, System.nanoTime() - start);
+    }
+
+    private long id(TimedResponse response) throws IOException {
+        checkSeeded(response);
+        return id(response.response());
+    }
+
+    /**
+     * Builds a distinct, valid ISBN-13 for each seeded edition, as ISBNs are unique across editions.
+     */
+    static String isbn(int edition) {
+        String digits = String.format("978006%06d", edition);
+        int sum = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return String.format("978-0-06-%06d-%d", edition, (10 - sum % 10) % 10);
+    }
+
+    private static void checkSeeded(TimedResponse response) {
+        if (response.response().statusCode() / 100 != 2) {
+            throw new IllegalStateException(String.format("Seeding failed with status %d: %s",
+                    response.response().statusCode(), response.response().body()));
+        }
+    }
+
+    private long id(HttpResponse<String> response) throws IOException {
+        return mapper.readTree(response.body()).get("id").asLong();
+    }
+}
@@ -0,0 +1,158 @@
+package au.com.library.loadtest;
+
+import au.com.library.book.BookServicesApplication;
+import au.com.library.book.entity.EditionCopy;
+import au.com.library.book.repository.EditionCopyRepository;
+import au.com.library.loan.LoanServicesApplication;
+import au.com.library.member.MemberServicesApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URL;
+import java.util.*;
+
+/**
+ * Boots the book, member and loan services in this JVM against an embedded Kafka broker and in-memory
+ * H2 databases. Eureka is replaced by a static list of service instances, and requests are routed to
+ * the services using the same path patterns as the api-gateway routes.
+ * <p>
+ * Each service is configured from its own application.properties, overridden by
+ * {@code load-test/<service>.properties} and the datasource, Kafka and port settings made here.
+ */
+final class LoadTestEnvironment implements AutoCloseable {
+
+    private static final String LOAN_EVENT_TOPIC = "loan-event";
+    private static final String CHANGE_EVENT_TOPIC = "change-event";
+    private static final int LOAN_EVENT_PARTITIONS = 6;
+
+    // As per the api-gateway routes in api-gateway/src/main/resources/application.yml
+    private static final Map<String, String> ROUTES = Map.of(
+            "/api/books/", "book-services",
+            "/api/editions/", "book-services",
+            "/api/copies/", "book-services",
+            "/api/catalogue/", "book-services",
+            "/api/members/", "member-services",
+            "/api/loans/", "loan-services");
+
+    private final EmbeddedKafkaBroker broker;
+    private final Map<String, ConfigurableApplicationContext> services = new LinkedHashMap<>();
+
+    private LoadTestEnvironment(EmbeddedKafkaBroker broker) {
+        this.broker = broker;
+    }
+
+    /**
+     * Starts the Kafka broker and the services. The book and member services are started first, so that
+     * their ports can be given to the loan services as static instances.
+     *
+     * @return The started environment.
+     */
+    static LoadTestEnvironment start() {
+        EmbeddedKafkaBroker broker = new EmbeddedKafkaKraftBroker(1, LOAN_EVENT_PARTITIONS, LOAN_EVENT_TOPIC, CHANGE_EVENT_TOPIC);
+        broker.afterPropertiesSet();
+        LoadTestEnvironment environment = new LoadTestEnvironment(broker);
+        try {
+            environment.run(BookServicesApplication.class, "book-services", Map.of());
+            environment.run(MemberServicesApplication.class, "member-services", Map.of());
+            environment.run(LoanServicesApplication.class, "loan-services", Map.of(
+                    "spring.cloud.discovery.client.simple.instances.book-services[0].uri", environment.baseUri("book-services"),
+                    "spring.cloud.discovery.client.simple.instances.member-services[0].uri", environment.baseUri("member-services")));
+        } catch (RuntimeException e) {
+            environment.close();
+            throw e;
+        }
+        return environment;
+    }
+
+    /**
+     * Resolves a request path to the service it is routed to by the api-gateway.
+     *
+     * @param path The request path, e.g. {@code /api/loans/1/return}.
+     * @return The URI of the path on the routed service.
+     */
+    URI route(String path) {
+        return ROUTES.entrySet().stream()
+                .filter(route -> (path + "/").startsWith(route.getKey()))
+                .findFirst()
+                .map(route -> URI.create(baseUri(route.getValue()) + path))
+                .orElseThrow(() -> new IllegalArgumentException(String.format("No route matches the path %s", path)));
+    }
+
+    /**
+     * Reads the status of an edition copy directly from the book services, bypassing HTTP, so that event
+     * propagation can be observed without adding to the load.
+     *
+     * @param copyId The id of the edition copy.
+     * @return The name of the copy's current status.
+     */
+    String copyStatus(Long copyId) {
+        return services.get("book-services").getBean(EditionCopyRepository.class).findById(copyId)
+                .map(EditionCopy::getStatus)
+                .map(Enum::name)
+                .orElseThrow();
+    }
+
+    /**
+     * Returns a property of a running service.
+     *
+     * @param service The service name.
+     * @param name The property name.
+     * @return The property value.
+     */
+    String property(String service, String name) {
+        return services.get(service).getEnvironment().getRequiredProperty(name);
+    }
+
+    @Override
+    public void close() {
+        List<ConfigurableApplicationContext> started = new ArrayList<>(services.values());
+        Collections.reverse(started);
+        started.forEach(ConfigurableApplicationContext::close);
+        broker.destroy();
+    }
+
+    private void run(Class<?> application, String name, Map<String, String> properties) {
+        Map<String, Object> defaults = new HashMap<>(applicationProperties(application));
+        defaults.put("spring.config.location", String.format("classpath:/load-test/%s.properties", name));
+        defaults.put("spring.datasource.url", String.format("jdbc:h2:mem:%s;MODE=MySQL;DB_CLOSE_DELAY=-1", name));
+        defaults.put("spring.datasource.username", "sa");
+        defaults.put("spring.datasource.password", "");
+        defaults.put("spring.kafka.bootstrap-servers", broker.getBrokersAsString());
+        defaults.put("spring.kafka.producer.bootstrap-servers", broker.getBrokersAsString());
+        defaults.put("spring.kafka.consumer.bootstrap-servers", broker.getBrokersAsString());
+        defaults.put("server.port", 0);
+        defaults.putAll(properties);
+        services.put(name, new SpringApplicationBuilder(application).properties(defaults).run());
+    }
+
+    private String baseUri(String service) {
+        return "http://localhost:" + property(service, "local.server.port");
+    }
+
+    // Every service jar has an application.properties at its root, so the one belonging to the
+    // application is found by its code source rather than loaded from the classpath.
+    private static Map<String, String> applicationProperties(Class<?> application) {
+        String codeSource = application.getProtectionDomain().getCodeSource().getLocation().toString();
+        try {
+            URL resource = Collections.list(application.getClassLoader().getResources("application.properties")).stream()
+                    .filter(url -> url.toString().contains(codeSource))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException(String.format("No application.properties found in %s", codeSource)));
+            Properties properties = new Properties();
+            try (InputStream in = resource.openStream()) {
+                properties.load(in);
+            }
+            Map<String, String> values = new HashMap<>();
+            properties.stringPropertyNames().forEach(key -> values.put(key, properties.getProperty(key)));
+            return values;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
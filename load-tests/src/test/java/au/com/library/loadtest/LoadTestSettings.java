@@ -0,0 +1,69 @@
+package au.com.library.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The load test settings, read from system properties prefixed with {@code loadtest.}, for example
+ * {@code mvn -P load-tests verify -Dloadtest.concurrency=64 -Dloadtest.mix=create=40,return=40,renew=20}.
+ *
+ * @param duration The time the load is applied for.
+ * @param concurrency The number of concurrent clients.
+ * @param mix The relative weight of each {@link Operation operation}.
+ * @param members The number of members created before the load is applied.
+ * @param editions The number of editions created before the load is applied.
+ * @param copiesPerEdition The number of copies created for each edition.
+ * @param propagationSampleRate One in this many created loans is followed until the copy is borrowed in the book services.
+ */
+record LoadTestSettings(Duration duration, int concurrency, Map<Operation, Integer> mix, int members, int editions,
+                        int copiesPerEdition, int propagationSampleRate) {
+
+    /**
+     * The loan operations applied by the load test.
+     */
+    enum Operation {
+        CREATE, RETURN, RENEW
+    }
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 30)),
+                Integer.getInteger("loadtest.concurrency", 16),
+                parseMix(System.getProperty("loadtest.mix", "create=50,return=30,renew=20")),
+                Integer.getInteger("loadtest.members", 50),
+                Integer.getInteger("loadtest.editions", 20),
+                Integer.getInteger("loadtest.copies-per-edition", 25),
+                Integer.getInteger("loadtest.propagation-sample-rate", 10));
+    }
+
+    /**
+     * Chooses the next operation at random according to the {@link #mix()}.
+     *
+     * @return The chosen operation.
+     */
+    Operation nextOperation() {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int choice = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Operation, Integer> weight : mix.entrySet()) {
+            choice -= weight.getValue();
+            if (choice < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("The operation weights must be positive");
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String weight : mix.split(",")) {
+            String[] parts = weight.trim().split("=");
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException(String.format("The operation mix %s has no positive weights", mix));
+        }
+        return weights;
+    }
+}
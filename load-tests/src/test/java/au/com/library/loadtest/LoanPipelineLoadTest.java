@@ -0,0 +1,59 @@
+package au.com.library.loadtest;
+
+import au.com.library.loadtest.LoadTestSettings.Operation;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the loan, Kafka and book status pipeline with the configured {@link LoadTestSettings} and
+ * reports the latency percentiles, throughput and event propagation delay.
+ */
+class LoanPipelineLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoanPipelineLoadTest.class);
+
+    private static LoadTestEnvironment environment;
+
+    @BeforeAll
+    static void startServices() {
+        environment = LoadTestEnvironment.start();
+    }
+
+    @AfterAll
+    static void stopServices() {
+        if (environment != null) {
+            environment.close();
+        }
+    }
+
+    @Test
+    void loanPipeline() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        LoadDriver driver = new LoadDriver(settings, environment);
+        driver.seed();
+        LoadDriver.Report report = driver.run();
+
+        StringBuilder summary = new StringBuilder(String.format(
+                "%nLoad test: %d clients for %ds, mix %s%n", settings.concurrency(), report.elapsed().toSeconds(), settings.mix()));
+        summary.append(String.format("%-12s %10s %10s %10s%n", "operation", "count", "p50 (ms)", "p99 (ms)"));
+        for (Operation operation : Operation.values()) {
+            LatencySamples samples = report.latencies().get(operation);
+            summary.append(String.format("%-12s %10d %10.2f %10.2f%n", operation,
+                    samples.count(), samples.percentileMillis(50), samples.percentileMillis(99)));
+        }
+        summary.append(String.format("%-12s %10d %10.2f %10.2f%n", "propagation",
+                report.propagation().count(), report.propagation().percentileMillis(50), report.propagation().percentileMillis(99)));
+        summary.append(String.format("Throughput: %.1f requests/s, %d completed, %d conflicts, %d errors",
+                report.throughput(), report.completed(), report.conflicts(), report.errors()));
+        LOGGER.info(summary.toString());
+
+        assertTrue(report.completed() > 0, "No requests completed");
+        assertEquals(0, report.errors(), "Requests failed other than by conflict");
+    }
+}
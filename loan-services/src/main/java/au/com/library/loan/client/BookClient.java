@@ -2,10 +2,13 @@ package au.com.library.loan.client;
 
 import au.com.library.loan.client.config.ClientErrorDecoderConfig;
 import au.com.library.loan.dto.BookSnapshotDTO;
+import au.com.library.loan.dto.EditionCopyDetailsSnapshotDTO;
+import au.com.library.loan.dto.EditionCopyReservationSnapshotDTO;
 import au.com.library.loan.dto.EditionCopySnapshotDTO;
 import au.com.library.loan.dto.EditionSnapshotDTO;
 import au.com.library.loan.dto.LoanResponseDTO;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -46,6 +49,45 @@ public interface BookClient {
     @GetMapping("/api/copies/{id}")
     EditionCopySnapshotDTO findCopy(@PathVariable Long id);
 
+    /**
+     * Finds a book edition copy by its unique id, along with the details of its edition and book,
+     * in a single request.
+     *
+     * @param id The edition copy id.
+     * @return A {@link EditionCopyDetailsSnapshotDTO} object containing the combined copy, edition and book details.
+     */
+    @GetMapping("/api/copies/{id}/details")
+    EditionCopyDetailsSnapshotDTO findCopyDetails(@PathVariable Long id);
+
+    /**
+     * Reserves an available book edition copy for a loan being created, returning the hold along with the details
+     * of the copy's edition and book, in a single request.
+     *
+     * @param id The edition copy id.
+     * @return A {@link EditionCopyReservationSnapshotDTO} object containing the hold and the combined copy, edition and book details.
+     */
+    @PostMapping("/api/copies/{id}/reservations")
+    EditionCopyReservationSnapshotDTO reserveCopy(@PathVariable Long id);
+
+    /**
+     * Reserves an available book edition copy, identified by its barcode, for a loan being created, returning the
+     * hold along with the details of the copy, including its id, and of its edition and book, in a single request.
+     *
+     * @param barcode The barcode of the edition copy.
+     * @return A {@link EditionCopyReservationSnapshotDTO} object containing the hold and the combined copy, edition and book details.
+     */
+    @PostMapping("/api/copies/by-barcode/{barcode}/reservations")
+    EditionCopyReservationSnapshotDTO reserveCopyByBarcode(@PathVariable String barcode);
+
+    /**
+     * Releases a hold on a book edition copy, making it available again.
+     *
+     * @param id The edition copy id.
+     * @param token The token identifying the hold.
+     */
+    @DeleteMapping("/api/copies/{id}/reservations/{token}")
+    void releaseCopy(@PathVariable Long id, @PathVariable String token);
+
     /**
      * Finds a book edition copy with the specified id and marks it
      * as {@link au.com.library.loan.dto.EditionCopyStatus#LOANED on loan}.
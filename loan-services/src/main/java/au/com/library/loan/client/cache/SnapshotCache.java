@@ -0,0 +1,62 @@
+package au.com.library.loan.client.cache;
+
+import au.com.library.loan.client.MemberClient;
+import au.com.library.loan.dto.MemberSnapshotDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * A bounded, in-process cache in front of the {@link MemberClient} lookup of member details, which rarely change but
+ * are needed on every loan.
+ * <p>
+ * Entries are evicted when the cache exceeds its maximum size, when they have been held for longer than the
+ * configured time to live, or when a {@link au.com.library.contracts.event.change.ChangeEvent change event} is
+ * received for them. Hit, miss and eviction counts are published as metrics.
+ * <p>
+ * Book and edition details are not cached: they are returned with the copy details when the copy is reserved for
+ * the loan, which must be requested from the book service whatever is cached, as it holds the copy.
+ */
+@Component
+public class SnapshotCache {
+
+    private final MemberClient memberClient;
+
+    private final Cache<Long, MemberSnapshotDTO> members;
+
+    public SnapshotCache(MemberClient memberClient,
+                         MeterRegistry meterRegistry,
+                         @Value("${loan.snapshot-cache.maximum-size}") long maximumSize,
+                         @Value("${loan.snapshot-cache.ttl-minutes}") long ttlMinutes) {
+        this.memberClient = memberClient;
+        this.members = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder().
+                maximumSize(maximumSize).
+                expireAfterWrite(Duration.ofMinutes(ttlMinutes)).
+                recordStats().
+                <Long, MemberSnapshotDTO>build(), "member-snapshots");
+    }
+
+    /**
+     * Finds a member by their unique id, calling the member service only if the member is not already cached.
+     *
+     * @param memberId The member id.
+     * @return A {@link MemberSnapshotDTO} object containing the member details.
+     */
+    public MemberSnapshotDTO findMember(Long memberId) {
+        return members.get(memberId, memberClient::findMember);
+    }
+
+    /**
+     * Removes the member with the specified id from the cache.
+     *
+     * @param memberId The member id.
+     */
+    public void evictMember(Long memberId) {
+        members.invalidate(memberId);
+    }
+}
@@ -0,0 +1,23 @@
+package au.com.library.loan.client.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Configuration of the {@link ExecutorService} used to issue the remote book and member service lookups
+ * concurrently. Each lookup runs on its own virtual thread, so a blocking Feign call does not tie up a
+ * platform thread while it waits on the network.
+ *
+ * @see au.com.library.loan.client.lookup.LoanDetailsLookup
+ */
+@Configuration
+public class LookupExecutorConfig {
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService lookupExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
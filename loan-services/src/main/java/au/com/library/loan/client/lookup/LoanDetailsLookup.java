@@ -0,0 +1,180 @@
+package au.com.library.loan.client.lookup;
+
+import au.com.library.loan.client.BookClient;
+import au.com.library.loan.client.cache.SnapshotCache;
+import au.com.library.loan.dto.*;
+import au.com.library.loan.exception.CopyUnavailableException;
+import au.com.library.loan.exception.LookupTimeoutException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Retrieves the {@link LoanDetails details} required to create a loan from the book and member services.
+ * <p>
+ * The member lookup is issued concurrently with the reservation of the copy, which holds the copy for the loan and
+ * retrieves the copy, edition and book details in a single request, so the overall latency is that of the slower
+ * of the two rather than their sum. Reserving the copy, rather than checking its status, means only one of any
+ * concurrent loans of a copy can proceed, whichever instance of this service creates them. The lookup fails fast:
+ * the first leg to fail - e.g. because a resource could not be found or the copy is unavailable - fails the whole
+ * lookup without waiting for the other leg, and a hold already obtained is released. Member details are served
+ * from the {@link SnapshotCache} where possible; the copy details never are, as they carry the copy's current status.
+ * <p>
+ * The latency of each leg is recorded by the <code>loan.lookup</code> timer, tagged by leg and outcome.
+ */
+@Component
+public class LoanDetailsLookup {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoanDetailsLookup.class);
+
+    private static final String METRIC_NAME = "loan.lookup";
+    private static final String LEG_COPY = "copy";
+    private static final String LEG_MEMBER = "member";
+
+    private final BookClient bookClient;
+    private final SnapshotCache snapshotCache;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${loan.lookup.timeout-ms}")
+    private long timeoutMs;
+
+    public LoanDetailsLookup(BookClient bookClient,
+                             SnapshotCache snapshotCache,
+                             @Qualifier("lookupExecutor") ExecutorService executor,
+                             MeterRegistry meterRegistry) {
+        this.bookClient = bookClient;
+        this.snapshotCache = snapshotCache;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Reserves the specified edition copy and looks up the details of it and the specified member. The hold must be
+     * {@link #release(Long, EditionCopyReservationSnapshotDTO) released} if the loan is not then created.
+     *
+     * @param editionCopyId The id of the edition copy to borrow.
+     * @param memberId      The id of the borrowing member.
+     * @return A {@link LoanDetails} object containing the hold, the copy and the member details.
+     * @throws CopyUnavailableException Thrown when the edition copy is not available for loan.
+     * @throws LookupTimeoutException   Thrown when the lookups did not complete within the configured timeout.
+     */
+    public LoanDetails lookup(Long editionCopyId, Long memberId) throws CopyUnavailableException, LookupTimeoutException {
+        return lookup(() -> bookClient.reserveCopy(editionCopyId), memberId);
+    }
+
+    /**
+     * Reserves the edition copy with the specified barcode and looks up the details of it and the specified member,
+     * as {@link #lookup(Long, Long)} does. The id of the copy is returned with its details.
+     *
+     * @param barcode  The barcode of the edition copy to borrow.
+     * @param memberId The id of the borrowing member.
+     * @return A {@link LoanDetails} object containing the hold, the copy and the member details.
+     * @throws CopyUnavailableException Thrown when the edition copy is not available for loan.
+     * @throws LookupTimeoutException   Thrown when the lookups did not complete within the configured timeout.
+     */
+    public LoanDetails lookupByBarcode(String barcode, Long memberId) throws CopyUnavailableException, LookupTimeoutException {
+        return lookup(() -> bookClient.reserveCopyByBarcode(barcode), memberId);
+    }
+
+    private LoanDetails lookup(Supplier<EditionCopyReservationSnapshotDTO> reserve, Long memberId) {
+        CompletableFuture<MemberSnapshotDTO> member = CompletableFuture.supplyAsync(
+                () -> timed(LEG_MEMBER, () -> snapshotCache.findMember(memberId)), executor);
+        CompletableFuture<EditionCopyReservationSnapshotDTO> copy = CompletableFuture.supplyAsync(
+                () -> timed(LEG_COPY, reserve), executor);
+
+        try {
+            awaitAll(List.of(member, copy));
+        } catch (RuntimeException e) {
+            // A hold obtained before the failure is released; one still pending when the legs were cancelled lapses
+            copy.thenAcceptAsync(reservation -> release(reservation.getCopy().getId(), reservation), executor);
+            throw e;
+        }
+        return new LoanDetails(copy.join(), member.join());
+    }
+
+    /**
+     * Releases a hold on an edition copy, on a best effort basis: a hold that cannot be released lapses when it
+     * expires.
+     *
+     * @param editionCopyId The id of the reserved edition copy.
+     * @param reservation   The hold to release.
+     */
+    public void release(Long editionCopyId, EditionCopyReservationSnapshotDTO reservation) {
+        try {
+            bookClient.releaseCopy(editionCopyId, reservation.getToken());
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to release the hold on the edition copy with id {}, it will lapse: {}", editionCopyId, e.getMessage());
+        }
+    }
+
+    /**
+     * Waits for all the legs to complete, or for the first of them to fail, whichever happens first.
+     */
+    private void awaitAll(List<CompletableFuture<?>> legs) {
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        legs.forEach(leg -> leg.whenComplete((_, ex) -> {
+            if (ex != null) {
+                firstFailure.completeExceptionally(ex);
+            }
+        }));
+        CompletableFuture<Void> all = CompletableFuture.allOf(legs.toArray(CompletableFuture[]::new));
+        try {
+            CompletableFuture.anyOf(all, firstFailure).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            cancel(legs);
+            throw unwrap(e);
+        } catch (TimeoutException e) {
+            cancel(legs);
+            throw new LookupTimeoutException(
+                    String.format("The book and member details could not be retrieved within %s ms", timeoutMs));
+        } catch (InterruptedException e) {
+            cancel(legs);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrieving the book and member details", e);
+        }
+    }
+
+    private <T> T timed(String leg, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            T result = call.get();
+            sample.stop(timer(leg, "success"));
+            return result;
+        } catch (RuntimeException e) {
+            sample.stop(timer(leg, "failure"));
+            throw e;
+        }
+    }
+
+    private Timer timer(String leg, String outcome) {
+        return Timer.builder(METRIC_NAME).
+                description("Latency of the remote lookups made when creating a loan").
+                tag("leg", leg).
+                tag("outcome", outcome).
+                register(meterRegistry);
+    }
+
+    private static void cancel(List<CompletableFuture<?>> legs) {
+        legs.forEach(leg -> leg.cancel(true));
+    }
+
+    private static RuntimeException unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof ExecutionException || cause instanceof CompletionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new IllegalStateException(cause.getMessage(), cause);
+    }
+}
@@ -1,13 +1,20 @@
 package au.com.library.loan.controller;
 
+import au.com.library.loan.dto.LoanFilter;
+import au.com.library.loan.dto.LoanPageDTO;
 import au.com.library.loan.dto.LoanRequestDTO;
 import au.com.library.loan.dto.LoanResponseDTO;
+import au.com.library.loan.entity.LoanStatus;
 import au.com.library.loan.service.LoanService;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.Set;
+
 /**
  * Handles REST API requests for library book loans.
  */
@@ -40,6 +47,19 @@ public class LoanController {
         return ResponseEntity.ok(service.returnLoan(id));
     }
 
+    /**
+     * Handles a REST API POST for returning the active loan of an edition copy by the copy's barcode, e.g. as
+     * scanned when the copy is handed back.
+     *
+     * @param barcode The barcode of the returned edition copy.
+     * @return A {@link ResponseEntity} containing a {@link LoanResponseDTO}
+     * object containing details of the loan returned.
+     */
+    @PostMapping("/by-barcode/{barcode}/return")
+    public ResponseEntity<LoanResponseDTO> returnLoanByBarcode(@PathVariable String barcode){
+        return ResponseEntity.ok(service.returnLoanByBarcode(barcode));
+    }
+
     /**
      * Handles a REST API POST for renewing a loan.
      *
@@ -66,6 +86,33 @@ public class LoanController {
         return ResponseEntity.ok(service.find(id));
     }
 
+    /**
+     * Handles a REST API GET to list the {@link au.com.library.loan.entity.Loan loans} matching the specified
+     * filters, a page at a time, ordered by due date and then id. For example, a member's loans, a copy's loan
+     * history, or all active loans (<code>status=BORROWED&amp;status=RENEWED</code>).
+     *
+     * @param memberId The id of the borrowing member, if the listing is limited to a member.
+     * @param editionCopyId The id of the loaned copy, if the listing is limited to a copy.
+     * @param status The statuses of the loans, if the listing is limited to some statuses.
+     * @param dueFrom The earliest due date (ISO format), inclusive.
+     * @param dueTo The latest due date (ISO format), inclusive.
+     * @param after The cursor returned with the previous page, or absent for the first page.
+     * @param size The maximum number of loans in the page.
+     * @return A {@link ResponseEntity} containing a {@link LoanPageDTO} object containing the page of loans
+     * and the cursor of the next page.
+     */
+    @GetMapping
+    public ResponseEntity<LoanPageDTO> findLoans(@RequestParam(required = false) Long memberId,
+                                                 @RequestParam(required = false) Long editionCopyId,
+                                                 @RequestParam(required = false) Set<LoanStatus> status,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+                                                 @RequestParam(required = false) String after,
+                                                 @RequestParam(defaultValue = "50") int size){
+        LoanFilter filter = new LoanFilter(memberId, editionCopyId, status, dueFrom, dueTo);
+        return ResponseEntity.ok(service.findLoans(filter, after, size));
+    }
+
     /**
      * Handles a REST API POST to mark a loan as lost.
      *
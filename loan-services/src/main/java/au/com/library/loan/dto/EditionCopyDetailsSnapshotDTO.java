@@ -0,0 +1,28 @@
+package au.com.library.loan.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The combined details of an edition copy, its edition and its book, as returned by the
+ * book service in a single response.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class EditionCopyDetailsSnapshotDTO {
+
+    private Long id;
+    private String barcode;
+    private EditionCopyStatus status;
+    private Long editionId;
+    private String edition;
+    private Long bookId;
+    private String title;
+    private String author;
+}
@@ -0,0 +1,31 @@
+package au.com.library.loan.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A hold on an edition copy for a loan being created, together with the combined details of the copy, its edition
+ * and its book, as returned by the book service when the copy is reserved.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class EditionCopyReservationSnapshotDTO {
+
+    /**
+     * The token identifying the hold, required to release it.
+     */
+    private String token;
+
+    /**
+     * The duration of the hold. Measured from before the copy was reserved, this gives a conservative expiry that
+     * does not rely on the book service's clock.
+     */
+    private long holdSeconds;
+    private EditionCopyDetailsSnapshotDTO copy;
+}
@@ -3,6 +3,7 @@ package au.com.library.loan.dto;
 public enum EditionCopyStatus {
 
     AVAILABLE,
+    RESERVED,
     LOANED,
     LOST;
 
@@ -14,6 +15,10 @@ public enum EditionCopyStatus {
         return AVAILABLE.equals(this);
     }
 
+    public boolean isReserved(){
+        return RESERVED.equals(this);
+    }
+
     public boolean isLost(){
         return LOST.equals(this);
     }
@@ -0,0 +1,21 @@
+package au.com.library.loan.dto;
+
+/**
+ * The book and member details, retrieved from the book and member services, that are
+ * denormalised into a new {@link au.com.library.loan.entity.Loan loan}.
+ *
+ * @param reservation The hold on the requested edition copy, along with the copy's edition and book details.
+ * @param member      The borrowing member.
+ */
+public record LoanDetails(
+        EditionCopyReservationSnapshotDTO reservation,
+        MemberSnapshotDTO member
+) {
+
+    /**
+     * @return The requested edition copy, along with its edition and book details.
+     */
+    public EditionCopyDetailsSnapshotDTO copy() {
+        return reservation.getCopy();
+    }
+}
@@ -0,0 +1,25 @@
+package au.com.library.loan.dto;
+
+import au.com.library.loan.entity.LoanStatus;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * The filters of a {@link au.com.library.loan.entity.Loan loan} listing. Each filter is optional, with null
+ * (or an empty set of statuses) matching every loan.
+ *
+ * @param memberId      The id of the borrowing member.
+ * @param editionCopyId The id of the loaned edition copy.
+ * @param statuses      The statuses of the loans.
+ * @param dueFrom       The earliest due date, inclusive.
+ * @param dueTo         The latest due date, inclusive.
+ */
+public record LoanFilter(
+        Long memberId,
+        Long editionCopyId,
+        Set<LoanStatus> statuses,
+        LocalDate dueFrom,
+        LocalDate dueTo
+) {
+}
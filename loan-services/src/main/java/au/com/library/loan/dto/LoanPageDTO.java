@@ -0,0 +1,25 @@
+package au.com.library.loan.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * A page of a loan listing, ordered by due date and then id.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class LoanPageDTO {
+
+    private List<LoanSummaryDTO> loans;
+
+    /**
+     * The cursor to pass as <code>after</code> to retrieve the next page, or null if this is the last page.
+     */
+    private String next;
+}
@@ -5,6 +5,9 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+/**
+ * A request to create a loan of an edition copy, identified by either its id or its barcode, e.g. as scanned at a desk.
+ */
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -13,4 +16,9 @@ public class LoanRequestDTO {
 
     private Long editionCopyId;
     private Long memberId;
+
+    /**
+     * The barcode of the edition copy, used only when the edition copy id is not specified.
+     */
+    private String barcode;
 }
@@ -29,4 +29,5 @@ public class LoanResponseDTO {
     private LocalDate returnDate;
     private LoanStatus status;
     private int renewalCount;
+    private boolean reconciliationRequired;
 }
@@ -0,0 +1,30 @@
+package au.com.library.loan.dto;
+
+import au.com.library.loan.entity.LoanStatus;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * The details of a {@link au.com.library.loan.entity.Loan loan} returned by a loan listing, selected directly
+ * from the loan's columns rather than loaded as an entity.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class LoanSummaryDTO {
+
+    private Long id;
+    private Long memberId;
+    private String memberFirstName;
+    private String memberLastName;
+    private Long editionCopyId;
+    private String bookTitle;
+    private String barcode;
+    private LocalDate loanDate;
+    private LocalDate dueDate;
+    private LocalDate returnDate;
+    private LoanStatus status;
+}
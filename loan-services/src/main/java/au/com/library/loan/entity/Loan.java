@@ -3,6 +3,7 @@ package au.com.library.loan.entity;
 import au.com.library.shared.exception.ConflictException;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 
@@ -10,10 +11,24 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @Getter
 @Entity
+// Each listing filter has an index ending in (due_date, id), the key of its keyset pagination,
+// so a page is read in index order from the last row of the previous page.
+@Table(indexes = {
+        @Index(name = "idx_loan_due_date_id", columnList = "due_date, id"),
+        @Index(name = "idx_loan_member_id_due_date_id", columnList = "member_id, due_date, id"),
+        @Index(name = "idx_loan_edition_copy_id_due_date_id", columnList = "edition_copy_id, due_date, id"),
+        @Index(name = "idx_loan_status_due_date_id", columnList = "status, due_date, id"),
+        // Used to find the active loan of a copy by its barcode when it is returned
+        @Index(name = "idx_loan_barcode_status", columnList = "barcode, status"),
+        // Used to scan for loans that have become overdue, without revisiting those already detected
+        @Index(name = "idx_loan_status_overdue_detected_due_date_id", columnList = "status, overdue_detected, due_date, id")
+})
 public class Loan {
 
+    // Sequence generated in blocks (emulated by a table on MySQL), so that inserts can be sent as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_seq")
+    @SequenceGenerator(name = "loan_seq", sequenceName = "loan_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -61,6 +76,30 @@ public class Loan {
     @Enumerated(EnumType.STRING)
     private LoanStatus status;
 
+    /**
+     * Set once the loan has been detected as overdue for its current due date, and cleared when it is renewed.
+     */
+    @Column(nullable = false)
+    private boolean overdueDetected;
+
+    /**
+     * Set when the edition copy of this loan could not be confirmed as loaned to it, as it had been reserved for or
+     * lent to another loan after this loan's hold lapsed, so that the loan is reconciled rather than left active
+     * without its copy.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    private boolean reconciliationRequired;
+
+    /**
+     * Incremented with each change to this loan, including the conditional updates made without loading it,
+     * so that an update of a loan that has changed since it was read fails rather than overwriting the change.
+     */
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
     @Builder
     /**
      * Constructs a new Loan entity with the specified parameters.
@@ -147,6 +186,20 @@ public class Loan {
         return dueDate.isBefore(LocalDate.now()) && (status.isActive());
     }
 
+    /**
+     * Records that this loan has been detected as {@link #isOverdue() overdue}, unless it already has been for its
+     * current due date.
+     *
+     * @return true if the loan is overdue and had not yet been detected as overdue; false otherwise.
+     */
+    public boolean detectOverdue(){
+        if(overdueDetected || !isOverdue()){
+            return false;
+        }
+        overdueDetected = true;
+        return true;
+    }
+
     /**
      * Marks a loan as {@link LoanStatus#LOST lost} when it has been determined to be overdue for a significant period.
      *
@@ -164,6 +217,7 @@ public class Loan {
 
     private void handleRenewal(int loanPeriodDays){
         dueDate = dueDate.plusDays(loanPeriodDays);
+        overdueDetected = false;
         if (status.isBorrowed()) {
             status = LoanStatus.RENEWED;
         }
@@ -0,0 +1,87 @@
+package au.com.library.loan.entity;
+
+import au.com.library.contracts.event.loan.LoanEvent;
+import au.com.library.contracts.event.loan.LoanEventContext;
+import au.com.library.contracts.event.loan.LoanEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A {@link LoanEvent loan event} awaiting publication to Kafka. Outbox events are written in the same transaction
+ * as the {@link Loan loan} change that raised them, so an event is recorded if and only if the change is committed.
+ * They are then published, in id order, by the {@link au.com.library.loan.kafka.outbox.OutboxRelay outbox relay},
+ * which records the {@link #getPublishedAt() date/time of publication}.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Entity
+@Table(
+        name = "loan_event_outbox",
+        indexes = @Index(name = "idx_outbox_published_at_id", columnList = "published_at, id")
+)
+public class OutboxEvent {
+
+    // Kept as an identity, unlike the other entities: the id is published as the loan event id, which must
+    // increase with each event raised for a copy, and ids allocated in blocks per instance would not
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private LoanEventType eventType;
+
+    @Column(nullable = false)
+    private Long loanId;
+
+    @Column(nullable = false)
+    private Long memberId;
+
+    @Column(nullable = false)
+    private Long editionCopyId;
+
+    /**
+     * The token of the hold confirmed by a {@link LoanEventType#LOAN_CREATED created} loan. Null for the other
+     * event types.
+     */
+    @Column(length = 36)
+    private String holdToken;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Set when the event has been published. Will be null until then.
+     */
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    /**
+     * Constructs a new, unpublished outbox event.
+     * @param eventType The type of the loan event to publish.
+     * @param context The context of the loan event to publish.
+     */
+    public OutboxEvent(LoanEventType eventType, LoanEventContext context) {
+        this.eventType = eventType;
+        this.loanId = context.loanId();
+        this.memberId = context.memberId();
+        this.editionCopyId = context.editionCopyId();
+        this.holdToken = context.holdToken();
+        this.createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Constructs the {@link LoanEvent loan event} to publish. The {@link #getId() id} of this outbox event is used
+     * as the event id: the events for an edition copy are raised one after another, so their ids increase with
+     * each event for the copy.
+     * @return The loan event.
+     */
+    public LoanEvent toLoanEvent() {
+        return new LoanEvent(id, eventType, new LoanEventContext(loanId, memberId, editionCopyId, holdToken));
+    }
+}
@@ -44,6 +44,9 @@ public class ClientErrorDecoder implements ErrorDecoder {
                 return new ResourceNotFoundException(error.getMessage());
             } else if(response.status() == HttpStatus.BAD_REQUEST.value()){
                 return new BadRequestException(error.getMessage());
+            } else if(response.status() == HttpStatus.CONFLICT.value()){
+                // Only raised by the book service, when a copy to reserve is not available
+                return new CopyUnavailableException(error.getMessage());
             }
         } catch (IOException e) {
             LOGGER.error(e.getMessage(), e);
@@ -0,0 +1,10 @@
+package au.com.library.loan.exception;
+
+/**
+ * Thrown when the book and member services did not respond within the configured lookup timeout.
+ */
+public class LookupTimeoutException extends RuntimeException {
+    public LookupTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -29,6 +29,19 @@ public class ServiceExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
     }
 
+    /**
+     * Handles a {@link LookupTimeoutException} which is thrown when the book and member services did not respond in time.
+     *
+     * @param exception A reference to the {@link LookupTimeoutException} object.
+     * @param request   The {@link WebRequest} object.
+     * @return The {@link ResponseEntity} object containing the error details.
+     */
+    @ExceptionHandler
+    public ResponseEntity<ErrorDetails> handleLookupTimeoutException(LookupTimeoutException exception, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now(), exception.getMessage(), request.getDescription(false), "LOOKUP_TIMEOUT");
+        return new ResponseEntity<>(errorDetails, HttpStatus.GATEWAY_TIMEOUT);
+    }
+
     /**
      * Handles a {@link ResourceNotFoundException}.
      * @param exception A reference to the {@link ResourceNotFoundException} object.
@@ -0,0 +1,48 @@
+package au.com.library.loan.kafka;
+
+import au.com.library.contracts.event.change.ChangeEvent;
+import au.com.library.contracts.event.change.ChangeEventType;
+import au.com.library.loan.client.cache.SnapshotCache;
+import au.com.library.loan.service.LoanService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Subscribes to change events from Kafka, evicts the details of changed members from the {@link SnapshotCache} and
+ * marks conflicted loans as requiring reconciliation.
+ * <p>
+ * Every instance of the loan service holds its own cache, so each instance subscribes with its own
+ * consumer group and therefore receives every change event. A conflicted loan is therefore marked by every
+ * instance, which is harmless as only the first mark changes it.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeEventSubscriber {
+
+    private final SnapshotCache snapshotCache;
+    private final LoanService loanService;
+
+    /**
+     * Subscribes to change events, evicts the details of the member changed, if any, and marks the loan
+     * conflicted, if any. Book and edition changes are ignored, as their details are not cached.
+     *
+     * @param eventPayload The payload of the change event.
+     * @throws IllegalArgumentException if the payload is null.
+     */
+    @KafkaListener(
+            topics = "${spring.kafka.topic.change-event}",
+            groupId = "${spring.application.name}-${random.uuid}"
+    )
+    public void subscribe(@Payload ChangeEvent eventPayload) {
+        if(eventPayload == null){
+            throw new IllegalArgumentException("The event payload cannot be null");
+        }
+        if (eventPayload.eventType() == ChangeEventType.MEMBER_UPDATED) {
+            snapshotCache.evictMember(eventPayload.id());
+        } else if (eventPayload.eventType() == ChangeEventType.LOAN_CONFLICTED) {
+            loanService.markReconciliationRequired(eventPayload.id());
+        }
+    }
+}
@@ -3,40 +3,42 @@ package au.com.library.loan.kafka;
 import au.com.library.contracts.event.loan.LoanEvent;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.admin.NewTopic;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.event.TransactionPhase;
-import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Publishes loan events to Kafka topics.
+ * Publishes loan events to Kafka topics. Events are keyed by edition copy id, so that all the events for a copy
+ * are published to the same partition and consumed in order.
+ *
+ * @see au.com.library.loan.kafka.outbox.OutboxRelay
  */
 @Component
 @RequiredArgsConstructor
 public class LoanEventPublisher {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(LoanEventPublisher.class);
-
     private final KafkaTemplate<String, Object> template;
     private final NewTopic loanEventTopic;
 
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
-    public void publish(LoanEvent event){
+    /**
+     * Sends a loan event to the loan event topic.
+     *
+     * @param event The event to publish.
+     * @return A {@link CompletableFuture} completed when the event has been acknowledged by the broker,
+     * or completed exceptionally if the send failed.
+     */
+    public CompletableFuture<SendResult<String, Object>> publish(LoanEvent event){
         if(event == null){
             throw new IllegalArgumentException("The event to publish cannot be null");
         }
         var message = MessageBuilder.withPayload(event).
                 setHeader(KafkaHeaders.TOPIC, loanEventTopic.name()).
-                setHeader(KafkaHeaders.KEY, String.valueOf(event.context().loanId())).
+                setHeader(KafkaHeaders.KEY, String.valueOf(event.context().editionCopyId())).
                 build();
-        template.send(message).whenComplete((_, ex) -> {;
-            if (ex != null) {
-                LOGGER.error("Failed to send message: {0}", ex.getMessage());
-            }
-        });
+        return template.send(message);
     }
 }
@@ -16,14 +16,18 @@ public class LoanTopicConfig {
     @Value("${spring.kafka.topic.loan-event}")
     private String loanEventTopic;
 
+    @Value("${spring.kafka.topic.loan-event-partitions}")
+    private int loanEventPartitions;
+
     /**
-     * Creates a Kafka topic for loan events.
+     * Creates a Kafka topic for loan events. As events are keyed by edition copy id, the topic may be spread
+     * over many partitions without the events for a copy being consumed out of order.
      *
      * @return a NewTopic instance representing the loan event topic.
      */
     @Bean
     public NewTopic loanEventTopic() {
-        return TopicBuilder.name(loanEventTopic).build();
+        return TopicBuilder.name(loanEventTopic).partitions(loanEventPartitions).build();
     }
 
     @PostConstruct
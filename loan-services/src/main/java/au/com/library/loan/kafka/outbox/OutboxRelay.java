@@ -0,0 +1,189 @@
+package au.com.library.loan.kafka.outbox;
+
+import au.com.library.loan.entity.OutboxEvent;
+import au.com.library.loan.kafka.LoanEventPublisher;
+import au.com.library.loan.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Relays the {@link OutboxEvent events} written to the outbox to Kafka, giving at-least-once delivery of loan events
+ * without adding the Kafka round trip to the loan request itself.
+ * <p>
+ * Every <code>loan.outbox.linger-ms</code> the relay drains the outbox in batches of up to
+ * <code>loan.outbox.batch-size</code> events. The outbox is split into <code>loan.outbox.parallelism</code>
+ * shards by edition copy id, each drained concurrently and in id order, so the events for a copy are published in
+ * the order they were raised. Events are marked as published once acknowledged by the broker; an event that fails to
+ * send remains in the outbox, together with the later events for the same copy, which are not sent, and they are
+ * retried in order on the next run.
+ * <p>
+ * The number of unpublished events and the age of the oldest of them are published as the
+ * <code>loan.outbox.backlog</code> and <code>loan.outbox.lag</code> gauges.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository repository;
+    private final LoanEventPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final int parallelism;
+    private final Duration retention;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter published;
+    private final Counter failed;
+
+    public OutboxRelay(OutboxEventRepository repository,
+                       LoanEventPublisher publisher,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${loan.outbox.batch-size}") int batchSize,
+                       @Value("${loan.outbox.parallelism}") int parallelism,
+                       @Value("${loan.outbox.retention-hours}") long retentionHours) {
+        if(batchSize <= 0 || parallelism <= 0){
+            throw new IllegalArgumentException("The outbox batch size and parallelism must be greater than zero");
+        }
+        this.repository = repository;
+        this.publisher = publisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.retention = Duration.ofHours(retentionHours);
+
+        Gauge.builder("loan.outbox.backlog", backlog, AtomicLong::get).
+                description("The number of loan events waiting to be published").
+                register(meterRegistry);
+        Gauge.builder("loan.outbox.lag", lagMillis, AtomicLong::get).
+                description("The age in milliseconds of the oldest loan event waiting to be published").
+                baseUnit("milliseconds").
+                register(meterRegistry);
+        this.published = Counter.builder("loan.outbox.published").
+                description("The number of loan events published from the outbox").
+                register(meterRegistry);
+        this.failed = Counter.builder("loan.outbox.failed").
+                description("The number of loan event sends that failed and will be retried").
+                register(meterRegistry);
+    }
+
+    /**
+     * Drains every shard of the outbox concurrently, then refreshes the backlog and lag gauges.
+     */
+    @Scheduled(fixedDelayString = "${loan.outbox.linger-ms}")
+    public void relay() {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int shard = 0; shard < parallelism; shard++) {
+                int current = shard;
+                executor.submit(() -> drain(current));
+            }
+        }
+        updateGauges();
+    }
+
+    /**
+     * Deletes events that were published longer ago than the configured retention period.
+     */
+    @Scheduled(cron = "${loan.outbox.purge-cron}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Integer deleted = transactionTemplate.execute(_ -> repository.deletePublishedBefore(cutoff));
+        LOGGER.info("Purged {} published loan events from the outbox", deleted);
+    }
+
+    /**
+     * Publishes batches from the shard until it is empty or a send fails.
+     */
+    private void drain(int shard) {
+        try {
+            boolean more = true;
+            while (more) {
+                List<OutboxEvent> batch = repository.findUnpublished(shard, parallelism, PageRequest.of(0, batchSize));
+                if (batch.isEmpty()) {
+                    return;
+                }
+                List<Long> sent = send(batch);
+                if (!sent.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(_ -> repository.markPublished(sent, LocalDateTime.now()));
+                    published.increment(sent.size());
+                }
+                more = batch.size() == batchSize && sent.size() == batch.size();
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to relay outbox shard {}: {}", shard, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sends the batch, returning the ids of the events that were sent. The events for different edition copies are
+     * sent without waiting for each other's acknowledgements.
+     */
+    private List<Long> send(List<OutboxEvent> batch) {
+        Map<Long, List<OutboxEvent>> byCopy = batch.stream().
+                collect(Collectors.groupingBy(OutboxEvent::getEditionCopyId, LinkedHashMap::new, Collectors.toList()));
+        List<CompletableFuture<List<Long>>> sends = byCopy.values().stream().map(this::sendInOrder).toList();
+        return sends.stream().flatMap(sent -> sent.join().stream()).toList();
+    }
+
+    /**
+     * Sends the events for an edition copy one after another, each once the previous one has been acknowledged, and
+     * stops at the first that fails. A later event for the copy must not be delivered before a failed one: the
+     * book service skips events older than the last it applied for a copy, so the failed event would be lost when
+     * it is retried.
+     */
+    private CompletableFuture<List<Long>> sendInOrder(List<OutboxEvent> events) {
+        List<Long> sent = new ArrayList<>();
+        CompletableFuture<Boolean> previousSent = CompletableFuture.completedFuture(true);
+        for (OutboxEvent event : events) {
+            previousSent = previousSent.thenCompose(ok -> !ok ? CompletableFuture.completedFuture(false) :
+                    publish(event).handle((_, ex) -> {
+                        if (ex != null) {
+                            LOGGER.warn("Failed to send outbox event {}: {}", event.getId(), ex.getMessage());
+                            failed.increment();
+                            return false;
+                        }
+                        sent.add(event.getId());
+                        return true;
+                    }));
+        }
+        return previousSent.thenApply(_ -> sent);
+    }
+
+    private CompletableFuture<?> publish(OutboxEvent event) {
+        try {
+            return publisher.publish(event.toLoanEvent());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void updateGauges() {
+        backlog.set(repository.countByPublishedAtIsNull());
+        lagMillis.set(repository.findFirstByPublishedAtIsNullOrderByIdAsc().
+                map(oldest -> Duration.between(oldest.getCreatedAt(), LocalDateTime.now()).toMillis()).
+                orElse(0L));
+    }
+}
@@ -0,0 +1,18 @@
+package au.com.library.loan.mapper;
+
+import au.com.library.loan.dto.LoanResponseDTO;
+import au.com.library.loan.entity.Loan;
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * Maps {@link Loan loans} to {@link LoanResponseDTO loan responses}. The implementation is generated
+ * at compile time.
+ */
+@Mapper
+public interface LoanMapper {
+
+    LoanMapper INSTANCE = Mappers.getMapper(LoanMapper.class);
+
+    LoanResponseDTO toDTO(Loan loan);
+}
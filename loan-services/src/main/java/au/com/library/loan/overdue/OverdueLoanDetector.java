@@ -0,0 +1,160 @@
+package au.com.library.loan.overdue;
+
+import au.com.library.contracts.event.loan.LoanEventContext;
+import au.com.library.loan.entity.Loan;
+import au.com.library.loan.entity.LoanStatus;
+import au.com.library.loan.entity.OutboxEvent;
+import au.com.library.loan.repository.LoanRepository;
+import au.com.library.loan.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static au.com.library.contracts.event.loan.LoanEventType.LOAN_OVERDUE;
+
+/**
+ * Detects active loans that have become overdue, raising a {@link au.com.library.contracts.event.loan.LoanEventType#LOAN_OVERDUE
+ * loan overdue} event for each, and optionally marks long overdue loans as lost.
+ * <p>
+ * On each run, the {@link LoanStatus#BORROWED borrowed} and then the {@link LoanStatus#RENEWED renewed} loans due
+ * before today that have not yet been detected are scanned in chunks of <code>loan.overdue.chunk-size</code>, in
+ * due date and then id order, each chunk continuing from the last loan of the one before. Each chunk is locked,
+ * flagged as detected and has its events written to the outbox in one transaction, so a loan returned or renewed
+ * concurrently is not reported, and instances running the scan at the same time do not report a loan twice.
+ * <p>
+ * When <code>loan.overdue.auto-lost-days</code> is greater than zero, the active loans overdue by more than that
+ * many days are then marked as lost, with one set-based insert of their lost events and one set-based update.
+ * <p>
+ * The run duration is published as the <code>loan.overdue.run</code> timer, and the loans scanned, detected as
+ * overdue and marked as lost as the <code>loan.overdue.scanned</code>, <code>loan.overdue.detected</code> and
+ * <code>loan.overdue.marked-lost</code> counters.
+ */
+@Component
+public class OverdueLoanDetector {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OverdueLoanDetector.class);
+
+    private final LoanRepository loanRepository;
+    private final OutboxEventRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+    private final int autoLostDays;
+
+    private final Timer run;
+    private final Counter scanned;
+    private final Counter detected;
+    private final Counter markedLost;
+
+    /**
+     * The outcome of a chunk: the number of loans read and detected, and the last loan read.
+     */
+    private record Chunk(int read, int detected, Loan last) {
+    }
+
+    public OverdueLoanDetector(LoanRepository loanRepository,
+                               OutboxEventRepository outboxRepository,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${loan.overdue.chunk-size}") int chunkSize,
+                               @Value("${loan.overdue.auto-lost-days}") int autoLostDays) {
+        if(chunkSize <= 0 || autoLostDays < 0){
+            throw new IllegalArgumentException("The overdue chunk size must be greater than zero and the auto lost days cannot be negative");
+        }
+        this.loanRepository = loanRepository;
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.autoLostDays = autoLostDays;
+
+        this.run = Timer.builder("loan.overdue.run").
+                description("The duration of the overdue loan detection runs").
+                register(meterRegistry);
+        this.scanned = Counter.builder("loan.overdue.scanned").
+                description("The number of loans read by the overdue loan detection").
+                register(meterRegistry);
+        this.detected = Counter.builder("loan.overdue.detected").
+                description("The number of loans detected as overdue").
+                register(meterRegistry);
+        this.markedLost = Counter.builder("loan.overdue.marked-lost").
+                description("The number of long overdue loans marked as lost").
+                register(meterRegistry);
+    }
+
+    /**
+     * Detects the loans that have become overdue, then marks the long overdue loans as lost if enabled.
+     */
+    @Scheduled(cron = "${loan.overdue.cron}")
+    public void detect() {
+        run.record(() -> {
+            LocalDate today = LocalDate.now();
+            try {
+                int found = scan(LoanStatus.BORROWED, today) + scan(LoanStatus.RENEWED, today);
+                int lost = autoLostDays > 0 ? markLost(today.minusDays(autoLostDays)) : 0;
+                LOGGER.info("Overdue loan detection completed: {} loans detected as overdue, {} marked as lost", found, lost);
+            } catch (RuntimeException e) {
+                LOGGER.error("Overdue loan detection failed: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Scans the newly overdue loans with the specified status, chunk by chunk.
+     * @return The number of loans detected as overdue.
+     */
+    private int scan(LoanStatus status, LocalDate today) {
+        int found = 0;
+        Loan last = null;
+        Chunk chunk;
+        do {
+            LocalDate afterDueDate = last == null ? null : last.getDueDate();
+            Long afterId = last == null ? null : last.getId();
+            chunk = transactionTemplate.execute(_ -> detectChunk(status, today, afterDueDate, afterId));
+            scanned.increment(chunk.read());
+            detected.increment(chunk.detected());
+            found += chunk.detected();
+            last = chunk.last();
+        } while (chunk.read() == chunkSize);
+        return found;
+    }
+
+    private Chunk detectChunk(LoanStatus status, LocalDate today, LocalDate afterDueDate, Long afterId) {
+        List<Loan> loans = loanRepository.findNewlyOverdue(status, today, afterDueDate, afterId, PageRequest.of(0, chunkSize));
+        // Re-checked on the locked loans, which may have been returned, renewed or detected since they were matched
+        List<OutboxEvent> events = loans.stream().
+                filter(Loan::detectOverdue).
+                map(loan -> new OutboxEvent(LOAN_OVERDUE, new LoanEventContext(loan.getId(), loan.getMemberId(), loan.getEditionCopyId()))).
+                toList();
+        outboxRepository.saveAll(events);
+        return new Chunk(loans.size(), events.size(), loans.isEmpty() ? null : loans.getLast());
+    }
+
+    /**
+     * Marks the active loans due before the cutoff as lost, writing their lost events to the outbox.
+     * @return The number of loans marked as lost.
+     */
+    private int markLost(LocalDate cutoff) {
+        Integer lost = transactionTemplate.execute(_ -> {
+            int events = outboxRepository.insertLostEventsDueBefore(cutoff, LocalDateTime.now());
+            int updated = loanRepository.markLostDueBefore(cutoff);
+            if (events != updated) {
+                throw new IllegalStateException(String.format(
+                        "%d lost events were written for %d loans marked as lost; the changes were rolled back", events, updated));
+            }
+            return updated;
+        });
+        markedLost.increment(lost);
+        return lost;
+    }
+}
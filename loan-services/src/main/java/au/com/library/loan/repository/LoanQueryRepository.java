@@ -0,0 +1,27 @@
+package au.com.library.loan.repository;
+
+import au.com.library.loan.dto.LoanFilter;
+import au.com.library.loan.dto.LoanSummaryDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Loan listing queries whose filters are optional, and so are built at run time.
+ *
+ * @see LoanRepository
+ */
+public interface LoanQueryRepository {
+
+    /**
+     * Retrieves a page of the loans matching a filter, ordered by due date and then id, using keyset pagination:
+     * the page starts after the specified due date and id, rather than at an offset, so each page costs the same
+     * however deep into the listing it is.
+     * @param filter The filter of the listing.
+     * @param afterDueDate The due date of the last loan of the previous page, or null for the first page.
+     * @param afterId The id of the last loan of the previous page, or null for the first page.
+     * @param limit The maximum number of loans retrieved.
+     * @return A {@link List} of {@link LoanSummaryDTO loan summaries} or an empty List if there are no more loans.
+     */
+    List<LoanSummaryDTO> findPage(LoanFilter filter, LocalDate afterDueDate, Long afterId, int limit);
+}
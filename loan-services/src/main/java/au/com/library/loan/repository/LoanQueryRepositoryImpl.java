@@ -0,0 +1,100 @@
+package au.com.library.loan.repository;
+
+import au.com.library.loan.dto.LoanFilter;
+import au.com.library.loan.dto.LoanSummaryDTO;
+import au.com.library.loan.entity.Loan;
+import au.com.library.loan.entity.LoanStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The {@link LoanQueryRepository} implementation, which only adds the predicates of the filters that are set, so
+ * that a listing filtered by member, copy or a single status can be read in order from the index on its filter
+ * column followed by <code>(due_date, id)</code>.
+ * <p>
+ * A listing of several statuses cannot be read in order from <code>(status, due_date, id)</code>, as its rows are
+ * ordered by status first, so it is read as one page per status, each from the index, and the pages are merged.
+ */
+public class LoanQueryRepositoryImpl implements LoanQueryRepository {
+
+    private static final Comparator<LoanSummaryDTO> LISTING_ORDER =
+            Comparator.comparing(LoanSummaryDTO::getDueDate).thenComparing(LoanSummaryDTO::getId);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<LoanSummaryDTO> findPage(LoanFilter filter, LocalDate afterDueDate, Long afterId, int limit) {
+        Set<LoanStatus> statuses = filter.statuses() == null ? Set.of() : filter.statuses();
+        if (statuses.size() <= 1) {
+            return findPage(filter, statuses.isEmpty() ? null : statuses.iterator().next(), afterDueDate, afterId, limit);
+        }
+        return statuses.stream().
+                flatMap(status -> findPage(filter, status, afterDueDate, afterId, limit).stream()).
+                sorted(LISTING_ORDER).
+                limit(limit).
+                toList();
+    }
+
+    /**
+     * Retrieves a page of the loans matching a filter, with its statuses replaced by a single status.
+     *
+     * @param status The status of the loans, or null for every status.
+     */
+    private List<LoanSummaryDTO> findPage(LoanFilter filter, LoanStatus status, LocalDate afterDueDate, Long afterId,
+                                          int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LoanSummaryDTO> query = builder.createQuery(LoanSummaryDTO.class);
+        Root<Loan> loan = query.from(Loan.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.memberId() != null) {
+            predicates.add(builder.equal(loan.get("memberId"), filter.memberId()));
+        }
+        if (filter.editionCopyId() != null) {
+            predicates.add(builder.equal(loan.get("editionCopyId"), filter.editionCopyId()));
+        }
+        if (status != null) {
+            predicates.add(builder.equal(loan.get("status"), status));
+        }
+        if (filter.dueFrom() != null) {
+            predicates.add(builder.greaterThanOrEqualTo(loan.get("dueDate"), filter.dueFrom()));
+        }
+        if (filter.dueTo() != null) {
+            predicates.add(builder.lessThanOrEqualTo(loan.get("dueDate"), filter.dueTo()));
+        }
+        if (afterDueDate != null && afterId != null) {
+            predicates.add(builder.or(
+                    builder.greaterThan(loan.get("dueDate"), afterDueDate),
+                    builder.and(
+                            builder.equal(loan.get("dueDate"), afterDueDate),
+                            builder.greaterThan(loan.get("id"), afterId))));
+        }
+
+        query.select(builder.construct(LoanSummaryDTO.class,
+                        loan.get("id"),
+                        loan.get("memberId"),
+                        loan.get("memberFirstName"),
+                        loan.get("memberLastName"),
+                        loan.get("editionCopyId"),
+                        loan.get("bookTitle"),
+                        loan.get("barcode"),
+                        loan.get("loanDate"),
+                        loan.get("dueDate"),
+                        loan.get("returnDate"),
+                        loan.get("status"))).
+                where(predicates.toArray(Predicate[]::new)).
+                orderBy(builder.asc(loan.get("dueDate")), builder.asc(loan.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
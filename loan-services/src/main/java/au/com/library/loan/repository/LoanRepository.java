@@ -1,7 +1,104 @@
 package au.com.library.loan.repository;
 
 import au.com.library.loan.entity.Loan;
+import au.com.library.loan.entity.LoanStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface LoanRepository extends JpaRepository<Loan,Long> {
+import java.time.LocalDate;
+import java.util.List;
+
+public interface LoanRepository extends JpaRepository<Loan,Long>, LoanQueryRepository {
+
+    /**
+     * Retrieves and locks the loans with the specified status that are due before the specified date and have not
+     * yet been detected as overdue, in due date and then id order, starting after the specified due date and id.
+     * @param status The status of the loans.
+     * @param today The current date; loans due before it are overdue.
+     * @param afterDueDate The due date of the last loan of the previous chunk, or null for the first chunk.
+     * @param afterId The id of the last loan of the previous chunk, or null for the first chunk.
+     * @param pageable Limits the number of loans retrieved.
+     * @return A {@link List} of newly overdue {@link Loan loans} or an empty List if there are no more.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select l from Loan l
+            where l.status = :status and l.overdueDetected = false and l.dueDate < :today
+            and (:afterId is null or l.dueDate > :afterDueDate or (l.dueDate = :afterDueDate and l.id > :afterId))
+            order by l.dueDate, l.id""")
+    List<Loan> findNewlyOverdue(@Param("status") LoanStatus status,
+                                @Param("today") LocalDate today,
+                                @Param("afterDueDate") LocalDate afterDueDate,
+                                @Param("afterId") Long afterId,
+                                Pageable pageable);
+
+    /**
+     * Retrieves the ids of the active loans of the edition copy with the specified barcode, latest first, without
+     * loading the loans, so that a loan then returned with a conditional update is not left stale in the
+     * persistence context.
+     * @param barcode The barcode of the edition copy.
+     * @return A {@link List} of the ids of the active loans, of which there is normally at most one.
+     */
+    @Query("""
+            select l.id from Loan l
+            where l.barcode = :barcode
+            and l.status in (au.com.library.loan.entity.LoanStatus.BORROWED, au.com.library.loan.entity.LoanStatus.RENEWED)
+            order by l.id desc""")
+    List<Long> findActiveIdsByBarcode(@Param("barcode") String barcode);
+
+    /**
+     * Marks a loan as returned if it is active, in a single conditional update rather than by reading it first.
+     * @param id The id of the loan.
+     * @param returnDate The date the loan was returned.
+     * @return 1 if the loan was returned, or 0 if the loan could not be found or is not active.
+     */
+    @Modifying
+    @Query("""
+            update Loan l set l.status = au.com.library.loan.entity.LoanStatus.RETURNED, l.returnDate = :returnDate,
+            l.version = l.version + 1
+            where l.id = :id
+            and l.status in (au.com.library.loan.entity.LoanStatus.BORROWED, au.com.library.loan.entity.LoanStatus.RENEWED)""")
+    int returnIfActive(@Param("id") Long id, @Param("returnDate") LocalDate returnDate);
+
+    /**
+     * Marks a loan as lost if it is active and due before the specified date, i.e. overdue, in a single conditional
+     * update rather than by reading it first.
+     * @param id The id of the loan.
+     * @param today The current date.
+     * @return 1 if the loan was marked as lost, or 0 if the loan could not be found or is not overdue.
+     */
+    @Modifying
+    @Query("""
+            update Loan l set l.status = au.com.library.loan.entity.LoanStatus.LOST, l.version = l.version + 1
+            where l.id = :id and l.dueDate < :today
+            and l.status in (au.com.library.loan.entity.LoanStatus.BORROWED, au.com.library.loan.entity.LoanStatus.RENEWED)""")
+    int markLostIfOverdue(@Param("id") Long id, @Param("today") LocalDate today);
+
+    /**
+     * Marks a loan as requiring reconciliation, in a single conditional update rather than by reading it first.
+     * @param id The id of the loan.
+     * @return 1 if the loan was marked, or 0 if the loan could not be found or was already marked.
+     */
+    @Modifying
+    @Query("""
+            update Loan l set l.reconciliationRequired = true, l.version = l.version + 1
+            where l.id = :id and l.reconciliationRequired = false""")
+    int markReconciliationRequired(@Param("id") Long id);
+
+    /**
+     * Marks the active loans due before the specified date as lost, in a single update.
+     * @param cutoff The date before which active loans are due to be marked as lost.
+     * @return The number of loans marked as lost.
+     */
+    @Modifying
+    @Query("""
+            update Loan l set l.status = au.com.library.loan.entity.LoanStatus.LOST, l.version = l.version + 1
+            where l.status in (au.com.library.loan.entity.LoanStatus.BORROWED, au.com.library.loan.entity.LoanStatus.RENEWED)
+            and l.dueDate < :cutoff""")
+    int markLostDueBefore(@Param("cutoff") LocalDate cutoff);
 }
@@ -0,0 +1,82 @@
+package au.com.library.loan.repository;
+
+import au.com.library.loan.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The {@link JpaRepository} extension for {@link OutboxEvent} entities.
+ */
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Retrieves the unpublished events of a shard in id order. Events are sharded by edition copy id, so all the
+     * events for a copy belong to the same shard and are published in the order they were raised.
+     * @param shard The shard, from 0 to <code>shards - 1</code>.
+     * @param shards The total number of shards.
+     * @param pageable Limits the number of events retrieved.
+     * @return A {@link List} of unpublished {@link OutboxEvent events} or an empty List if there are none.
+     */
+    @Query("""
+            select o from OutboxEvent o
+            where o.publishedAt is null and mod(o.editionCopyId, :shards) = :shard
+            order by o.id""")
+    List<OutboxEvent> findUnpublished(@Param("shard") int shard, @Param("shards") int shards, Pageable pageable);
+
+    /**
+     * Marks the events with the specified ids as published.
+     * @param ids The ids of the published events.
+     * @param publishedAt The date/time of publication.
+     * @return The number of events updated.
+     */
+    @Modifying
+    @Query("update OutboxEvent o set o.publishedAt = :publishedAt where o.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    /**
+     * Writes a {@link au.com.library.contracts.event.loan.LoanEventType#LOAN_MARKED_LOST lost} event, in loan id
+     * order, for each active loan due before the specified date, in a single insert. Used together with
+     * {@link LoanRepository#markLostDueBefore(java.time.LocalDate)}, in the same transaction and with the same date,
+     * to mark those loans as lost: InnoDB locks the loans read by the insert, so the update matches the same loans.
+     * @param cutoff The date before which active loans are due to be marked as lost.
+     * @param createdAt The creation date/time of the events.
+     * @return The number of events written.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            insert into loan_event_outbox (event_type, loan_id, member_id, edition_copy_id, created_at)
+            select 'LOAN_MARKED_LOST', id, member_id, edition_copy_id, :createdAt from loan
+            where status in ('BORROWED', 'RENEWED') and due_date < :cutoff
+            order by id""")
+    int insertLostEventsDueBefore(@Param("cutoff") LocalDate cutoff, @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Deletes the events published before the specified date/time.
+     * @param cutoff The date/time before which published events are deleted.
+     * @return The number of events deleted.
+     */
+    @Modifying
+    @Query("delete from OutboxEvent o where o.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Counts the events yet to be published.
+     * @return The number of unpublished events.
+     */
+    long countByPublishedAtIsNull();
+
+    /**
+     * Retrieves the oldest event yet to be published.
+     * @return An {@link Optional} object containing the oldest unpublished {@link OutboxEvent event}.
+     */
+    Optional<OutboxEvent> findFirstByPublishedAtIsNullOrderByIdAsc();
+}
@@ -1,9 +1,12 @@
 package au.com.library.loan.service;
 
+import au.com.library.loan.dto.LoanFilter;
+import au.com.library.loan.dto.LoanPageDTO;
 import au.com.library.loan.dto.LoanRequestDTO;
 import au.com.library.loan.dto.LoanResponseDTO;
 import au.com.library.loan.entity.Loan;
 import au.com.library.loan.exception.CopyUnavailableException;
+import au.com.library.shared.exception.BadRequestException;
 import au.com.library.shared.exception.ConflictException;
 import au.com.library.shared.exception.ResourceNotFoundException;
 
@@ -25,11 +28,14 @@ public interface LoanService {
      *  </ul>
      *  These will be used, along additional data from the book and member services, to create a {@link au.com.library.loan.entity.Loan loan}.
      *
+     * The copy may be identified by its barcode, e.g. as scanned at a desk, rather than its id.
+     *
      * @param loanRequestDTO A {@link LoanRequestDTO} object containing the above data.
      * @return A {@link LoanResponseDTO} object containing the new loan details.
+     * @throws BadRequestException Thrown when neither the id nor the barcode of the copy is specified.
      * @throws CopyUnavailableException Thrown when the request copy of a book is unavailable.
      */
-    LoanResponseDTO createLoan(LoanRequestDTO loanRequestDTO) throws CopyUnavailableException;
+    LoanResponseDTO createLoan(LoanRequestDTO loanRequestDTO) throws BadRequestException, CopyUnavailableException;
 
     /**
      * Handles the renewal of an existing loan. A renewal may only be performed if the loan is current (i.e {@link au.com.library.loan.entity.LoanStatus#BORROWED borrowed} or
@@ -52,6 +58,15 @@ public interface LoanService {
      */
     LoanResponseDTO returnLoan(Long id) throws ConflictException, ResourceNotFoundException, IllegalArgumentException;
 
+    /**
+     * Handles the returning of the active loan of an edition copy, identified by its barcode, as {@link #returnLoan(Long)} does.
+     * @param barcode The barcode of the returned edition copy.
+     * @return A {@link LoanResponseDTO} object containing details of the returned loan.
+     * @throws ConflictException Thrown when the loan has already been returned.
+     * @throws ResourceNotFoundException Thrown when no active loan of the edition copy could be found.
+     */
+    LoanResponseDTO returnLoanByBarcode(String barcode) throws ConflictException, ResourceNotFoundException;
+
     /**
      * Handles marking an {@link Loan#isOverdue() overdue} loan as lost. The {@link au.com.library.loan.entity.LoanStatus} will be changed to {@link au.com.library.loan.entity.LoanStatus#LOST lost}
      * and the books service will be notified.
@@ -63,6 +78,14 @@ public interface LoanService {
      */
     LoanResponseDTO markLost(Long id) throws ConflictException, ResourceNotFoundException, IllegalArgumentException;
 
+    /**
+     * Handles marking a loan as requiring reconciliation, when its edition copy could not be confirmed as loaned to
+     * it because the copy had been reserved for or lent to another loan after the loan's hold lapsed. Marking a loan
+     * that has already been marked has no effect.
+     * @param id The id of the loan.
+     */
+    void markReconciliationRequired(Long id);
+
     /**
      * Handles a query to find a {@link au.com.library.loan.entity.Loan loan} by its id.
      * @param id The loan id.
@@ -71,4 +94,16 @@ public interface LoanService {
      * @throws IllegalArgumentException Thrown when the specified loan id is null or less than or equal to zero.
      */
     LoanResponseDTO find(Long id) throws ResourceNotFoundException, IllegalArgumentException;
+
+    /**
+     * Handles a query to list the {@link au.com.library.loan.entity.Loan loans} matching a filter, a page at a time,
+     * ordered by due date and then id. Pages are retrieved with keyset pagination: each page returns a cursor that
+     * is passed to retrieve the page after it.
+     * @param filter The filter of the listing.
+     * @param after The cursor returned with the previous page, or null for the first page.
+     * @param size The maximum number of loans in the page.
+     * @return A {@link LoanPageDTO} object containing the page of loans and the cursor of the next page.
+     * @throws BadRequestException Thrown when the cursor is malformed, the page size is out of range, or the due date range is reversed.
+     */
+    LoanPageDTO findLoans(LoanFilter filter, String after, int size) throws BadRequestException;
 }
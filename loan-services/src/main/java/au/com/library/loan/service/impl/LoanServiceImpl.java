@@ -1,24 +1,35 @@
 package au.com.library.loan.service.impl;
 
-import au.com.library.loan.client.BookClient;
-import au.com.library.loan.client.MemberClient;
+import au.com.library.loan.client.lookup.LoanDetailsLookup;
 import au.com.library.loan.dto.*;
 import au.com.library.loan.entity.Loan;
 import au.com.library.loan.entity.LoanStatus;
+import au.com.library.loan.entity.OutboxEvent;
 import au.com.library.loan.exception.CopyUnavailableException;
+import au.com.library.loan.mapper.LoanMapper;
 import au.com.library.loan.repository.LoanRepository;
+import au.com.library.loan.repository.OutboxEventRepository;
 import au.com.library.loan.service.LoanService;
+import au.com.library.shared.exception.BadRequestException;
 import au.com.library.shared.exception.ConflictException;
 import au.com.library.shared.exception.ResourceNotFoundException;
-import au.com.library.shared.util.Mapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import au.com.library.contracts.event.loan.LoanEvent;
+import org.springframework.transaction.support.TransactionTemplate;
 import au.com.library.contracts.event.loan.LoanEventContext;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 import static au.com.library.contracts.event.loan.LoanEventType.*;
 
 /**
@@ -28,12 +39,16 @@ import static au.com.library.contracts.event.loan.LoanEventType.*;
 @Service
 public class LoanServiceImpl implements LoanService {
 
-    private final BookClient bookClient;
-    private final MemberClient memberClient;
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoanServiceImpl.class);
+
+    private static final String CURSOR_SEPARATOR = "_";
 
-    private final ApplicationEventPublisher eventPublisher;
+    private final LoanDetailsLookup loanDetailsLookup;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
 
     private final LoanRepository repository;
+    private final OutboxEventRepository outboxRepository;
 
     @Value("${loan.period-days}")
     private int loanPeriodDays;
@@ -41,68 +56,121 @@ public class LoanServiceImpl implements LoanService {
     @Value("${renewal.limit}")
     private int renewalLimit;
 
+    @Value("${loan.query.max-page-size}")
+    private int maxPageSize;
+
+    @Value("${loan.update.max-attempts}")
+    private int maxUpdateAttempts;
+
+    @Value("${loan.reservation.confirm-margin-ms}")
+    private long confirmMarginMs;
+
     /**
-     * Creates a new loan for a library book edition copy.
+     * Creates a new loan for a library book edition copy. The copy is held for the loan while the book and member
+     * details are retrieved, and the hold is confirmed by the loan created event. The loan is only committed while
+     * enough of the hold remains for the event to reach the book service before the hold expires; otherwise, or if
+     * the loan cannot be created, the hold is released.
      *
-     * @param loanRequestDTO A {@link LoanRequestDTO} containing the data required to create the loan.
+     * @param loanRequestDTO A {@link LoanRequestDTO} containing the data required to create the loan, with the copy
+     * identified by either its id or its barcode.
      * @return A {@link LoanResponseDTO} containing details of the created loan.
+     * @throws BadRequestException if neither the id nor the barcode of the copy is specified.
      * @throws CopyUnavailableException if the requested edition copy is not available for loan.
+     * @throws au.com.library.loan.exception.LookupTimeoutException if the book and member details could not be retrieved in time.
      */
     @Override
-    @Transactional
-    public LoanResponseDTO createLoan(LoanRequestDTO loanRequestDTO) throws CopyUnavailableException {
-
-        EditionCopySnapshotDTO copy = bookClient.findCopy(loanRequestDTO.getEditionCopyId());
-        if(!copy.getStatus().isAvailable()) {
-            throw new CopyUnavailableException("The copy of the book requested is unavailable");
+    public LoanResponseDTO createLoan(LoanRequestDTO loanRequestDTO) throws BadRequestException, CopyUnavailableException {
+        boolean byBarcode = loanRequestDTO.getEditionCopyId() == null;
+        if (byBarcode && (loanRequestDTO.getBarcode() == null || loanRequestDTO.getBarcode().isBlank())) {
+            throw new BadRequestException("Either the id or the barcode of the edition copy to borrow is required");
         }
-        MemberSnapshotDTO member = memberClient.findMember(loanRequestDTO.getMemberId());
-        EditionSnapshotDTO edition = bookClient.findEdition(copy.getEditionId());
-        BookSnapshotDTO book = bookClient.findBook(edition.getBookId());
+
+        // The remote lookups are made before the transaction is opened, so no database connection
+        // is held while waiting on the book and member services. The hold is timed from before it was
+        // requested, so the deadline is not affected by any difference between the services' clocks.
+        long reservedAt = System.nanoTime();
+        LoanDetails details = byBarcode ?
+                loanDetailsLookup.lookupByBarcode(loanRequestDTO.getBarcode(), loanRequestDTO.getMemberId()) :
+                loanDetailsLookup.lookup(loanRequestDTO.getEditionCopyId(), loanRequestDTO.getMemberId());
+        Long editionCopyId = details.copy().getId();
 
         Loan loan = Loan.builder().
-                editionCopyId(loanRequestDTO.getEditionCopyId()).
-                bookTitle(book.getTitle()).
-                author(book.getAuthor()).
-                edition(edition.getEdition()).
-                barcode(copy.getBarcode()).
-                memberId(member.getId()).
-                memberFirstName(member.getFirstName()).
-                memberLastName(member.getLastName()).
+                editionCopyId(editionCopyId).
+                bookTitle(details.copy().getTitle()).
+                author(details.copy().getAuthor()).
+                edition(details.copy().getEdition()).
+                barcode(details.copy().getBarcode()).
+                memberId(details.member().getId()).
+                memberFirstName(details.member().getFirstName()).
+                memberLastName(details.member().getLastName()).
                 build();
         loan.calculateDueDate(loanPeriodDays);
-        Loan saved = repository.save(loan);
+        long confirmDeadlineMs = details.reservation().getHoldSeconds() * 1000L - confirmMarginMs;
+        Loan saved;
+        try {
+            saved = transactionTemplate.execute(_ -> {
+                Loan created = repository.save(loan);
+                outboxRepository.save(loanCreatedEvent(created, details.reservation().getToken()));
+                if (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - reservedAt) >= confirmDeadlineMs) {
+                    throw new CopyUnavailableException("The hold on the copy of the book requested expired before the loan was created");
+                }
+                return created;
+            });
+        } catch (RuntimeException e) {
+            loanDetailsLookup.release(editionCopyId, details.reservation());
+            throw e;
+        }
+        return LoanMapper.INSTANCE.toDTO(saved);
+    }
 
-        eventPublisher.publishEvent(loanCreatedEvent(saved));
-        return Mapper.map(saved, LoanResponseDTO.class);
+    /**
+     * Returns the active loan of the edition copy with the specified barcode, e.g. as scanned when the copy is handed
+     * back. The barcode of the copy is recorded with each loan, so the loan is found without calling the book service.
+     *
+     * @param barcode The barcode of the edition copy being returned.
+     * @return A {@link LoanResponseDTO} containing details of the returned loan.
+     * @throws ConflictException if the loan is not in a state that allows it to be returned.
+     * @throws ResourceNotFoundException if no active loan of the edition copy could be found.
+     */
+    @Override
+    @Transactional
+    public LoanResponseDTO returnLoanByBarcode(String barcode) throws ConflictException, ResourceNotFoundException {
+        Long id = repository.findActiveIdsByBarcode(barcode).stream().findFirst().orElseThrow(
+                () -> new ResourceNotFoundException(
+                        String.format("No active loan of the edition copy with the barcode %s could be found", barcode)));
+        return returnLoan(id);
     }
 
     /**
-     * Renews an existing loan.
+     * Renews an existing loan. The loan is read, checked and updated in a transaction that fails if the loan was
+     * changed concurrently, in which case it is retried, so concurrent renewals cannot exceed the renewal limit.
      * @param id The id of the loan to renew.
      * @return A {@link LoanResponseDTO} containing details of the renewed loan.
-     * @throws ConflictException
+     * @throws ConflictException Thrown if the loan cannot be renewed, or is still being changed concurrently after the retries.
      * @throws ResourceNotFoundException Thrown if the loan with the specified id could not be found.
      * @throws IllegalArgumentException Thrown if the provided id is null or not a positive non-zero value.
      */
     @Override
     public LoanResponseDTO renewLoan(Long id) throws ConflictException, ResourceNotFoundException, IllegalArgumentException {
         validateId(id);
-        Loan loan = findById(id);
-        if(!loan.getStatus().isActive()){
-            throw new ConflictException(String.format("Only loans with status %s or %s can be renewed",
-                    LoanStatus.BORROWED, LoanStatus.RENEWED));
-        }
-        if(loan.getRenewalCount() >= renewalLimit){
-            throw new ConflictException("The maximum number of renewals has been reached for this loan");
-        }
-        loan.renewLoan(loanPeriodDays);
-        Loan renewed = repository.save(loan);
-        return Mapper.map(renewed, LoanResponseDTO.class);
+        Loan renewed = updateWithRetry(id, () -> {
+            Loan loan = findById(id);
+            if(!loan.getStatus().isActive()){
+                throw new ConflictException(String.format("Only loans with status %s or %s can be renewed",
+                        LoanStatus.BORROWED, LoanStatus.RENEWED));
+            }
+            if(loan.getRenewalCount() >= renewalLimit){
+                throw new ConflictException("The maximum number of renewals has been reached for this loan");
+            }
+            loan.renewLoan(loanPeriodDays);
+            return repository.save(loan);
+        });
+        return LoanMapper.INSTANCE.toDTO(renewed);
     }
 
     /**
-     * Returns a loaned book edition copy.
+     * Returns a loaned book edition copy. The loan is returned with a single conditional update, so a concurrent
+     * return, renewal or loss of the same loan cannot be overwritten; the loan is only read afterwards.
      *
      * @param id The id of the loan to return.
      * @return A {@link LoanResponseDTO} containing details of the returned loan.
@@ -113,15 +181,20 @@ public class LoanServiceImpl implements LoanService {
     @Override
     @Transactional
     public LoanResponseDTO returnLoan(Long id) throws ConflictException, ResourceNotFoundException, IllegalArgumentException {
-        Loan loan = findById(id);
-        loan.returnLoan();
-        Loan saved = repository.save(loan);
-        eventPublisher.publishEvent(loanReturnedEvent(saved));
-        return Mapper.map(saved, LoanResponseDTO.class);
+        validateId(id);
+        if(repository.returnIfActive(id, LocalDate.now()) == 0){
+            // Raises the reason the loan cannot be returned, or that it cannot be found
+            findById(id).returnLoan();
+            throw new ConflictException(String.format("The loan with id %s could not be returned", id));
+        }
+        Loan returned = findById(id);
+        outboxRepository.save(loanReturnedEvent(returned));
+        return LoanMapper.INSTANCE.toDTO(returned);
     }
 
     /**
-     * Marks a loaned book edition copy as lost.
+     * Marks a loaned book edition copy as lost. The loan is marked with a single conditional update, so a concurrent
+     * return, renewal or loss of the same loan cannot be overwritten; the loan is only read afterwards.
      *
      * @param id The id of the loan to mark as lost.
      * @return A {@link LoanResponseDTO} containing details of the lost loan.
@@ -132,11 +205,23 @@ public class LoanServiceImpl implements LoanService {
     @Override
     @Transactional
     public LoanResponseDTO markLost(Long id) throws ConflictException, ResourceNotFoundException, IllegalArgumentException {
-        Loan loan = findById(id);
-        loan.markLost();
-        Loan saved = repository.save(loan);
-        eventPublisher.publishEvent(loanLostEvent(saved));
-        return Mapper.map(saved, LoanResponseDTO.class);
+        validateId(id);
+        if(repository.markLostIfOverdue(id, LocalDate.now()) == 0){
+            // Raises the reason the loan cannot be marked as lost, or that it cannot be found
+            findById(id).markLost();
+            throw new ConflictException(String.format("The loan with id %s could not be marked as lost", id));
+        }
+        Loan lost = findById(id);
+        outboxRepository.save(loanLostEvent(lost));
+        return LoanMapper.INSTANCE.toDTO(lost);
+    }
+
+    @Override
+    @Transactional
+    public void markReconciliationRequired(Long id) {
+        if(repository.markReconciliationRequired(id) == 1){
+            LOGGER.warn("The loan with id {} requires reconciliation as its edition copy was taken by another loan", id);
+        }
     }
 
     /**
@@ -149,25 +234,91 @@ public class LoanServiceImpl implements LoanService {
      */
     @Override
     public LoanResponseDTO find(Long id) throws ResourceNotFoundException, IllegalArgumentException {
-        return Mapper.map(findById(id), LoanResponseDTO.class);
+        return LoanMapper.INSTANCE.toDTO(findById(id));
+    }
+
+    /**
+     * Lists the loans matching a filter, a page at a time. The cursor of a page is the due date and id of its last
+     * loan, in the form <code>yyyy-MM-dd_id</code>. One more loan than the page size is retrieved, to tell whether
+     * there is a next page without counting the loans.
+     *
+     * @param filter The filter of the listing.
+     * @param after The cursor returned with the previous page, or null for the first page.
+     * @param size The maximum number of loans in the page.
+     * @return A {@link LoanPageDTO} containing the page of loans and the cursor of the next page.
+     * @throws BadRequestException if the cursor is malformed, the page size is out of range, or the due date range is reversed.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public LoanPageDTO findLoans(LoanFilter filter, String after, int size) throws BadRequestException {
+        if (size <= 0 || size > maxPageSize) {
+            throw new BadRequestException(String.format("The page size must be between 1 and %d", maxPageSize));
+        }
+        if (filter.dueFrom() != null && filter.dueTo() != null && filter.dueFrom().isAfter(filter.dueTo())) {
+            throw new BadRequestException("The due date range must not end before it starts");
+        }
+        LocalDate afterDueDate = null;
+        Long afterId = null;
+        if (after != null && !after.isBlank()) {
+            int separator = after.lastIndexOf(CURSOR_SEPARATOR);
+            try {
+                afterDueDate = LocalDate.parse(after.substring(0, Math.max(separator, 0)));
+                afterId = Long.valueOf(after.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new BadRequestException(String.format("The cursor %s is not valid", after));
+            }
+        }
+        List<LoanSummaryDTO> loans = repository.findPage(filter, afterDueDate, afterId, size + 1);
+        String next = null;
+        if (loans.size() > size) {
+            loans = loans.subList(0, size);
+            LoanSummaryDTO last = loans.getLast();
+            next = last.getDueDate() + CURSOR_SEPARATOR + last.getId();
+        }
+        return new LoanPageDTO(loans, next);
     }
 
-    private LoanEvent loanCreatedEvent(Loan loan){
-        return new LoanEvent(LOAN_CREATED,loanEventContext(loan));
+    /**
+     * The event carries the token of the copy's hold, so that it only confirms the hold it was created under, and
+     * not a later hold on the same copy if the event is delayed until after the hold expired.
+     */
+    private OutboxEvent loanCreatedEvent(Loan loan, String holdToken){
+        return new OutboxEvent(LOAN_CREATED,
+                new LoanEventContext(loan.getId(), loan.getMemberId(), loan.getEditionCopyId(), holdToken));
     }
 
-    private LoanEvent loanReturnedEvent(Loan loan){
-        return new LoanEvent(LOAN_RETURNED, loanEventContext(loan));
+    private OutboxEvent loanReturnedEvent(Loan loan){
+        return new OutboxEvent(LOAN_RETURNED, loanEventContext(loan));
     }
 
-    private LoanEvent loanLostEvent(Loan loan){
-        return new LoanEvent(LOAN_MARKED_LOST, loanEventContext(loan));
+    private OutboxEvent loanLostEvent(Loan loan){
+        return new OutboxEvent(LOAN_MARKED_LOST, loanEventContext(loan));
     }
 
     private LoanEventContext loanEventContext(Loan loan){
         return new LoanEventContext(loan.getId(), loan.getMemberId(), loan.getEditionCopyId());
     }
 
+    /**
+     * Runs an update of a loan in its own transaction, retrying it up to <code>loan.update.max-attempts</code> times
+     * in all if the loan was changed concurrently between being read and written.
+     */
+    private Loan updateWithRetry(Long id, Supplier<Loan> update){
+        for(int attempt = 1; ; attempt++){
+            try {
+                return transactionTemplate.execute(_ -> update.get());
+            } catch (OptimisticLockingFailureException e) {
+                // Discards the stale loan, which would otherwise be read again from an open-in-view persistence context
+                entityManager.clear();
+                if(attempt >= maxUpdateAttempts){
+                    throw new ConflictException(String.format(
+                            "The loan with id %s is being changed concurrently. Please try again", id));
+                }
+                LOGGER.debug("The loan with id {} was changed concurrently, retrying attempt {}", id, attempt + 1);
+            }
+        }
+    }
+
     private void validateId(Long id){
         if(id == null || id <= 0){
             throw new IllegalArgumentException("The loan id must be a positive non-zero value");
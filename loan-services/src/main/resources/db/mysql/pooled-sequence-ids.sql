@@ -0,0 +1,10 @@
+-- Migrates an existing library_loans database from identity to pooled sequence ids.
+-- MySQL has no sequences, so Hibernate emulates each one with a single row table holding the next value.
+-- Run once, with the loan services stopped, before starting a version using sequence ids:
+--   mysql -u root -p library_loans < pooled-sequence-ids.sql
+-- It is safe to run again, e.g. if the services were started first and created the table starting at 1.
+-- The loan_event_outbox table keeps its identity ids.
+
+CREATE TABLE IF NOT EXISTS loan_seq (next_val BIGINT);
+DELETE FROM loan_seq;
+INSERT INTO loan_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM loan;
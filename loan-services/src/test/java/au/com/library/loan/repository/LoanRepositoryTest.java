@@ -0,0 +1,173 @@
+package au.com.library.loan.repository;
+
+import au.com.library.loan.dto.LoanFilter;
+import au.com.library.loan.dto.LoanSummaryDTO;
+import au.com.library.loan.entity.Loan;
+import au.com.library.loan.entity.LoanStatus;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Handles testing of the loan listing queries of the repository layer.
+ */
+@DataJpaTest
+public class LoanRepositoryTest {
+
+    private static final long MEMBER_ID = 1L;
+    private static final long OTHER_MEMBER_ID = 2L;
+
+    @Autowired
+    private LoanRepository repository;
+
+    /**
+     * Test setup for each test before execution: five loans for one member, with due dates that repeat so that
+     * pages have to be split between loans with the same due date, and one loan for another member.
+     */
+    @BeforeEach
+    public void setup(){
+        for (int i = 0; i < 5; i++) {
+            repository.save(buildLoan(MEMBER_ID, 100L + i, 14 + i / 2));
+        }
+        repository.save(buildLoan(OTHER_MEMBER_ID, 200L, 14));
+    }
+
+    /**
+     * Tests that paging through a member's loans returns each of them once, in due date and then id order.
+     */
+    @DisplayName("testFindPageByMember")
+    @Test
+    public void givenMemberLoans_whenPagingByMember_thenAllLoansFoundInOrder(){
+        LoanFilter filter = new LoanFilter(MEMBER_ID, null, null, null, null);
+        List<LoanSummaryDTO> found = new ArrayList<>();
+        List<LoanSummaryDTO> page = repository.findPage(filter, null, null, 2);
+        while (!page.isEmpty()) {
+            found.addAll(page);
+            LoanSummaryDTO last = page.getLast();
+            page = repository.findPage(filter, last.getDueDate(), last.getId(), 2);
+        }
+
+        Assertions.assertThat(found).hasSize(5).allMatch(loan -> loan.getMemberId() == MEMBER_ID);
+        for (int i = 1; i < found.size(); i++) {
+            LoanSummaryDTO previous = found.get(i - 1);
+            LoanSummaryDTO current = found.get(i);
+            Assertions.assertThat(current.getDueDate().isAfter(previous.getDueDate())
+                    || (current.getDueDate().equals(previous.getDueDate()) && current.getId() > previous.getId())).isTrue();
+        }
+    }
+
+    /**
+     * Tests that the status and copy filters are applied together.
+     */
+    @DisplayName("testFindPageByStatusAndCopy")
+    @Test
+    public void givenLoans_whenFilteringByStatusAndCopy_thenOnlyMatchingLoansFound(){
+        List<LoanSummaryDTO> found = repository.findPage(
+                new LoanFilter(null, 100L, Set.of(LoanStatus.BORROWED, LoanStatus.RENEWED), null, null), null, null, 10);
+        Assertions.assertThat(found).hasSize(1);
+        Assertions.assertThat(found.getFirst().getEditionCopyId()).isEqualTo(100L);
+
+        found = repository.findPage(new LoanFilter(null, 100L, Set.of(LoanStatus.RETURNED), null, null), null, null, 10);
+        Assertions.assertThat(found).isEmpty();
+    }
+
+    /**
+     * Tests that paging through the loans of several statuses, which are read one status at a time and merged,
+     * returns each matching loan once, in due date and then id order across the statuses.
+     */
+    @DisplayName("testFindPageBySeveralStatuses")
+    @Test
+    public void givenLoansOfSeveralStatuses_whenPagingByStatuses_thenMatchingLoansFoundInOrder(){
+        Loan renewedEarly = buildLoan(MEMBER_ID, 600L, 3);
+        renewedEarly.renewLoan(10);
+        repository.save(renewedEarly);
+        Loan renewedLate = buildLoan(MEMBER_ID, 601L, 10);
+        renewedLate.renewLoan(5);
+        repository.save(renewedLate);
+        Loan returned = buildLoan(MEMBER_ID, 602L, 14);
+        returned.returnLoan();
+        repository.save(returned);
+
+        LoanFilter filter = new LoanFilter(null, null, Set.of(LoanStatus.BORROWED, LoanStatus.RENEWED), null, null);
+        List<LoanSummaryDTO> found = new ArrayList<>();
+        List<LoanSummaryDTO> page = repository.findPage(filter, null, null, 3);
+        while (!page.isEmpty()) {
+            Assertions.assertThat(page).hasSizeLessThanOrEqualTo(3);
+            found.addAll(page);
+            LoanSummaryDTO last = page.getLast();
+            page = repository.findPage(filter, last.getDueDate(), last.getId(), 3);
+        }
+
+        Assertions.assertThat(found).hasSize(8).extracting(LoanSummaryDTO::getId).doesNotHaveDuplicates();
+        Assertions.assertThat(found).extracting(LoanSummaryDTO::getStatus).doesNotContain(LoanStatus.RETURNED);
+        Assertions.assertThat(found).extracting(LoanSummaryDTO::getStatus).contains(LoanStatus.RENEWED);
+        for (int i = 1; i < found.size(); i++) {
+            LoanSummaryDTO previous = found.get(i - 1);
+            LoanSummaryDTO current = found.get(i);
+            Assertions.assertThat(current.getDueDate().isAfter(previous.getDueDate())
+                    || (current.getDueDate().equals(previous.getDueDate()) && current.getId() > previous.getId())).isTrue();
+        }
+    }
+
+    /**
+     * Tests that an overdue loan is found as newly overdue until it has been detected as overdue.
+     */
+    @DisplayName("testFindNewlyOverdue")
+    @Test
+    public void givenOverdueLoan_whenDetected_thenNoLongerNewlyOverdue(){
+        LocalDate today = LocalDate.now();
+        Loan overdue = repository.save(new Loan(null, MEMBER_ID, "David", "Roze", 300L, "Dune", "Frank Herbert",
+                "1st", "LIB-300", today.minusDays(20), today.minusDays(6), 0, null, LoanStatus.BORROWED, false, false, 0L));
+
+        List<Loan> found = repository.findNewlyOverdue(LoanStatus.BORROWED, today, null, null, PageRequest.of(0, 10));
+        Assertions.assertThat(found).extracting(Loan::getId).containsExactly(overdue.getId());
+
+        Assertions.assertThat(found.getFirst().detectOverdue()).isTrue();
+        repository.flush();
+        Assertions.assertThat(repository.findNewlyOverdue(LoanStatus.BORROWED, today, null, null, PageRequest.of(0, 10))).isEmpty();
+    }
+
+    /**
+     * Tests that an active loan is returned by a conditional update only once.
+     */
+    @DisplayName("testReturnIfActive")
+    @Test
+    public void givenActiveLoan_whenReturnedTwice_thenOnlyFirstReturnApplied(){
+        Loan loan = repository.save(buildLoan(MEMBER_ID, 400L, 14));
+        Assertions.assertThat(repository.returnIfActive(loan.getId(), LocalDate.now())).isEqualTo(1);
+        Assertions.assertThat(repository.returnIfActive(loan.getId(), LocalDate.now())).isZero();
+    }
+
+    /**
+     * Tests that only the active loan of a copy is found by the copy's barcode.
+     */
+    @DisplayName("testFindActiveIdsByBarcode")
+    @Test
+    public void givenReturnedAndActiveLoans_whenFindingByBarcode_thenOnlyActiveLoanFound(){
+        Loan returned = repository.save(buildLoan(MEMBER_ID, 500L, 14));
+        repository.returnIfActive(returned.getId(), LocalDate.now());
+        Loan active = repository.save(buildLoan(MEMBER_ID, 500L, 14));
+
+        Assertions.assertThat(repository.findActiveIdsByBarcode("LIB-500")).containsExactly(active.getId());
+        Assertions.assertThat(repository.findActiveIdsByBarcode("LIB-501")).isEmpty();
+    }
+
+    private Loan buildLoan(long memberId, long editionCopyId, int loanPeriodDays){
+        Loan loan = Loan.builder().
+                memberId(memberId).memberFirstName("David").memberLastName("Roze").
+                editionCopyId(editionCopyId).bookTitle("Dune").author("Frank Herbert").
+                edition("1st").barcode("LIB-" + editionCopyId).
+                build();
+        loan.calculateDueDate(loanPeriodDays);
+        return loan;
+    }
+}
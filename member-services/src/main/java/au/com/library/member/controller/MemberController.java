@@ -1,23 +1,33 @@
 package au.com.library.member.controller;
 
 import au.com.library.member.dto.MemberDTO;
+import au.com.library.member.dto.MemberImportSummaryDTO;
+import au.com.library.member.service.MemberImportFormat;
+import au.com.library.member.service.MemberImportService;
 import au.com.library.member.service.MemberService;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+
 /**
  * A REST API controller class handling REST APIs to library member operations.
  *
  * @see MemberService
+ * @see MemberImportService
  */
 @AllArgsConstructor
 @RestController
 @RequestMapping("/api/members")
 public class MemberController {
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private MemberService service;
+    private MemberImportService importService;
 
     /**
      * Handles the REST API POST request to create of a new library member.
@@ -50,4 +60,20 @@ public class MemberController {
     public ResponseEntity<MemberDTO> update(@PathVariable Long id, @RequestBody MemberDTO memberDTO){
         return ResponseEntity.ok(service.update(id, memberDTO));
     }
+
+    /**
+     * Handles a REST API POST to import library members in bulk, uploaded as NDJSON ({@code application/x-ndjson})
+     * or CSV ({@code text/csv}). The upload is streamed rather than read in full.
+     *
+     * @param contentType The content type of the upload.
+     * @param members The upload.
+     * @return A {@link ResponseEntity} object that references a {@link MemberImportSummaryDTO} object
+     * summarising the import, including the records rejected.
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    public ResponseEntity<MemberImportSummaryDTO> importMembers(@RequestHeader("Content-Type") MediaType contentType,
+                                                                InputStream members){
+        MemberImportFormat format = MediaType.APPLICATION_NDJSON.includes(contentType) ? MemberImportFormat.NDJSON : MemberImportFormat.CSV;
+        return ResponseEntity.ok(importService.importMembers(members, format));
+    }
 }
@@ -0,0 +1,23 @@
+package au.com.library.member.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A member record that was rejected by a member import.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class MemberImportErrorDTO {
+
+    /**
+     * The line of the upload on which the record appears.
+     */
+    private long line;
+    private String email;
+    private String message;
+}
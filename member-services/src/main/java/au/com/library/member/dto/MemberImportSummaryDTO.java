@@ -0,0 +1,25 @@
+package au.com.library.member.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The outcome of a member import. Only the first of the {@link #getRejected() rejected} records are
+ * detailed in the {@link #getErrors() errors}.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class MemberImportSummaryDTO {
+
+    private long records;
+    private long imported;
+    private long rejected;
+    private List<MemberImportErrorDTO> errors = new ArrayList<>();
+}
@@ -12,8 +12,10 @@ import lombok.*;
 @Table(name = "library_member")
 public class Member {
 
+    // Sequence generated in blocks (emulated by a table on MySQL), so that inserts can be sent as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq")
+    @SequenceGenerator(name = "member_seq", sequenceName = "member_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,49 @@
+package au.com.library.member.kafka;
+
+import au.com.library.contracts.event.change.ChangeEvent;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Publishes {@link ChangeEvent change events} to Kafka when member details are updated, so that
+ * subscribers holding local copies of those details can invalidate them.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeEventPublisher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeEventPublisher.class);
+
+    private final KafkaTemplate<String, Object> template;
+    private final NewTopic changeEventTopic;
+
+    /**
+     * Publishes the change event once the change has been committed, or immediately if the change
+     * was not made within a transaction.
+     *
+     * @param event The change event to publish.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void publish(ChangeEvent event){
+        if(event == null){
+            throw new IllegalArgumentException("The event to publish cannot be null");
+        }
+        var message = MessageBuilder.withPayload(event).
+                setHeader(KafkaHeaders.TOPIC, changeEventTopic.name()).
+                setHeader(KafkaHeaders.KEY, String.valueOf(event.id())).
+                build();
+        template.send(message).whenComplete((_, ex) -> {
+            if (ex != null) {
+                LOGGER.error("Failed to send change event {}: {}", event, ex.getMessage());
+            }
+        });
+    }
+}
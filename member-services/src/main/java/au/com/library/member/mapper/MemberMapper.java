@@ -0,0 +1,20 @@
+package au.com.library.member.mapper;
+
+import au.com.library.member.dto.MemberDTO;
+import au.com.library.member.entity.Member;
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * Maps between {@link Member members} and {@link MemberDTO member DTOs}. The implementation is generated
+ * at compile time.
+ */
+@Mapper
+public interface MemberMapper {
+
+    MemberMapper INSTANCE = Mappers.getMapper(MemberMapper.class);
+
+    MemberDTO toDTO(Member member);
+
+    Member toEntity(MemberDTO memberDTO);
+}
@@ -2,9 +2,23 @@ package au.com.library.member.repository;
 
 import au.com.library.member.entity.Member;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * The {@link JpaRepository} implementation for {@link Member} data access operations.
  */
 public interface MemberRepository extends JpaRepository<Member, Long> {
+
+    /**
+     * Retrieves which of the specified email addresses are already being used, in a single query against the
+     * unique email column.
+     * @param emails The email addresses to check.
+     * @return A {@link List} of the email addresses already being used by members.
+     */
+    @Query("select m.email from Member m where m.email in :emails")
+    List<String> findEmailsIn(@Param("emails") Collection<String> emails);
 }
@@ -0,0 +1,20 @@
+package au.com.library.member.service;
+
+/**
+ * The formats in which members may be imported.
+ *
+ * @see MemberImportService
+ */
+public enum MemberImportFormat {
+
+    /**
+     * One JSON {@link au.com.library.member.dto.MemberDTO member record} per line.
+     */
+    NDJSON,
+
+    /**
+     * One member per line, with a header line naming the columns firstName, lastName, email, phone, address1,
+     * city, state and postcode, and optionally address2.
+     */
+    CSV
+}
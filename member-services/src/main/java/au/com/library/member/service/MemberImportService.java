@@ -0,0 +1,26 @@
+package au.com.library.member.service;
+
+import au.com.library.member.dto.MemberImportSummaryDTO;
+import au.com.library.shared.exception.BadRequestException;
+
+import java.io.InputStream;
+
+/**
+ * A service level interface handling the bulk import of {@link au.com.library.member.entity.Member library members}.
+ */
+public interface MemberImportService {
+
+    /**
+     * Imports members, reading them incrementally from the specified stream. The records are imported in chunks,
+     * each in its own transaction, so the members imported before a failure remain imported.
+     * <p>
+     * Records that are malformed, invalid, or have an email address that is already being used, by an existing
+     * member or an earlier record, are rejected and reported in the summary, without stopping the import.
+     *
+     * @param members The members to import.
+     * @param format The format of the members.
+     * @return A {@link MemberImportSummaryDTO} summarising the import.
+     * @throws BadRequestException Thrown when the members could not be read, or a CSV upload's header is invalid.
+     */
+    MemberImportSummaryDTO importMembers(InputStream members, MemberImportFormat format) throws BadRequestException;
+}
@@ -0,0 +1,76 @@
+package au.com.library.member.service.impl;
+
+import au.com.library.member.dto.MemberDTO;
+import au.com.library.shared.util.CsvLineReader;
+import au.com.library.shared.util.CsvLineReader.CsvLine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Reads members as one member per line, in the columns named by the header line. The address2 column is optional.
+ * <p>
+ * The lines are read by a {@link CsvLineReader}.
+ */
+final class CsvMemberReader implements MemberReader {
+
+    private static final String[] COLUMNS = {"firstName", "lastName", "email", "phone", "address1", "address2", "city", "state", "postcode"};
+    private static final int FIRST_NAME = 0;
+    private static final int LAST_NAME = 1;
+    private static final int EMAIL = 2;
+    private static final int PHONE = 3;
+    private static final int ADDRESS1 = 4;
+    private static final int ADDRESS2 = 5;
+    private static final int CITY = 6;
+    private static final int STATE = 7;
+    private static final int POSTCODE = 8;
+
+    private final CsvLineReader lines;
+    // The position of each of the COLUMNS in a line, or -1 for an optional column that is absent
+    private final int[] positions = new int[COLUMNS.length];
+
+    CsvMemberReader(BufferedReader reader) throws IOException {
+        this.lines = new CsvLineReader(reader, "member upload");
+        for (int i = 0; i < COLUMNS.length; i++) {
+            positions[i] = lines.column(COLUMNS[i], i != ADDRESS2);
+        }
+    }
+
+    @Override
+    public MemberRecord next() throws IOException {
+        CsvLine csvLine = lines.next();
+        if (csvLine == null) {
+            return null;
+        }
+        if (csvLine.error() != null) {
+            return new MemberRecord(csvLine.line(), null, csvLine.error());
+        }
+        List<String> fields = csvLine.fields();
+        MemberDTO member = MemberDTO.builder().
+                firstName(field(fields, FIRST_NAME)).
+                lastName(field(fields, LAST_NAME)).
+                email(field(fields, EMAIL)).
+                phone(field(fields, PHONE)).
+                address1(field(fields, ADDRESS1)).
+                address2(field(fields, ADDRESS2)).
+                city(field(fields, CITY)).
+                state(field(fields, STATE)).
+                postcode(field(fields, POSTCODE)).
+                build();
+        return new MemberRecord(csvLine.line(), member, null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        lines.close();
+    }
+
+    private String field(List<String> fields, int column) {
+        if (positions[column] < 0) {
+            return null;
+        }
+        String value = fields.get(positions[column]).trim();
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,201 @@
+package au.com.library.member.service.impl;
+
+import au.com.library.member.dto.MemberDTO;
+import au.com.library.member.dto.MemberImportErrorDTO;
+import au.com.library.member.dto.MemberImportSummaryDTO;
+import au.com.library.member.entity.Member;
+import au.com.library.member.mapper.MemberMapper;
+import au.com.library.member.repository.MemberRepository;
+import au.com.library.member.service.MemberImportFormat;
+import au.com.library.member.service.MemberImportService;
+import au.com.library.member.service.impl.MemberReader.MemberRecord;
+import au.com.library.shared.exception.BadRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link MemberImportService} implementation.
+ * <p>
+ * Records are read one at a time and imported in chunks. Each chunk checks which of its email addresses are already
+ * being used with one query, rejects those records, and saves the rest as JDBC batches. Email addresses are compared
+ * ignoring case, as they are by the unique email column on MySQL. If a chunk still fails, for instance because a
+ * member was added with one of its email addresses in the meantime, its records are retried one at a time so that
+ * only the failing records are rejected. The persistence context is cleared after each chunk, so memory use does not
+ * grow with the upload.
+ */
+@RequiredArgsConstructor
+@Service
+public class MemberImportServiceImpl implements MemberImportService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemberImportServiceImpl.class);
+
+    private static final int LENGTH_COLUMN = 255;
+    private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+\\.[^@\\s]+");
+
+    private final MemberRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${member.import.chunk-size}")
+    private int chunkSize;
+
+    @Value("${member.import.max-errors}")
+    private int maxErrors;
+
+    @Override
+    public MemberImportSummaryDTO importMembers(InputStream members, MemberImportFormat format) throws BadRequestException {
+        MemberImportSummaryDTO summary = new MemberImportSummaryDTO();
+        try (MemberReader reader = MemberReader.of(format, members, objectMapper)) {
+            // The records of the chunk, by email address, so that a repeated address is rejected without a query
+            Map<String, MemberRecord> chunk = new LinkedHashMap<>();
+            MemberRecord memberRecord;
+            while ((memberRecord = reader.next()) != null) {
+                summary.setRecords(summary.getRecords() + 1);
+                String invalid = memberRecord.error() != null ? memberRecord.error() : validate(memberRecord.member());
+                if (invalid != null) {
+                    reject(summary, memberRecord, invalid);
+                    continue;
+                }
+                MemberRecord earlier = chunk.putIfAbsent(key(memberRecord), memberRecord);
+                if (earlier != null) {
+                    reject(summary, memberRecord, String.format("The email address %s is repeated from line %d",
+                            memberRecord.member().getEmail(), earlier.line()));
+                    continue;
+                }
+                if (chunk.size() == chunkSize) {
+                    importChunk(List.copyOf(chunk.values()), summary);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(List.copyOf(chunk.values()), summary);
+            }
+        } catch (IOException e) {
+            throw new BadRequestException(String.format("The members could not be read after %d records: %s", summary.getRecords(), e.getMessage()));
+        }
+        LOGGER.info("Member import completed: {} records, {} imported, {} rejected",
+                summary.getRecords(), summary.getImported(), summary.getRejected());
+        return summary;
+    }
+
+    private void importChunk(List<MemberRecord> chunk, MemberImportSummaryDTO summary) {
+        try {
+            List<MemberRecord> duplicates = transactionTemplate.execute(_ -> insert(chunk));
+            accept(summary, chunk, duplicates);
+        } catch (RuntimeException e) {
+            LOGGER.warn("A member import chunk failed, retrying its {} records individually", chunk.size(), e);
+            entityManager.clear();
+            for (MemberRecord memberRecord : chunk) {
+                try {
+                    List<MemberRecord> duplicates = transactionTemplate.execute(_ -> insert(List.of(memberRecord)));
+                    accept(summary, List.of(memberRecord), duplicates);
+                } catch (DataIntegrityViolationException recordException) {
+                    reject(summary, memberRecord, alreadyUsed(memberRecord));
+                } catch (RuntimeException recordException) {
+                    reject(summary, memberRecord, recordException.getMessage());
+                } finally {
+                    entityManager.clear();
+                }
+            }
+        } finally {
+            entityManager.clear();
+        }
+        LOGGER.info("Member import progress: {} records read, {} imported, {} rejected",
+                summary.getRecords(), summary.getImported(), summary.getRejected());
+    }
+
+    /**
+     * Inserts the records of a chunk whose email addresses are not already being used.
+     * @return The records that were not inserted because their email addresses are already being used.
+     */
+    private List<MemberRecord> insert(List<MemberRecord> chunk) {
+        Set<String> used = repository.findEmailsIn(chunk.stream().map(memberRecord -> memberRecord.member().getEmail()).toList()).
+                stream().
+                map(email -> email.toLowerCase(Locale.ROOT)).
+                collect(Collectors.toSet());
+        List<MemberRecord> duplicates = new ArrayList<>();
+        List<Member> members = new ArrayList<>(chunk.size());
+        for (MemberRecord memberRecord : chunk) {
+            if (used.contains(key(memberRecord))) {
+                duplicates.add(memberRecord);
+                continue;
+            }
+            Member member = MemberMapper.INSTANCE.toEntity(memberRecord.member());
+            // Imported records always create members, whatever id they carry
+            member.setId(null);
+            members.add(member);
+        }
+        repository.saveAll(members);
+        repository.flush();
+        return duplicates;
+    }
+
+    /**
+     * Adds the records of a chunk that has been committed to the summary.
+     */
+    private void accept(MemberImportSummaryDTO summary, List<MemberRecord> chunk, List<MemberRecord> duplicates) {
+        duplicates.forEach(memberRecord -> reject(summary, memberRecord, alreadyUsed(memberRecord)));
+        summary.setImported(summary.getImported() + chunk.size() - duplicates.size());
+    }
+
+    /**
+     * Validates a member record.
+     * @return The reason the record is invalid, or null if it is valid.
+     */
+    private String validate(MemberDTO member) {
+        if (member == null) {
+            return "The record is empty";
+        }
+        if (isBlank(member.getFirstName()) || isBlank(member.getLastName()) || isBlank(member.getEmail()) || isBlank(member.getPhone())) {
+            return "The first name, last name, email address and phone number are required";
+        }
+        if (isBlank(member.getAddress1()) || isBlank(member.getCity()) || isBlank(member.getState()) || isBlank(member.getPostcode())) {
+            return "The address, city, state and postcode are required";
+        }
+        if (!EMAIL.matcher(member.getEmail()).matches()) {
+            return String.format("The email address %s is not valid", member.getEmail());
+        }
+        for (String value : List.of(member.getFirstName(), member.getLastName(), member.getEmail(), member.getPhone(),
+                member.getAddress1(), Objects.requireNonNullElse(member.getAddress2(), ""),
+                member.getCity(), member.getState(), member.getPostcode())) {
+            if (value.length() > LENGTH_COLUMN) {
+                return String.format("The values cannot be longer than %d characters", LENGTH_COLUMN);
+            }
+        }
+        return null;
+    }
+
+    private void reject(MemberImportSummaryDTO summary, MemberRecord memberRecord, String message) {
+        summary.setRejected(summary.getRejected() + 1);
+        if (summary.getErrors().size() < maxErrors) {
+            String email = memberRecord.member() == null ? null : memberRecord.member().getEmail();
+            summary.getErrors().add(new MemberImportErrorDTO(memberRecord.line(), email, message));
+        }
+    }
+
+    private static String alreadyUsed(MemberRecord memberRecord) {
+        return String.format("The email address %s is already being used", memberRecord.member().getEmail());
+    }
+
+    private static String key(MemberRecord memberRecord) {
+        return memberRecord.member().getEmail().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
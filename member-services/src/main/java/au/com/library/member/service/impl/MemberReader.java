@@ -0,0 +1,49 @@
+package au.com.library.member.service.impl;
+
+import au.com.library.member.dto.MemberDTO;
+import au.com.library.member.service.MemberImportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the records of a member import one at a time, so that the upload is never held in memory.
+ */
+interface MemberReader extends Closeable {
+
+    /**
+     * A member record, or the reason it could not be read.
+     *
+     * @param line The line of the upload on which the record appears.
+     * @param member The member record, or null if it could not be read.
+     * @param error The reason the record could not be read, or null if it was read.
+     */
+    record MemberRecord(long line, MemberDTO member, String error) {
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return The next record, or null at the end of the upload.
+     * @throws IOException Thrown when the upload could not be read.
+     */
+    MemberRecord next() throws IOException;
+
+    /**
+     * Creates a reader for members in the specified format.
+     *
+     * @param format The format of the members.
+     * @param members The members, encoded in UTF-8.
+     * @param objectMapper The mapper used to read JSON records.
+     * @return The reader.
+     * @throws IOException Thrown when the upload could not be read.
+     */
+    static MemberReader of(MemberImportFormat format, InputStream members, ObjectMapper objectMapper) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(members, StandardCharsets.UTF_8));
+        return switch (format) {
+            case NDJSON -> new NdjsonMemberReader(reader, objectMapper);
+            case CSV -> new CsvMemberReader(reader);
+        };
+    }
+}
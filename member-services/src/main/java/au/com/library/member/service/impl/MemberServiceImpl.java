@@ -1,17 +1,21 @@
 package au.com.library.member.service.impl;
 
+import au.com.library.contracts.event.change.ChangeEvent;
 import au.com.library.member.dto.MemberDTO;
 import au.com.library.member.entity.Member;
 import au.com.library.member.exception.DuplicateEmailAddressException;
+import au.com.library.member.mapper.MemberMapper;
 import au.com.library.member.repository.MemberRepository;
 import au.com.library.member.service.MemberService;
 import au.com.library.shared.exception.BadRequestException;
 import au.com.library.shared.exception.ResourceNotFoundException;
-import au.com.library.shared.util.Mapper;
 import lombok.AllArgsConstructor;
 import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import static au.com.library.contracts.event.change.ChangeEventType.MEMBER_UPDATED;
+
 /**
  * The {@link MemberService} implementation.
  *
@@ -22,15 +26,16 @@ import org.springframework.stereotype.Service;
 public class MemberServiceImpl implements MemberService {
 
     private MemberRepository repository;
+    private ApplicationEventPublisher eventPublisher;
 
     @Override
     public MemberDTO add(MemberDTO memberDTO) throws DuplicateEmailAddressException {
-        return (save(Mapper.map(memberDTO, Member.class)));
+        return (save(MemberMapper.INSTANCE.toEntity(memberDTO)));
     }
 
     @Override
     public MemberDTO find(Long id) throws ResourceNotFoundException {
-        return Mapper.map(findById(id), MemberDTO.class);
+        return MemberMapper.INSTANCE.toDTO(findById(id));
     }
 
     @Override
@@ -46,12 +51,14 @@ public class MemberServiceImpl implements MemberService {
         member.setCity(memberDTO.getCity());
         member.setState(memberDTO.getState());
         member.setPostcode(memberDTO.getPostcode());
-        return save(member);
+        MemberDTO updated = save(member);
+        eventPublisher.publishEvent(new ChangeEvent(MEMBER_UPDATED, updated.getId()));
+        return updated;
     }
 
     private MemberDTO save(Member member){
         try {
-            return Mapper.map(repository.save(member), MemberDTO.class);
+            return MemberMapper.INSTANCE.toDTO(repository.save(member));
         } catch (Exception e) {
             if (e.getCause() instanceof ConstraintViolationException){
                 // Will be because of a duplicate email
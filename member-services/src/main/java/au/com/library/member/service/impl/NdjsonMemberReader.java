@@ -0,0 +1,32 @@
+package au.com.library.member.service.impl;
+
+import au.com.library.member.dto.MemberDTO;
+import au.com.library.shared.util.NdjsonLineReader;
+import au.com.library.shared.util.NdjsonLineReader.NdjsonLine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads members as one JSON {@link MemberDTO member record} per line. Blank lines are ignored.
+ */
+final class NdjsonMemberReader implements MemberReader {
+
+    private final NdjsonLineReader<MemberDTO> lines;
+
+    NdjsonMemberReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.lines = new NdjsonLineReader<>(reader, objectMapper, MemberDTO.class);
+    }
+
+    @Override
+    public MemberRecord next() throws IOException {
+        NdjsonLine<MemberDTO> ndjsonLine = lines.next();
+        return ndjsonLine == null ? null : new MemberRecord(ndjsonLine.line(), ndjsonLine.value(), ndjsonLine.error());
+    }
+
+    @Override
+    public void close() throws IOException {
+        lines.close();
+    }
+}
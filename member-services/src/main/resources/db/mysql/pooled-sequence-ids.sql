@@ -0,0 +1,9 @@
+-- Migrates an existing library_members database from identity to pooled sequence ids.
+-- MySQL has no sequences, so Hibernate emulates each one with a single row table holding the next value.
+-- Run once, with the member services stopped, before starting a version using sequence ids:
+--   mysql -u root -p library_members < pooled-sequence-ids.sql
+-- It is safe to run again, e.g. if the services were started first and created the table starting at 1.
+
+CREATE TABLE IF NOT EXISTS member_seq (next_val BIGINT);
+DELETE FROM member_seq;
+INSERT INTO member_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM library_member;
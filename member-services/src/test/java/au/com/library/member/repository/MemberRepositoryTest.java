@@ -9,6 +9,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 
+import java.util.List;
+
 /**
  * Handles testing of the main repository layer functions, many of which are provided out of the box by Spring JPA.
  * This is mainly an intended as an exercise in writing DAO level JUnit tests in a Spring context.
@@ -102,6 +104,17 @@ public class MemberRepositoryTest {
         Assertions.assertThat(found).isNotNull();
     }
 
+    /**
+     * Tests that only the email addresses already being used are found when checking a set of email addresses.
+     */
+    @DisplayName("testFindEmailsIn")
+    @Test
+    public void givenExistingMember_whenFindingEmailsIn_thenOnlyUsedEmailsFound(){
+        repository.save(member);
+        List<String> used = repository.findEmailsIn(List.of(member.getEmail(), "new.member@example.com"));
+        Assertions.assertThat(used).containsExactly(member.getEmail());
+    }
+
     private Member buildMember(String firstName,
                                String lastName,
                                String address1,
@@ -3,7 +3,9 @@ package au.com.library.shared.util;
 import java.util.UUID;
 
 /**
- * Handles the generation of a barcode.
+ * Handles the generation of a random barcode. This may be used as a {@link BarcodeStrategy} with
+ * {@code BarcodeGenerator::generate}, but relies on the database unique constraint to detect the
+ * unlikely collision; {@link MonotonicBarcodeStrategy} is preferred.
  */
 public class BarcodeGenerator {
 
@@ -0,0 +1,39 @@
+package au.com.library.shared.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A strategy for generating the barcodes of edition copies.
+ *
+ * @see MonotonicBarcodeStrategy
+ * @see BarcodeGenerator
+ */
+@FunctionalInterface
+public interface BarcodeStrategy {
+
+    /**
+     * Generates a barcode.
+     *
+     * @return The generated barcode.
+     */
+    String generate();
+
+    /**
+     * Generates the specified number of barcodes, such as when many copies are taken in at once.
+     *
+     * @param count The number of barcodes to generate.
+     * @return The generated barcodes.
+     * @throws IllegalArgumentException Thrown if the count is negative.
+     */
+    default List<String> generate(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("The number of barcodes to generate cannot be negative");
+        }
+        List<String> barcodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            barcodes.add(generate());
+        }
+        return barcodes;
+    }
+}
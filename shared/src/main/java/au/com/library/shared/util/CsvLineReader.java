@@ -0,0 +1,150 @@
+package au.com.library.shared.util;
+
+import au.com.library.shared.exception.BadRequestException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads an upload of comma separated values one line at a time, in the columns named by its header line, so that
+ * the upload is never held in memory.
+ * <p>
+ * Fields may be quoted, with quotes escaped by doubling them, but may not span lines. A byte order mark before the
+ * header is ignored, as are blank lines.
+ */
+public class CsvLineReader implements Closeable {
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    /**
+     * A line of fields, or the reason it could not be read.
+     *
+     * @param line The number of the line in the upload, counting the header as line 1.
+     * @param fields The fields of the line, as many as there are columns, or null if it could not be read.
+     * @param error The reason the line could not be read, or null if it was read.
+     */
+    public record CsvLine(long line, List<String> fields, String error) {
+    }
+
+    private final BufferedReader reader;
+    private final String upload;
+    private final List<String> columns;
+    private long line;
+
+    /**
+     * Creates a reader and reads the header line.
+     *
+     * @param reader The reader of the upload.
+     * @param upload What the upload is, such as "catalogue", used in the messages of the exceptions thrown.
+     * @throws IOException Thrown when the upload could not be read.
+     * @throws BadRequestException Thrown when the upload has no header line, or its header cannot be split.
+     */
+    public CsvLineReader(BufferedReader reader, String upload) throws IOException {
+        this.reader = reader;
+        this.upload = upload;
+        String header = reader.readLine();
+        line++;
+        if (header == null) {
+            throw new BadRequestException(String.format("The %s has no header line", upload));
+        }
+        if (!header.isEmpty() && header.charAt(0) == BYTE_ORDER_MARK) {
+            header = header.substring(1);
+        }
+        List<String> names = split(header);
+        if (names == null) {
+            throw new BadRequestException(String.format("The %s header has an unterminated quoted field", upload));
+        }
+        this.columns = names.stream().map(String::trim).toList();
+    }
+
+    /**
+     * Finds the position of a column in each line, ignoring case. If the header names the column more than once,
+     * the last is used.
+     *
+     * @param name The name of the column.
+     * @param required Whether the upload must have the column.
+     * @return The position of the column, or -1 if an optional column is absent.
+     * @throws BadRequestException Thrown when a required column is absent.
+     */
+    public int column(String name, boolean required) {
+        for (int i = columns.size() - 1; i >= 0; i--) {
+            if (name.equalsIgnoreCase(columns.get(i))) {
+                return i;
+            }
+        }
+        if (required) {
+            throw new BadRequestException(String.format("The %s header has no %s column", upload, name));
+        }
+        return -1;
+    }
+
+    /**
+     * Reads the next line that is not blank.
+     *
+     * @return The next line, or null at the end of the upload.
+     * @throws IOException Thrown when the upload could not be read.
+     */
+    public CsvLine next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            List<String> fields = split(text);
+            if (fields == null) {
+                return new CsvLine(line, null, "The line has an unterminated quoted field");
+            }
+            if (fields.size() != columns.size()) {
+                return new CsvLine(line, null, String.format("The line has %d fields, but the header has %d", fields.size(), columns.size()));
+            }
+            return new CsvLine(line, fields, null);
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Splits a line into its fields.
+     *
+     * @param text The line.
+     * @return The fields, unquoted, or null if a quoted field is not terminated.
+     */
+    public static List<String> split(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
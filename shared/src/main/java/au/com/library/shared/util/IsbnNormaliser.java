@@ -0,0 +1,69 @@
+package au.com.library.shared.util;
+
+import java.util.Locale;
+
+/**
+ * Handles the normalisation of an ISBN to the single form used to look it up and to tell duplicates apart, however
+ * it was written: the hyphens, spaces and any "ISBN" prefix are removed, and a valid ISBN-10 is converted to the
+ * equivalent ISBN-13. Anything else, such as an ISBN-13 or a value that is not a valid ISBN, is only stripped, so
+ * that every value has a normalised form.
+ */
+public class IsbnNormaliser {
+
+    private static final String ISBN_13_PREFIX = "978";
+    private static final int ISBN_10_LENGTH = 10;
+
+    private IsbnNormaliser(){
+    }
+
+    /**
+     * Normalises an ISBN.
+     *
+     * @param isbn The ISBN, as written.
+     * @return The normalised ISBN, or null if the ISBN is null.
+     */
+    public static String normalise(String isbn){
+        if(isbn == null){
+            return null;
+        }
+        String stripped = isbn.toUpperCase(Locale.ROOT).replaceAll("[^0-9X]", "");
+        return isValidIsbn10(stripped) ? toIsbn13(stripped) : stripped;
+    }
+
+    /**
+     * Tells whether the stripped value is a valid ISBN-10: nine digits followed by a check digit, or X for ten,
+     * whose weighted sum is divisible by eleven.
+     */
+    static boolean isValidIsbn10(String stripped){
+        if(stripped.length() != ISBN_10_LENGTH){
+            return false;
+        }
+        int sum = 0;
+        for(int i = 0; i < ISBN_10_LENGTH; i++){
+            char c = stripped.charAt(i);
+            int digit;
+            if(Character.isDigit(c)){
+                digit = c - '0';
+            } else if(c == 'X' && i == ISBN_10_LENGTH - 1){
+                digit = 10;
+            } else {
+                return false;
+            }
+            sum += digit * (ISBN_10_LENGTH - i);
+        }
+        return sum % 11 == 0;
+    }
+
+    /**
+     * Converts a valid ISBN-10 to an ISBN-13, by prefixing its first nine digits with 978 and recalculating the
+     * check digit, whose weighted sum with the other twelve digits must be divisible by ten.
+     */
+    private static String toIsbn13(String isbn10){
+        String digits = ISBN_13_PREFIX + isbn10.substring(0, ISBN_10_LENGTH - 1);
+        int sum = 0;
+        for(int i = 0; i < digits.length(); i++){
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return digits + (10 - sum % 10) % 10;
+    }
+}
@@ -5,6 +5,9 @@ import org.modelmapper.ModelMapper;
 /**
  * Handles the mapping of one object to another, provided the attributes of the destination
  * type exactly matches that of the source.
+ * <p>
+ * The mapping is resolved reflectively, so the services use compile time generated mappers for their
+ * entity and DTO pairs and this remains as a fallback for types without one.
  */
 public final class Mapper {
 
@@ -0,0 +1,159 @@
+package au.com.library.shared.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link BarcodeStrategy} that generates unique barcodes without coordination or randomness.
+ * <p>
+ * Each barcode encodes a 64 bit value made up of the milliseconds since {@link #EPOCH_MILLIS} (42 bits),
+ * the node id of the generating service instance (10 bits) and a sequence within the millisecond (12 bits).
+ * The timestamp and sequence are claimed together with a single compare-and-set, so values are strictly
+ * increasing for a node; when the sequence of a millisecond is exhausted, the following millisecond is
+ * borrowed rather than waiting. Provided each instance is given a distinct node id, barcodes cannot collide.
+ * <p>
+ * The value is written as 13 Crockford base 32 symbols followed by a Crockford check symbol, so that
+ * a mistyped or misread barcode can be detected with {@link #isValid(String)}.
+ */
+public final class MonotonicBarcodeStrategy implements BarcodeStrategy {
+
+    /**
+     * 2025-01-01T00:00:00Z, leaving room for about 139 years of timestamps.
+     */
+    public static final long EPOCH_MILLIS = 1735689600000L;
+    public static final int MAX_NODE_ID = 1023;
+
+    private static final String PREFIX = "LIB-";
+    private static final char[] SYMBOLS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final char[] CHECK_SYMBOLS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ*~$=U".toCharArray();
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int VALUE_SYMBOLS = 13;
+    private static final int LENGTH = PREFIX.length() + VALUE_SYMBOLS + 1;
+    private static final int FIRST_SYMBOL_MAX = (1 << (Long.SIZE - (VALUE_SYMBOLS - 1) * 5)) - 1;
+
+    private final long node;
+    private final LongSupplier clock;
+
+    // The last claimed timestamp and sequence, as (millis since epoch << SEQUENCE_BITS) | sequence
+    private final AtomicLong last = new AtomicLong();
+
+    /**
+     * Creates a generator for the specified node.
+     *
+     * @param nodeId The id of the service instance, unique among the instances generating barcodes.
+     * @throws IllegalArgumentException Thrown if the node id is not between 0 and {@link #MAX_NODE_ID}.
+     */
+    public MonotonicBarcodeStrategy(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    MonotonicBarcodeStrategy(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException(String.format("The node id must be between 0 and %d", MAX_NODE_ID));
+        }
+        this.node = nodeId;
+        this.clock = clock;
+    }
+
+    @Override
+    public String generate() {
+        return encode(claim(1));
+    }
+
+    /**
+     * Generates the specified number of barcodes, claiming their sequence numbers at once.
+     */
+    @Override
+    public List<String> generate(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("The number of barcodes to generate cannot be negative");
+        }
+        List<String> barcodes = new ArrayList<>(count);
+        if (count == 0) {
+            return barcodes;
+        }
+        long first = claim(count);
+        for (int i = 0; i < count; i++) {
+            barcodes.add(encode(first + i));
+        }
+        return barcodes;
+    }
+
+    /**
+     * Determines if a barcode generated by this strategy is well formed and its check symbol matches its value.
+     *
+     * @param barcode The barcode to validate.
+     * @return true if the barcode is valid; false otherwise.
+     */
+    public static boolean isValid(String barcode) {
+        return decode(barcode).isPresent();
+    }
+
+    /**
+     * Decodes the 64 bit value of a barcode generated by this strategy. As each value is written as a single
+     * barcode, the value identifies the barcode as exactly as the barcode itself, in a fraction of the space.
+     *
+     * @param barcode The barcode to decode.
+     * @return An {@link OptionalLong} containing the value of the barcode, or an empty OptionalLong if the barcode
+     * is not {@link #isValid(String) valid}.
+     */
+    public static OptionalLong decode(String barcode) {
+        if (barcode == null || barcode.length() != LENGTH || !barcode.startsWith(PREFIX)) {
+            return OptionalLong.empty();
+        }
+        long value = 0;
+        for (int i = PREFIX.length(); i < PREFIX.length() + VALUE_SYMBOLS; i++) {
+            int symbol = indexOf(SYMBOLS, barcode.charAt(i));
+            // The first symbol carries only the top 4 bits of the value, as 13 symbols hold 65 bits
+            if (symbol < 0 || (i == PREFIX.length() && symbol > FIRST_SYMBOL_MAX)) {
+                return OptionalLong.empty();
+            }
+            value = (value << 5) | symbol;
+        }
+        if (CHECK_SYMBOLS[(int) Long.remainderUnsigned(value, CHECK_SYMBOLS.length)] != barcode.charAt(LENGTH - 1)) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(value);
+    }
+
+    // Claims count consecutive timestamp and sequence values, returning the first
+    private long claim(int count) {
+        while (true) {
+            long previous = last.get();
+            long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+            long first = Math.max(previous + 1, now);
+            if (last.compareAndSet(previous, first + count - 1)) {
+                return first;
+            }
+        }
+    }
+
+    private String encode(long claimed) {
+        long value = ((claimed >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                | (node << SEQUENCE_BITS)
+                | (claimed & SEQUENCE_MASK);
+        char[] barcode = new char[LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), barcode, 0);
+        barcode[LENGTH - 1] = CHECK_SYMBOLS[(int) Long.remainderUnsigned(value, CHECK_SYMBOLS.length)];
+        for (int i = PREFIX.length() + VALUE_SYMBOLS - 1; i >= PREFIX.length(); i--) {
+            barcode[i] = SYMBOLS[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(barcode);
+    }
+
+    private static int indexOf(char[] symbols, char symbol) {
+        for (int i = 0; i < symbols.length; i++) {
+            if (symbols[i] == symbol) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,73 @@
+package au.com.library.shared.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads an upload of one JSON record per line one record at a time, so that the upload is never held in memory.
+ * Blank lines are ignored.
+ *
+ * @param <T> The type of the records.
+ */
+public class NdjsonLineReader<T> implements Closeable {
+
+    /**
+     * A record, or the reason it could not be read.
+     *
+     * @param line The number of the line in the upload on which the record appears.
+     * @param value The record, or null if it could not be read.
+     * @param error The reason the record could not be read, or null if it was read.
+     * @param <T> The type of the record.
+     */
+    public record NdjsonLine<T>(long line, T value, String error) {
+    }
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private final Class<T> type;
+    private long line;
+
+    /**
+     * Creates a reader.
+     *
+     * @param reader The reader of the upload.
+     * @param objectMapper The mapper used to read the records.
+     * @param type The type of the records.
+     */
+    public NdjsonLineReader(BufferedReader reader, ObjectMapper objectMapper, Class<T> type) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+        this.type = type;
+    }
+
+    /**
+     * Reads the record on the next line that is not blank.
+     *
+     * @return The next record, or null at the end of the upload.
+     * @throws IOException Thrown when the upload could not be read.
+     */
+    public NdjsonLine<T> next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                return new NdjsonLine<>(line, objectMapper.readValue(text, type), null);
+            } catch (JsonProcessingException e) {
+                return new NdjsonLine<>(line, null, String.format("The record is malformed: %s", e.getOriginalMessage()));
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,65 @@
+package au.com.library.shared.util;
+
+import au.com.library.shared.exception.BadRequestException;
+import au.com.library.shared.util.CsvLineReader.CsvLine;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvLineReaderTest {
+
+    @Test
+    void splitsQuotedFields() {
+        assertEquals(List.of("a", "b,c", "say \"hi\"", ""), CsvLineReader.split("a,\"b,c\",\"say \"\"hi\"\"\","));
+    }
+
+    @Test
+    void splitsUnterminatedQuoteToNull() {
+        assertNull(CsvLineReader.split("a,\"b"));
+    }
+
+    @Test
+    void findsColumnsAfterByteOrderMark() throws IOException {
+        try (CsvLineReader reader = reader("\uFEFFName, Email \n")) {
+            assertEquals(0, reader.column("name", true));
+            assertEquals(1, reader.column("EMAIL", true));
+            assertEquals(-1, reader.column("phone", false));
+            assertThrows(BadRequestException.class, () -> reader.column("phone", true));
+        }
+    }
+
+    @Test
+    void readsLinesSkippingBlankLines() throws IOException {
+        try (CsvLineReader reader = reader("name,email\nAnn,ann@example.com\n\n  \nBob\n\"Cy,cy@example.com\n")) {
+            CsvLine ann = reader.next();
+            assertEquals(2, ann.line());
+            assertEquals(List.of("Ann", "ann@example.com"), ann.fields());
+            assertNull(ann.error());
+
+            CsvLine bob = reader.next();
+            assertEquals(5, bob.line());
+            assertEquals("The line has 1 fields, but the header has 2", bob.error());
+
+            CsvLine cy = reader.next();
+            assertEquals(6, cy.line());
+            assertEquals("The line has an unterminated quoted field", cy.error());
+
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void rejectsMissingHeader() {
+        BadRequestException e = assertThrows(BadRequestException.class, () -> reader(""));
+        assertEquals("The upload has no header line", e.getMessage());
+    }
+
+    private static CsvLineReader reader(String text) throws IOException {
+        return new CsvLineReader(new BufferedReader(new StringReader(text)), "upload");
+    }
+}
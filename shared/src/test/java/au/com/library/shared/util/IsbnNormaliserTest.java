@@ -0,0 +1,30 @@
+package au.com.library.shared.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IsbnNormaliserTest {
+
+    @Test
+    void convertsValidIsbn10ToIsbn13() {
+        assertEquals("9780306406157", IsbnNormaliser.normalise("0-306-40615-2"));
+        assertEquals("9780804429573", IsbnNormaliser.normalise("0 8044 2957 x"));
+    }
+
+    @Test
+    void stripsIsbn13() {
+        assertEquals("9780306406157", IsbnNormaliser.normalise("ISBN 978-0-306-40615-7"));
+    }
+
+    @Test
+    void onlyStripsInvalidIsbn10() {
+        assertEquals("0306406153", IsbnNormaliser.normalise("0-306-40615-3"));
+        assertFalse(IsbnNormaliser.isValidIsbn10("03064061X2"));
+    }
+
+    @Test
+    void normalisesNullToNull() {
+        assertNull(IsbnNormaliser.normalise(null));
+    }
+}
@@ -0,0 +1,83 @@
+package au.com.library.shared.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonotonicBarcodeStrategyTest {
+
+    private static final long NOW = MonotonicBarcodeStrategy.EPOCH_MILLIS + 1_000_000L;
+
+    @Test
+    void generatesIncreasingValidBarcodesWithinTheSameMillisecond() {
+        MonotonicBarcodeStrategy strategy = new MonotonicBarcodeStrategy(7, () -> NOW);
+
+        List<String> barcodes = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            barcodes.add(strategy.generate());
+        }
+
+        for (int i = 1; i < barcodes.size(); i++) {
+            assertTrue(barcodes.get(i).compareTo(barcodes.get(i - 1)) > 0);
+        }
+        assertTrue(barcodes.stream().allMatch(MonotonicBarcodeStrategy::isValid));
+    }
+
+    @Test
+    void bulkGenerationContinuesTheSequence() {
+        MonotonicBarcodeStrategy strategy = new MonotonicBarcodeStrategy(7, () -> NOW);
+
+        String single = strategy.generate();
+        List<String> bulk = strategy.generate(100);
+
+        assertEquals(100, bulk.size());
+        assertTrue(bulk.getFirst().compareTo(single) > 0);
+        assertEquals(100, Set.copyOf(bulk).size());
+    }
+
+    @Test
+    void differentNodesDoNotCollide() {
+        MonotonicBarcodeStrategy first = new MonotonicBarcodeStrategy(1, () -> NOW);
+        MonotonicBarcodeStrategy second = new MonotonicBarcodeStrategy(2, () -> NOW);
+
+        Set<String> barcodes = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 10_000).parallel().forEach(i -> {
+            assertTrue(barcodes.add(first.generate()));
+            assertTrue(barcodes.add(second.generate()));
+        });
+
+        assertEquals(20_000, barcodes.size());
+    }
+
+    @Test
+    void detectsAMistypedSymbol() {
+        String barcode = new MonotonicBarcodeStrategy(3).generate();
+        char changed = barcode.charAt(10) == '0' ? '1' : '0';
+        String mistyped = barcode.substring(0, 10) + changed + barcode.substring(11);
+
+        assertTrue(MonotonicBarcodeStrategy.isValid(barcode));
+        assertFalse(MonotonicBarcodeStrategy.isValid(mistyped));
+    }
+
+    @Test
+    void decodesIncreasingValuesOfValidBarcodesOnly() {
+        List<String> barcodes = new MonotonicBarcodeStrategy(5, () -> NOW).generate(3);
+        long first = MonotonicBarcodeStrategy.decode(barcodes.get(0)).orElseThrow();
+
+        assertEquals(first + 1, MonotonicBarcodeStrategy.decode(barcodes.get(1)).orElseThrow());
+        assertEquals(first + 2, MonotonicBarcodeStrategy.decode(barcodes.get(2)).orElseThrow());
+        assertTrue(MonotonicBarcodeStrategy.decode(BarcodeGenerator.generate()).isEmpty());
+        assertTrue(MonotonicBarcodeStrategy.decode(null).isEmpty());
+    }
+
+    @Test
+    void rejectsAnOutOfRangeNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new MonotonicBarcodeStrategy(MonotonicBarcodeStrategy.MAX_NODE_ID + 1));
+    }
+}